@@ -0,0 +1,52 @@
+package io.tus.java.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * ByteBufferRequestBody is an internal {@link RequestBody} which sends the remaining bytes of a
+ * {@link ByteBuffer}, e.g. a region of a memory-mapped file. The buffer's position is not modified,
+ * so the body may be written multiple times.
+ */
+class ByteBufferRequestBody extends RequestBody {
+    private final ByteBuffer buffer;
+
+    /**
+     * Create a new body which sends the bytes between the buffer's position and limit.
+     *
+     * @param buffer Buffer to send
+     */
+    ByteBufferRequestBody(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * @return the buffer whose remaining bytes are sent
+     */
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return TusUploader.CONTENT_TYPE;
+    }
+
+    @Override
+    public long contentLength() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        while (source.hasRemaining()) {
+            sink.write(source);
+        }
+        sink.emitCompleteSegments();
+    }
+}
@@ -1,14 +1,23 @@
 package io.tus.java.client;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.io.IOException;
 import java.net.HttpURLConnection;
 
+import okhttp3.Response;
+
 /**
  * This exception is thrown if the server sends a request with an unexpected status code or
- * missing/invalid headers.
+ * missing/invalid headers. The causing connection and response are not serialized, but the
+ * response's status code is, so {@link #shouldRetry()} gives the same result after
+ * deserialization.
  */
 public class ProtocolException extends Exception {
-    private HttpURLConnection connection;
+    private transient HttpURLConnection connection;
+    private transient Response response;
+    private int responseCode = -1;
+    private boolean retryable;
 
     /**
      * Instantiates a new Object of type {@link ProtocolException}.
@@ -28,30 +37,78 @@ public class ProtocolException extends Exception {
         this.connection = connection;
     }
 
+    /**
+     * Instantiates a new Object of type {@link ProtocolException}.
+     * @param message Message to be thrown with the exception.
+     * @param response {@link Response}, which caused the error. Only its status and headers are
+     *                 accessed, so it may have been closed already.
+     */
+    public ProtocolException(String message, Response response) {
+        super(message);
+        this.response = response;
+        this.responseCode = response != null ? response.code() : -1;
+    }
+
+    /**
+     * Instantiates a new Object of type {@link ProtocolException} which should be retried
+     * regardless of the response's status code, e.g. because the server has not stored a request's
+     * content although it responded successfully.
+     * @param message Message to be thrown with the exception.
+     * @param response {@link Response}, which caused the error.
+     * @param retryable {@code true} if {@link #shouldRetry()} should return {@code true}.
+     */
+    ProtocolException(String message, Response response, boolean retryable) {
+        this(message, response);
+        this.retryable = retryable;
+    }
+
     /**
      * Returns the {@link HttpURLConnection} instances, which caused the error.
-     * @return {@link HttpURLConnection}
+     * @return {@link HttpURLConnection} or {@code null} if the exception has been deserialized.
      */
     public HttpURLConnection getCausingConnection() {
         return connection;
     }
 
+    /**
+     * Returns the server's response, which caused the error.
+     * @return {@link Response} or {@code null} if the error was not caused by a response or the
+     * exception has been deserialized.
+     */
+    @Nullable
+    public Response getCausingResponse() {
+        return response;
+    }
+
+    /**
+     * Returns the status code of the response, which caused the error.
+     * @return The status code or -1 if the error was not caused by a response.
+     */
+    public int getResponseCode() {
+        if (response != null) {
+            return response.code();
+        }
+        if (connection != null) {
+            try {
+                return connection.getResponseCode();
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+        return responseCode;
+    }
+
     /**
      * Determines whether a retry attempt should be made after a {@link ProtocolException} or not.
      * @return {@code true} if there should be a retry attempt.
      */
     public boolean shouldRetry() {
-        if (connection == null) {
-            return false;
+        if (retryable) {
+            return true;
         }
+        int responseCode = getResponseCode();
 
-        try {
-            int responseCode = connection.getResponseCode();
-
-            // 5XX and 423 Resource Locked status codes should be retried.
-            return (responseCode >= 500 && responseCode < 600) || responseCode == 423;
-        } catch (IOException e) {
-            return false;
-        }
+        // 5XX, 423 Resource Locked and 429 Too Many Requests status codes should be retried.
+        return (responseCode >= 500 && responseCode < 600) || responseCode == 423 || responseCode == 429;
     }
 }
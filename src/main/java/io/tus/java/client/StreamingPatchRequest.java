@@ -0,0 +1,171 @@
+package io.tus.java.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Pipe;
+
+/**
+ * StreamingPatchRequest is an internal helper which keeps a single PATCH request open while
+ * multiple chunks are written into its body. The request is executed on a thread of the client's
+ * {@link TusClient#getStreamingExecutor()} and its body is fed through a {@link Pipe}, so that
+ * writing a chunk blocks until most of it has been sent to the server.
+ * <br>
+ * The request is not enqueued in OkHttp's dispatcher, which runs a limited number of requests per
+ * host, and the executor must not queue it either. Otherwise, opening more requests than that would
+ * block writing into a request which never starts.
+ */
+class StreamingPatchRequest implements Runnable {
+    private static final long PIPE_SIZE = 64 * 1024;
+
+    private final Pipe pipe = new Pipe(PIPE_SIZE);
+    private final BufferedSink sink = Okio.buffer(pipe.sink());
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final Call call;
+    private volatile Response response;
+    private volatile IOException failure;
+
+    /**
+     * Start a new PATCH request. Its body will consist of the chunks passed to
+     * {@link #write(RequestBody)}.
+     *
+     * @param client         Client used for executing the request
+     * @param executor       Executor starting the request immediately
+     * @param requestBuilder Request containing all headers
+     * @param length         Length of the entire body or -1 if it is not known in advance, in which
+     *                       case chunked transfer encoding is used
+     */
+    StreamingPatchRequest(OkHttpClient client, Executor executor, Request.Builder requestBuilder, long length) {
+        requestBuilder.patch(new PipeRequestBody(length));
+        call = client.newCall(requestBuilder.build());
+        executor.execute(this);
+    }
+
+    /**
+     * Append a chunk to the request's body.
+     *
+     * @param chunk Body whose bytes are appended
+     * @throws IOException Thrown if the request has failed or the server has already responded
+     */
+    void write(RequestBody chunk) throws IOException {
+        chunk.writeTo(sink);
+        sink.emit();
+    }
+
+    /**
+     * Complete the request's body and wait for the server's response.
+     *
+     * @return The server's response, which must be closed by the caller
+     * @throws IOException Thrown if the request failed
+     */
+    Response finish() throws IOException {
+        IOException closeFailure = null;
+        try {
+            sink.close();
+        } catch (IOException e) {
+            // The server may have responded before the entire body was sent. In this case the
+            // response is more meaningful than the failed write.
+            closeFailure = e;
+        }
+
+        try {
+            completed.await();
+        } catch (InterruptedException e) {
+            call.cancel();
+            throw new InterruptedIOException("interrupted while waiting for response");
+        }
+
+        if (response != null) {
+            return response;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (closeFailure != null) {
+            throw closeFailure;
+        }
+        // The request has been aborted by an error, which is thrown on the executor's thread.
+        throw new IOException("request completed without a response");
+    }
+
+    /**
+     * Abort the request without completing its body.
+     *
+     * @return The server's response if it has already been received, or {@code null}
+     */
+    Response cancel() {
+        call.cancel();
+        return response;
+    }
+
+    @Override
+    public void run() {
+        try {
+            response = call.execute();
+        } catch (IOException e) {
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = new IOException("request failed", e);
+        } finally {
+            closeSource();
+        }
+    }
+
+    /**
+     * Unblock pending writes after the request has been completed.
+     */
+    private void closeSource() {
+        try {
+            pipe.source().close();
+        } catch (IOException e) {
+            // Closing a pipe does not throw.
+        } finally {
+            completed.countDown();
+        }
+    }
+
+    /**
+     * Body which reads everything written into the pipe.
+     */
+    private class PipeRequestBody extends RequestBody {
+        private final long length;
+
+        PipeRequestBody(long length) {
+            this.length = length;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return TusUploader.CONTENT_TYPE;
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(BufferedSink requestSink) throws IOException {
+            if (length == -1) {
+                requestSink.writeAll(pipe.source());
+            } else {
+                requestSink.write(pipe.source(), length);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.tus.java.client;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+
+/**
+ * ThrottledRequestBody is an internal {@link RequestBody} which writes another body no faster than
+ * allowed by one or more {@link TusRateLimiter}s. The bytes are passed to the network in slices
+ * of {@link #SLICE_SIZE} bytes, each of which is acquired from all limiters first.
+ */
+class ThrottledRequestBody extends RequestBody {
+    static final int SLICE_SIZE = 8 * 1024;
+
+    private final RequestBody body;
+    private final TusRateLimiter[] limiters;
+
+    /**
+     * Create a new throttled body.
+     *
+     * @param body     Body to write
+     * @param limiters Limiters which must all allow writing a slice
+     */
+    ThrottledRequestBody(RequestBody body, TusRateLimiter... limiters) {
+        this.body = body;
+        this.limiters = limiters;
+    }
+
+    /**
+     * Wrap a body if any limiter is set.
+     *
+     * @param body          Body to write
+     * @param clientLimiter Limiter of the client or {@code null}
+     * @param uploadLimiter Limiter of the upload or {@code null}
+     * @return The throttled body or the original body if no limiter is set
+     */
+    static RequestBody throttle(RequestBody body, TusRateLimiter clientLimiter, TusRateLimiter uploadLimiter) {
+        if (clientLimiter == null && uploadLimiter == null) {
+            return body;
+        }
+        if (clientLimiter == null || uploadLimiter == null || clientLimiter == uploadLimiter) {
+            return new ThrottledRequestBody(body, clientLimiter != null ? clientLimiter : uploadLimiter);
+        }
+        return new ThrottledRequestBody(body, clientLimiter, uploadLimiter);
+    }
+
+    @Override
+    public MediaType contentType() {
+        return body.contentType();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return body.contentLength();
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return body.isOneShot();
+    }
+
+    @Override
+    public void writeTo(final BufferedSink sink) throws IOException {
+        BufferedSink throttledSink = Okio.buffer(new ForwardingSink(sink) {
+            @Override
+            public void write(Buffer source, long byteCount) throws IOException {
+                while (byteCount > 0) {
+                    long slice = Math.min(byteCount, SLICE_SIZE);
+                    for (TusRateLimiter limiter : limiters) {
+                        limiter.acquire(slice);
+                    }
+                    super.write(source, slice);
+                    byteCount -= slice;
+                }
+            }
+        });
+
+        body.writeTo(throttledSink);
+        // Only pass the remaining bytes on, the request's sink is managed by OkHttp.
+        throttledSink.emit();
+    }
+}
@@ -0,0 +1,190 @@
+package io.tus.java.client;
+
+/**
+ * This class adjusts the chunk and payload sizes used by {@link TusUploader} to the network an
+ * upload is sent over. Small requests waste throughput on the round trip between them, while large
+ * requests require large buffers and lose more progress if they fail. Instead of relying on a
+ * single static value, this controller measures the throughput and the acknowledgement latency of
+ * every request:
+ * <ul>
+ *  <li>As long as doubling the request size increases the throughput by at least 10%, the size
+ *  keeps growing. Once the gains flatten out, i.e. the requests cover the bandwidth-delay product,
+ *  the previous size is kept.</li>
+ *  <li>After a failed request or an acknowledgement which took much longer than the round-trip
+ *  time observed before, the size is halved.</li>
+ *  <li>After a number of requests at a stable size, growing is attempted again in case the network
+ *  has improved.</li>
+ * </ul>
+ * The sizes never leave the configured bounds, so the maximum chunk size also limits the memory
+ * used for chunk buffers.
+ * <br>
+ * Use {@link TusClient#setAdaptiveSizing(TusAdaptiveSizing)} or
+ * {@link TusUploader#setAdaptiveSizing(TusAdaptiveSizing)} to enable it. A single instance may be
+ * shared by multiple uploaders, which then learn from each other's measurements. This class is
+ * thread-safe.
+ */
+public class TusAdaptiveSizing {
+    private static final double GROWTH_THRESHOLD = 1.1;
+    private static final int SLOW_ACK_FACTOR = 4;
+    private static final long MIN_SLOW_ACK_NANOS = 50L * 1000 * 1000;
+    private static final int REQUESTS_BEFORE_PROBING = 16;
+
+    private final int minSize;
+    private final int maxChunkSize;
+    private final long maxPayloadSize;
+
+    private long size;
+    private boolean growing = true;
+    private int requestsSinceChange;
+    private double previousThroughput;
+    private long previousBytes;
+    private double throughput;
+    private long roundTripTime;
+
+    /**
+     * Create a new controller starting at 1 MiB per request, which never goes below 64 KiB, uses
+     * chunks of at most 16 MiB and payloads of at most 256 MiB.
+     */
+    public TusAdaptiveSizing() {
+        this(64 * 1024, 16 * 1024 * 1024, 256L * 1024 * 1024);
+    }
+
+    /**
+     * Create a new controller starting at 1 MiB per request, or the nearest size within the bounds.
+     *
+     * @param minSize        Lowest chunk and payload size
+     * @param maxChunkSize   Highest chunk size, which limits the size of chunk buffers
+     * @param maxPayloadSize Highest payload size for a single request
+     */
+    public TusAdaptiveSizing(int minSize, int maxChunkSize, long maxPayloadSize) {
+        if (minSize <= 0 || maxChunkSize < minSize || maxPayloadSize < minSize) {
+            throw new IllegalArgumentException("sizes must be positive and the maximums must not be lower than "
+                    + "the minimum");
+        }
+
+        this.minSize = minSize;
+        this.maxChunkSize = maxChunkSize;
+        this.maxPayloadSize = maxPayloadSize;
+        size = Math.max(minSize, Math.min(1024 * 1024, maxPayloadSize));
+    }
+
+    /**
+     * Get the chunk size which should currently be used.
+     *
+     * @return Number of bytes for a single chunk
+     * @see TusUploader#setChunkSize(int)
+     */
+    public synchronized int getChunkSize() {
+        return (int) Math.min(size, maxChunkSize);
+    }
+
+    /**
+     * Get the payload size which should currently be used for a single request.
+     *
+     * @return Number of bytes for a single request
+     * @see TusUploader#setRequestPayloadSize(long)
+     */
+    public synchronized long getPayloadSize() {
+        return size;
+    }
+
+    /**
+     * Get the highest throughput measured for a request at the current size.
+     *
+     * @return Bytes per second or 0 if no request has been measured yet
+     */
+    public synchronized long getThroughput() {
+        return (long) throughput;
+    }
+
+    /**
+     * Get the estimated round-trip time, which is derived from the time between sending the last
+     * byte of a request and receiving the server's response.
+     *
+     * @return Round-trip time in nanoseconds or 0 if no request has been measured yet
+     */
+    public synchronized long getRoundTripTime() {
+        return roundTripTime;
+    }
+
+    /**
+     * Report a request which has been completed successfully.
+     *
+     * @param bytes         Number of bytes sent in the request's body
+     * @param durationNanos Time from starting the request until receiving the response
+     * @param ackNanos      Time from sending the last byte until receiving the response
+     */
+    public synchronized void requestCompleted(long bytes, long durationNanos, long ackNanos) {
+        if (bytes <= 0 || durationNanos <= 0) {
+            return;
+        }
+
+        // Lower latencies are adopted immediately, higher ones slowly, so that a single delayed
+        // response does not distort the estimate.
+        boolean slowAck = roundTripTime > 0 && ackNanos > SLOW_ACK_FACTOR * roundTripTime
+                && ackNanos > MIN_SLOW_ACK_NANOS;
+        if (roundTripTime == 0 || ackNanos < roundTripTime) {
+            roundTripTime = ackNanos;
+        } else {
+            roundTripTime += (ackNanos - roundTripTime) / 8;
+        }
+
+        if (slowAck) {
+            shrink();
+            return;
+        }
+
+        double sampleThroughput = bytes * 1e9 / durationNanos;
+        throughput = Math.max(throughput, sampleThroughput);
+
+        if (!growing) {
+            if (++requestsSinceChange >= REQUESTS_BEFORE_PROBING) {
+                growing = true;
+                previousThroughput = sampleThroughput;
+                previousBytes = bytes;
+                grow();
+            }
+            return;
+        }
+
+        if (bytes <= previousBytes) {
+            // The request was not larger than the previous one, e.g. because the uploader's limits or
+            // the end of the upload was reached, so a larger size would not change anything.
+            growing = false;
+            requestsSinceChange = 0;
+        } else if (previousThroughput == 0 || sampleThroughput >= previousThroughput * GROWTH_THRESHOLD) {
+            previousThroughput = sampleThroughput;
+            previousBytes = bytes;
+            grow();
+        } else {
+            // The gains have flattened out, so the previous size performs just as well while using
+            // less memory.
+            growing = false;
+            requestsSinceChange = 0;
+            size = Math.max(minSize, size / 2);
+            throughput = previousThroughput;
+        }
+    }
+
+    /**
+     * Report a request which has failed, e.g. because the connection was interrupted or the server
+     * responded with an error.
+     */
+    public synchronized void requestFailed() {
+        shrink();
+    }
+
+    private void grow() {
+        size = Math.min(maxPayloadSize, size * 2);
+        throughput = 0;
+    }
+
+    private void shrink() {
+        size = Math.max(minSize, size / 2);
+        growing = false;
+        requestsSinceChange = 0;
+        previousThroughput = 0;
+        previousBytes = 0;
+        throughput = 0;
+    }
+}
@@ -0,0 +1,477 @@
+package io.tus.java.client;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * This class represents an upload started using
+ * {@link TusClient#uploadAsync(TusUpload, TusUploadCallback)}. The upload proceeds through a chain
+ * of asynchronous requests: a HEAD request if the upload can be resumed or a POST request creating
+ * it, followed by PATCH requests until the entire content has been sent. Each request is enqueued
+ * once the response to the previous one has been handled, so no thread is blocked in between.
+ * Requests delayed by coordinated backpressure wait on a timer before they are enqueued.
+ * <br>
+ * If a checksum algorithm has been set using
+ * {@link TusClient#setChecksumAlgorithm(TusChecksumAlgorithm)}, the content is read into memory in
+ * parts of up to 2 MiB, so the {@code Upload-Checksum} header can be computed before a request is
+ * sent. Parts rejected because of a checksum mismatch are sent again up to three times.
+ * <br>
+ * As a {@link Future}, it completes with the upload's URL. {@link #cancel(boolean)} aborts the
+ * current request. The bytes acknowledged by the server so far are kept, so the upload can be
+ * resumed later.
+ */
+public class TusAsyncUpload implements Future<URL> {
+    private static final long PAYLOAD_SIZE = 10 * 1024 * 1024;
+    private static final int CHECKSUM_PAYLOAD_SIZE = 2 * 1024 * 1024;
+    private static final int CHECKSUM_MISMATCH = 460;
+    private static final int MAX_CHECKSUM_RETRANSMISSIONS = 3;
+    private static final int MAX_OFFSET_RETRANSMISSIONS = 3;
+
+    private final TusClient client;
+    private final TusUpload upload;
+    private final TusUploadCallback callback;
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private Call call;
+    private boolean finished;
+    private boolean cancelled;
+    private volatile URL uploadURL;
+    private volatile Exception failure;
+    private long offset;
+    private volatile boolean offsetVerified;
+    private int offsetRetransmissions;
+
+    /**
+     * Create a new asynchronous upload. It is started using {@link #start()}.
+     *
+     * @param client   Client used for issuing the requests
+     * @param upload   Upload to send
+     * @param callback Callback to notify or {@code null}
+     */
+    TusAsyncUpload(TusClient client, TusUpload upload, TusUploadCallback callback) {
+        this.client = client;
+        this.upload = upload;
+        this.callback = callback;
+    }
+
+    /**
+     * Issue the first request, which resumes the upload if its URL is known or creates it. In
+     * low-latency mode, a stored offset is used without asking the server.
+     */
+    void start() {
+        URL storedURL = client.getResumableURL(upload);
+        long storedOffset = storedURL != null ? client.getStoredOffset(upload) : -1;
+        if (storedOffset >= 0) {
+            uploadURL = storedURL;
+            setOffset(storedOffset);
+            try {
+                patch();
+            } catch (IOException e) {
+                fail(e);
+            }
+        } else if (storedURL != null) {
+            resume(storedURL);
+        } else {
+            create();
+        }
+    }
+
+    /**
+     * Get the upload's URL.
+     *
+     * @return The URL or {@code null} if the upload has not been created or resumed yet
+     */
+    public URL getUploadURL() {
+        return uploadURL;
+    }
+
+    /**
+     * Get the number of bytes which have been acknowledged by the server.
+     *
+     * @return Number of bytes
+     */
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        Call currentCall;
+        synchronized (this) {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            cancelled = true;
+            currentCall = call;
+        }
+
+        if (currentCall != null) {
+            currentCall.cancel();
+        }
+        completed.countDown();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return completed.getCount() == 0;
+    }
+
+    @Override
+    public URL get() throws InterruptedException, ExecutionException {
+        completed.await();
+        return getResult();
+    }
+
+    @Override
+    public URL get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!completed.await(timeout, unit)) {
+            throw new TimeoutException("upload has not been completed in time");
+        }
+        return getResult();
+    }
+
+    /**
+     * @return the upload's URL once completed
+     * @throws ExecutionException the upload failed
+     */
+    private URL getResult() throws ExecutionException {
+        if (isCancelled()) {
+            throw new CancellationException("upload has been cancelled");
+        }
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return uploadURL;
+    }
+
+    /**
+     * Retrieve the offset of an existing upload. If it does not exist anymore, a new one is created.
+     *
+     * @param url URL of the upload
+     */
+    private void resume(final URL url) {
+        enqueue(client.getOffsetRequestBuilder(url).build(), new Step() {
+            @Override
+            void handle(Request request, Response response) throws Exception {
+                if (response.code() == 404 || response.code() == 410) {
+                    create();
+                    return;
+                }
+
+                long serverOffset = client.getUploadOffset(response);
+                client.recordExpiration(upload, response);
+                client.roundTripCompleted(response);
+                client.recordOffset(upload, serverOffset);
+                uploadURL = url;
+                offsetVerified = true;
+                setOffset(serverOffset);
+                patch();
+            }
+        });
+    }
+
+    /**
+     * Create a new upload using the Creation extension.
+     */
+    private void create() {
+        Request creationRequest;
+        try {
+            client.checkUploadSize(upload, client.capabilityDiscoveryEnabled() ? client.getCachedCapabilities() : null);
+            creationRequest = client.getUploadCreationRequestBuilder(upload).build();
+        } catch (ProtocolException e) {
+            fail(e);
+            return;
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+
+        enqueue(creationRequest, new Step() {
+            @Override
+            void handle(Request request, Response response) throws Exception {
+                URL url = client.getCreatedUploadURL(request, response);
+                client.storeUploadURL(upload.getFingerprint(), url);
+                client.recordExpiration(upload, response);
+                long creationOffset = client.getCreationUploadOffset(upload, response);
+                client.recordOffset(upload, creationOffset);
+
+                uploadURL = url;
+                offsetVerified = true;
+                setOffset(creationOffset);
+                patch();
+            }
+        });
+    }
+
+    /**
+     * Send the next part of the upload's content or complete the upload if nothing is left.
+     *
+     * @throws IOException the source cannot be read
+     */
+    private void patch() throws IOException {
+        final long requestOffset = getOffset();
+        if (requestOffset >= upload.getSize()) {
+            succeed();
+            return;
+        }
+
+        TusChecksumAlgorithm checksumAlgorithm = client.getChecksumAlgorithm();
+        long payloadSize = checksumAlgorithm != null ? CHECKSUM_PAYLOAD_SIZE : PAYLOAD_SIZE;
+        final long length = Math.min(payloadSize, upload.getSize() - requestOffset);
+        Request.Builder requestBuilder = client.getRequestBuilderWithHeaders()
+                .url(uploadURL)
+                .header("Upload-Offset", Long.toString(requestOffset))
+                .header("Content-Type", "application/offset+octet-stream");
+        if (client.shouldExpectContinue(length)) {
+            requestBuilder.header("Expect", "100-continue");
+        }
+        RequestBody body;
+        if (checksumAlgorithm != null) {
+            ByteBuffer chunk = readChunk(requestOffset, (int) length);
+            requestBuilder.header("Upload-Checksum", checksumAlgorithm.headerValue(chunk));
+            body = new ByteBufferRequestBody(chunk);
+        } else {
+            body = new TusSourceRequestBody(upload.getSource(), requestOffset, length);
+        }
+        final long startNanos = System.nanoTime();
+        final Request patchRequest = requestBuilder
+                .patch(ThrottledRequestBody.throttle(body, client.getRateLimiter(), upload.getRateLimiter()))
+                .build();
+
+        enqueue(patchRequest, new Step() {
+            private int checksumRetransmissions;
+
+            @Override
+            void handle(Request request, Response response) throws Exception {
+                int responseCode = response.code();
+                if (responseCode == CHECKSUM_MISMATCH && checksumRetransmissions++ < MAX_CHECKSUM_RETRANSMISSIONS) {
+                    // The server has discarded the corrupted body, so only this request is sent again.
+                    enqueue(patchRequest, this);
+                    return;
+                }
+                if (!(responseCode >= 200 && responseCode < 300)) {
+                    client.recordOffset(upload, -1);
+                    client.getRoundTripEstimator().bodyRejected();
+                    if (client.lowLatencyModeEnabled() && !offsetVerified
+                            && (responseCode == 409 || responseCode == 404 || responseCode == 410)) {
+                        // The stored offset used for resuming without a HEAD request is outdated or
+                        // the upload does not exist anymore, in which case it is created again.
+                        resume(uploadURL);
+                        return;
+                    }
+                    throw new ProtocolException("unexpected status code (" + responseCode + ") while uploading chunk",
+                            response);
+                }
+
+                long serverOffset = parseOffset(response.header("Upload-Offset"));
+                String message = String.format(
+                        "response contains different Upload-Offset value (%s) than expected (%d)",
+                        response.header("Upload-Offset"), requestOffset + length);
+                if (serverOffset < 0 || serverOffset > upload.getSize()) {
+                    throw new ProtocolException(message, response);
+                }
+
+                // A different offset is reconciled by continuing from the server's offset, which
+                // is read again from the source if the server is behind. Requests which repeatedly
+                // make no progress are not sent forever.
+                if (serverOffset > requestOffset) {
+                    offsetRetransmissions = 0;
+                } else if (++offsetRetransmissions > MAX_OFFSET_RETRANSMISSIONS) {
+                    throw new ProtocolException(message + " after " + MAX_OFFSET_RETRANSMISSIONS
+                            + " retransmissions", response, true);
+                }
+                client.recordExpiration(upload, response);
+                client.recordOffset(upload, serverOffset);
+                client.getRoundTripEstimator().transferCompleted(length, System.nanoTime() - startNanos);
+                offsetVerified = true;
+                setOffset(serverOffset);
+                upload.getSource().discardBefore(serverOffset);
+                if (callback != null) {
+                    callback.onProgress(upload, serverOffset, upload.getSize());
+                }
+                patch();
+            }
+        });
+    }
+
+    /**
+     * Read a part of the content into memory, so its checksum can be computed.
+     *
+     * @param position position of the part
+     * @param length   number of bytes to read
+     * @return buffer holding the part
+     * @throws IOException the source cannot be read or ends before the upload's size
+     */
+    private ByteBuffer readChunk(long position, int length) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(length);
+        while (chunk.hasRemaining()) {
+            if (upload.getSource().read(position + chunk.position(), chunk) == -1) {
+                throw new EOFException("source ended after " + (position + chunk.position()) + " bytes");
+            }
+        }
+        ((Buffer) chunk).flip();
+        return chunk;
+    }
+
+    /**
+     * @param value value of an Upload-Offset header
+     * @return the offset or -1 if the value is missing or invalid
+     */
+    private static long parseOffset(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private synchronized void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * Execute a request asynchronously unless the upload has been cancelled. If the request's host
+     * is overloaded (see {@link TusClient#enableBackpressure()}), the request is enqueued once the
+     * host accepts it again.
+     *
+     * @param request request to execute
+     * @param step    handler of the response
+     */
+    private void enqueue(final Request request, final Step step) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+        }
+
+        TusHostBackpressure backpressure = client.getBackpressure();
+        Request permitted = backpressure.tryAcquire(request, new Runnable() {
+            @Override
+            public void run() {
+                enqueue(request, step);
+            }
+        });
+        if (permitted == null) {
+            return;
+        }
+
+        Call newCall = client.getOrCreateOkHttpClient().newCall(permitted);
+        synchronized (this) {
+            if (finished) {
+                backpressure.abandon(permitted);
+                return;
+            }
+            call = newCall;
+        }
+        newCall.enqueue(step);
+    }
+
+    /**
+     * Complete the upload successfully. If the source cannot be closed, the upload completes with
+     * this failure instead, although its content has been sent.
+     */
+    private void succeed() {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+        }
+
+        // The callback runs first, so its effects are visible once get() returns.
+        try {
+            client.uploadFinished(upload);
+            try {
+                upload.getSource().close();
+                upload.closeInputStream();
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            if (callback != null) {
+                if (failure != null) {
+                    callback.onFailure(upload, failure);
+                } else {
+                    callback.onSuccess(upload, uploadURL);
+                }
+            }
+        } finally {
+            completed.countDown();
+        }
+    }
+
+    /**
+     * Complete the upload with a failure.
+     *
+     * @param e the cause
+     */
+    private void fail(Exception e) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+        }
+
+        failure = e;
+        try {
+            if (callback != null) {
+                callback.onFailure(upload, e);
+            }
+        } finally {
+            completed.countDown();
+        }
+    }
+
+    /**
+     * A request in the chain. Failures of the request or its handler fail the upload.
+     */
+    private abstract class Step implements Callback {
+        @Override
+        public void onFailure(Call call, IOException e) {
+            fail(e);
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            try {
+                handle(call.request(), response);
+            } catch (Exception e) {
+                fail(e);
+            } finally {
+                response.close();
+            }
+        }
+
+        /**
+         * @param request  the executed request
+         * @param response the server's response, which is closed afterwards
+         * @throws Exception the response is unexpected or the next step cannot be started
+         */
+        abstract void handle(Request request, Response response) throws Exception;
+    }
+}
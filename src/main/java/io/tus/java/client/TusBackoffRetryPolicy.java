@@ -0,0 +1,243 @@
+package io.tus.java.client;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import okhttp3.Response;
+
+/**
+ * A {@link TusRetryPolicy} using exponential backoff with decorrelated jitter. Each delay is chosen
+ * randomly between the base delay and three times the previous delay, but never exceeds the maximum
+ * delay. Unlike fixed delays, this spreads the retries of many clients which failed at the same
+ * time, so they do not hit the server again all at once.
+ * <br>
+ * Failures are sorted into {@link ErrorClass}es by {@link #classify(Exception)}, and each class has
+ * its own budget of retries per execution, set using {@link #setBudget(ErrorClass, int)}. If the
+ * server responds with {@code 429 Too Many Requests} or {@code 503 Service Unavailable} and a
+ * {@code Retry-After} header, the next attempt is not made before the requested time. If the server
+ * asks to wait longer than the maximum delay, the failure is not retried.
+ * <br>
+ * This class is thread-safe. Changed settings apply to executions started afterwards.
+ */
+public class TusBackoffRetryPolicy implements TusRetryPolicy {
+    /**
+     * The classes of failures, each having its own retry budget.
+     */
+    public enum ErrorClass {
+        /**
+         * An {@link IOException}, e.g. a connection failure or timeout.
+         */
+        NETWORK,
+        /**
+         * A {@link ProtocolException} caused by a server error, which
+         * {@link ProtocolException#shouldRetry()} considers temporary.
+         */
+        SERVER_ERROR,
+        /**
+         * A {@link ProtocolException} caused by a {@code 429 Too Many Requests} or
+         * {@code 503 Service Unavailable} response.
+         */
+        THROTTLED,
+        /**
+         * Any other failure, e.g. a client error or a missing header.
+         */
+        NOT_RETRYABLE
+    }
+
+    private final Random random;
+    private final Map<ErrorClass, Integer> budgets = new EnumMap<ErrorClass, Integer>(ErrorClass.class);
+    private volatile long baseDelay = 500;
+    private volatile long maxDelay = 30000;
+
+    /**
+     * Create a new policy with a base delay of 500 milliseconds, a maximum delay of 30 seconds and
+     * budgets of 4 retries for {@link ErrorClass#NETWORK} and {@link ErrorClass#SERVER_ERROR}
+     * failures and 8 retries for {@link ErrorClass#THROTTLED} ones.
+     */
+    public TusBackoffRetryPolicy() {
+        this(new Random());
+    }
+
+    /**
+     * @param random source of the jitter
+     */
+    TusBackoffRetryPolicy(Random random) {
+        this.random = random;
+        budgets.put(ErrorClass.NETWORK, 4);
+        budgets.put(ErrorClass.SERVER_ERROR, 4);
+        budgets.put(ErrorClass.THROTTLED, 8);
+        budgets.put(ErrorClass.NOT_RETRYABLE, 0);
+    }
+
+    /**
+     * Set the lower bound of the delays and the delay before the first retry. The default value is
+     * 500 milliseconds.
+     *
+     * @param baseDelay Delay in milliseconds, must be positive
+     */
+    public void setBaseDelay(long baseDelay) {
+        if (baseDelay <= 0) {
+            throw new IllegalArgumentException("base delay must be positive");
+        }
+        this.baseDelay = baseDelay;
+    }
+
+    /**
+     * Get the lower bound of the delays.
+     *
+     * @return Delay in milliseconds
+     * @see #setBaseDelay(long)
+     */
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    /**
+     * Set the upper bound of the delays. The default value is 30 seconds.
+     *
+     * @param maxDelay Delay in milliseconds, must be positive
+     */
+    public void setMaxDelay(long maxDelay) {
+        if (maxDelay <= 0) {
+            throw new IllegalArgumentException("maximum delay must be positive");
+        }
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Get the upper bound of the delays.
+     *
+     * @return Delay in milliseconds
+     * @see #setMaxDelay(long)
+     */
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Set the number of times failures of a class are retried within a single execution. Failures
+     * of other classes do not use up this budget.
+     *
+     * @param errorClass The class of failures
+     * @param budget     Number of retries, must not be negative
+     */
+    public synchronized void setBudget(@NotNull ErrorClass errorClass, int budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget must not be negative");
+        }
+        budgets.put(errorClass, budget);
+    }
+
+    /**
+     * Get the number of times failures of a class are retried within a single execution.
+     *
+     * @param errorClass The class of failures
+     * @return Number of retries
+     * @see #setBudget(ErrorClass, int)
+     */
+    public synchronized int getBudget(@NotNull ErrorClass errorClass) {
+        return budgets.get(errorClass);
+    }
+
+    /**
+     * Determine the class of a failure. Subclasses may override this method to classify failures
+     * differently, e.g. to retry certain client errors.
+     *
+     * @param e The exception thrown by a failed attempt
+     * @return The class of the failure
+     */
+    @NotNull
+    public ErrorClass classify(@NotNull Exception e) {
+        if (e instanceof ProtocolException) {
+            ProtocolException protocolException = (ProtocolException) e;
+            int responseCode = protocolException.getResponseCode();
+            if (responseCode == 429 || responseCode == 503) {
+                return ErrorClass.THROTTLED;
+            }
+            return protocolException.shouldRetry() ? ErrorClass.SERVER_ERROR : ErrorClass.NOT_RETRYABLE;
+        }
+        if (e instanceof IOException) {
+            return ErrorClass.NETWORK;
+        }
+        return ErrorClass.NOT_RETRYABLE;
+    }
+
+    @NotNull
+    @Override
+    public Attempts start() {
+        final Map<ErrorClass, Integer> remaining;
+        synchronized (this) {
+            remaining = new EnumMap<ErrorClass, Integer>(budgets);
+        }
+        final long base = baseDelay;
+        final long max = Math.max(base, maxDelay);
+
+        return new Attempts() {
+            private long previousDelay = base;
+
+            @Override
+            public long nextDelay(@NotNull Exception e) {
+                ErrorClass errorClass = classify(e);
+                int budget = remaining.get(errorClass);
+                if (budget <= 0) {
+                    return -1;
+                }
+                remaining.put(errorClass, budget - 1);
+
+                long upper = Math.min(max, previousDelay * 3);
+                long delay = base + (long) (random.nextDouble() * (upper - base));
+                previousDelay = delay;
+
+                if (errorClass == ErrorClass.THROTTLED) {
+                    long retryAfter = getRetryAfter(e, System.currentTimeMillis());
+                    if (retryAfter > max) {
+                        return -1;
+                    }
+                    delay = Math.max(delay, retryAfter);
+                }
+                return delay;
+            }
+        };
+    }
+
+    /**
+     * @param e   a failure
+     * @param now the current time in milliseconds since the epoch
+     * @return the delay requested by the Retry-After header of the response causing the failure in
+     * milliseconds or -1 if there is none
+     */
+    static long getRetryAfter(Exception e, long now) {
+        if (!(e instanceof ProtocolException)) {
+            return -1;
+        }
+        Response response = ((ProtocolException) e).getCausingResponse();
+        return response != null ? getRetryAfter(response, now) : -1;
+    }
+
+    /**
+     * @param response a response
+     * @param now      the current time in milliseconds since the epoch
+     * @return the delay requested by the response's Retry-After header in milliseconds or -1 if
+     * there is none
+     */
+    static long getRetryAfter(Response response, long now) {
+        String value = response.header("Retry-After");
+        if (value == null) {
+            return -1;
+        }
+
+        try {
+            long seconds = Long.parseLong(value.trim());
+            return seconds < 0 ? -1 : seconds * 1000;
+        } catch (NumberFormatException ignored) {
+            // The value is not a number of seconds, but may be an HTTP date.
+        }
+        Date date = response.headers().getDate("Retry-After");
+        return date != null ? Math.max(0, date.getTime() - now) : -1;
+    }
+}
@@ -0,0 +1,148 @@
+package io.tus.java.client;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is used to share chunk buffers between the {@link TusUploader} instances of a
+ * {@link TusClient}. Instead of allocating a new buffer for every uploader (and every retry made by
+ * a {@link TusExecutor}), buffers are handed out by {@link #acquire(int)} and returned using
+ * {@link #release(ByteBuffer)} once the uploader is finished.
+ * <br>
+ * Buffers are grouped in size classes of powers of two, starting at 4 KiB, so a request for 3 MiB
+ * is served using a buffer with a capacity of 4 MiB. Buffers larger than the largest size class
+ * are not pooled. The total capacity of all idle buffers is limited, buffers exceeding this limit
+ * are left to the garbage collector.
+ * <br>
+ * The pool can optionally hand out direct buffers, which are allocated outside of the Java heap.
+ * This class is thread-safe and does not use locks.
+ */
+public class TusBufferPool {
+    private static final int MIN_SIZE_CLASS = 12;
+    private static final int MAX_SIZE_CLASS = 26;
+
+    private final long maxPooledBytes;
+    private final boolean direct;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final Queue<ByteBuffer>[] sizeClasses;
+
+    /**
+     * Create a new pool of heap buffers which keeps up to 16 MiB of idle buffers.
+     */
+    public TusBufferPool() {
+        this(16 * 1024 * 1024, false);
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param maxPooledBytes Maximum total capacity of the idle buffers kept in the pool
+     * @param direct         Whether direct buffers should be allocated instead of heap buffers
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TusBufferPool(long maxPooledBytes, boolean direct) {
+        this.maxPooledBytes = maxPooledBytes;
+        this.direct = direct;
+
+        sizeClasses = new Queue[MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new ConcurrentLinkedQueue<ByteBuffer>();
+        }
+    }
+
+    /**
+     * Get a buffer which can hold at least the specified number of bytes. The returned buffer's
+     * position is zero and its limit is set to the requested size. Its capacity may be larger.
+     *
+     * @param size Number of bytes the buffer must hold
+     * @return A pooled or newly allocated buffer
+     */
+    public ByteBuffer acquire(int size) {
+        int sizeClass = sizeClassOf(size);
+
+        ByteBuffer buffer = null;
+        if (sizeClass != -1) {
+            buffer = sizeClasses[sizeClass - MIN_SIZE_CLASS].poll();
+            if (buffer != null) {
+                pooledBytes.addAndGet(-buffer.capacity());
+            } else {
+                buffer = allocate(1 << sizeClass);
+            }
+        } else {
+            buffer = allocate(size);
+        }
+
+        ((Buffer) buffer).clear();
+        ((Buffer) buffer).limit(size);
+        return buffer;
+    }
+
+    /**
+     * Return a buffer obtained using {@link #acquire(int)} to the pool. The buffer must not be used
+     * by the caller afterwards.
+     *
+     * @param buffer The buffer to return
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.isDirect() != direct) {
+            return;
+        }
+
+        int capacity = buffer.capacity();
+        int sizeClass = sizeClassOf(capacity);
+        if (sizeClass == -1 || 1 << sizeClass != capacity) {
+            return;
+        }
+
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        sizeClasses[sizeClass - MIN_SIZE_CLASS].offer(buffer);
+    }
+
+    /**
+     * Get the total capacity of the idle buffers currently kept in the pool.
+     *
+     * @return Number of bytes
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Get the maximum total capacity of idle buffers kept in the pool.
+     *
+     * @return Number of bytes
+     */
+    public long getMaxPooledBytes() {
+        return maxPooledBytes;
+    }
+
+    /**
+     * Get the current status if direct buffers are allocated.
+     *
+     * @return True if the buffers are allocated outside of the Java heap
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * @param size number of bytes
+     * @return exponent of the smallest size class holding the number of bytes or -1 if the size
+     * exceeds the largest size class
+     */
+    private static int sizeClassOf(int size) {
+        int sizeClass = size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+        sizeClass = Math.max(sizeClass, MIN_SIZE_CLASS);
+        return sizeClass <= MAX_SIZE_CLASS ? sizeClass : -1;
+    }
+}
@@ -0,0 +1,90 @@
+package io.tus.java.client;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This class provides the content of a byte array or {@link ByteBuffer} as a {@link TusSource}.
+ * The data is not copied, so it must not be modified while the upload is in progress.
+ */
+public class TusByteBufferSource implements TusSource {
+    private final ByteBuffer data;
+
+    /**
+     * Create a new source for the bytes between the buffer's position and limit. Modifying the
+     * buffer's position or limit afterwards does not affect this source.
+     *
+     * @param buffer The buffer to read from
+     */
+    public TusByteBufferSource(ByteBuffer buffer) {
+        data = buffer.slice();
+    }
+
+    /**
+     * Create a new source for the entire byte array.
+     *
+     * @param bytes The array to read from
+     */
+    public TusByteBufferSource(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) {
+        ByteBuffer region = region(position, dst.remaining());
+        if (region == null) {
+            return -1;
+        }
+
+        int bytesRead = region.remaining();
+        dst.put(region);
+        return bytesRead;
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        ByteBuffer region = region(position, count);
+        if (region == null) {
+            return 0;
+        }
+
+        long transferred = 0;
+        while (region.hasRemaining()) {
+            transferred += target.write(region);
+        }
+        return transferred;
+    }
+
+    @Override
+    public void discardBefore(long position) {
+        // Nothing is buffered.
+    }
+
+    @Override
+    public long getSize() {
+        return data.capacity();
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release.
+    }
+
+    /**
+     * @param position start of the region
+     * @param count    maximum length of the region
+     * @return view of the region or {@code null} if the position is at or after the end
+     */
+    private ByteBuffer region(long position, long count) {
+        if (position >= data.capacity()) {
+            return null;
+        }
+
+        ByteBuffer region = data.duplicate();
+        ((Buffer) region).position((int) position);
+        ((Buffer) region).limit((int) Math.min(data.capacity(), position + count));
+        return region;
+    }
+}
@@ -0,0 +1,44 @@
+package io.tus.java.client;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class caches the capabilities of tus servers in a {@link HashMap}. The values will only be
+ * stored as long as the application is running. This store is thread-safe.
+ */
+public class TusCapabilitiesMemoryStore implements TusCapabilitiesStore {
+    private Map<String, TusServerCapabilities> store =
+            Collections.synchronizedMap(new HashMap<String, TusServerCapabilities>());
+
+    /**
+     * Stores the capabilities of a server.
+     * @param creationURL The upload creation URL of the server.
+     * @param capabilities The discovered capabilities.
+     */
+    @Override
+    public void set(URL creationURL, TusServerCapabilities capabilities) {
+        store.put(creationURL.toString(), capabilities);
+    }
+
+    /**
+     * Returns the capabilities of a server.
+     * @param creationURL The upload creation URL of the server.
+     * @return The stored capabilities.
+     */
+    @Override
+    public TusServerCapabilities get(URL creationURL) {
+        return store.get(creationURL.toString());
+    }
+
+    /**
+     * Removes the entry of a server.
+     * @param creationURL The upload creation URL of the server.
+     */
+    @Override
+    public void remove(URL creationURL) {
+        store.remove(creationURL.toString());
+    }
+}
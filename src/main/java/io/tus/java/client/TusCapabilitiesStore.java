@@ -0,0 +1,37 @@
+package io.tus.java.client;
+
+import java.net.URL;
+
+/**
+ * Implementations of this interface are used to cache the capabilities of tus servers, so that
+ * {@link TusClient} does not need to issue an OPTIONS request before every upload. The entries are
+ * keyed by the upload creation URL. Whether an entry is still valid is decided by the client using
+ * {@link TusServerCapabilities#getDiscoveredAt()}, so a store may keep entries across restarts,
+ * e.g. by persisting {@link TusServerCapabilities#encode()}.
+ */
+public interface TusCapabilitiesStore {
+    /**
+     * Store the capabilities of a server.
+     *
+     * @param creationURL  The upload creation URL of the server.
+     * @param capabilities The discovered capabilities.
+     */
+    void set(URL creationURL, TusServerCapabilities capabilities);
+
+    /**
+     * Retrieve the capabilities of a server. If no matching entry is found this method will
+     * return <code>null</code>.
+     *
+     * @param creationURL The upload creation URL of the server.
+     * @return The stored capabilities.
+     */
+    TusServerCapabilities get(URL creationURL);
+
+    /**
+     * Remove an entry from the store. If no entry exists for this URL no exception should be
+     * thrown.
+     *
+     * @param creationURL The upload creation URL of the server.
+     */
+    void remove(URL creationURL);
+}
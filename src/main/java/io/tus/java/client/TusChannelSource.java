@@ -0,0 +1,89 @@
+package io.tus.java.client;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class provides the content of a {@link SeekableByteChannel} as a {@link TusSource}. Since a
+ * channel has only a single position, reads are serialized. Use {@link TusFileSource} for
+ * {@link java.nio.channels.FileChannel}s, which supports concurrent reads.
+ */
+public class TusChannelSource implements TusSource {
+    private static final int TRANSFER_BUFFER_SIZE = 8 * 1024;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final SeekableByteChannel channel;
+    private ByteBuffer transferBuffer;
+
+    /**
+     * Create a new source reading from the specified channel. The channel will be closed by
+     * {@link #close()}.
+     *
+     * @param channel The channel to read from
+     */
+    public TusChannelSource(SeekableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+        lock.lock();
+        try {
+            channel.position(position);
+            return channel.read(dst);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        lock.lock();
+        try {
+            if (transferBuffer == null) {
+                transferBuffer = ByteBuffer.allocate(TRANSFER_BUFFER_SIZE);
+            }
+
+            channel.position(position);
+            long transferred = 0;
+            while (transferred < count) {
+                ((Buffer) transferBuffer).clear();
+                ((Buffer) transferBuffer).limit((int) Math.min(TRANSFER_BUFFER_SIZE, count - transferred));
+                if (channel.read(transferBuffer) == -1) {
+                    break;
+                }
+
+                ((Buffer) transferBuffer).flip();
+                while (transferBuffer.hasRemaining()) {
+                    transferred += target.write(transferBuffer);
+                }
+            }
+            return transferred;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void discardBefore(long position) {
+        // Nothing is buffered.
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
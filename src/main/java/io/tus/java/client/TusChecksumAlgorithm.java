@@ -0,0 +1,130 @@
+package io.tus.java.client;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * The checksum algorithms which can be used for verifying the integrity of the requests sent by a
+ * {@link TusUploader} using the Checksum extension. The server must support the chosen algorithm,
+ * see {@link TusServerCapabilities#getChecksumAlgorithms()}.
+ */
+public enum TusChecksumAlgorithm {
+    /**
+     * SHA-1, the algorithm every server supporting the Checksum extension must implement.
+     */
+    SHA1("sha1") {
+        @Override
+        byte[] digest(ByteBuffer data) {
+            return messageDigest("SHA-1", data);
+        }
+    },
+    /**
+     * MD5.
+     */
+    MD5("md5") {
+        @Override
+        byte[] digest(ByteBuffer data) {
+            return messageDigest("MD5", data);
+        }
+    },
+    /**
+     * CRC-32 as used by ZIP, encoded as four bytes in big-endian order.
+     */
+    CRC32("crc32") {
+        @Override
+        byte[] digest(ByteBuffer data) {
+            return checksum(new CRC32(), data);
+        }
+    },
+    /**
+     * CRC-32C (Castagnoli), encoded as four bytes in big-endian order.
+     */
+    CRC32C("crc32c") {
+        @Override
+        byte[] digest(ByteBuffer data) {
+            return checksum(new TusCrc32c(), data);
+        }
+    };
+
+    private static final int COPY_BUFFER_SIZE = 8 * 1024;
+
+    private final String name;
+
+    TusChecksumAlgorithm(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the name of the algorithm used in the {@code Upload-Checksum} header.
+     *
+     * @return Name, e.g. {@code sha1}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Compute the digest of the bytes between the buffer's position and limit. The buffer's
+     * position is not changed.
+     *
+     * @param data bytes to digest
+     * @return the digest
+     */
+    abstract byte[] digest(ByteBuffer data);
+
+    /**
+     * Compute the value of an {@code Upload-Checksum} header.
+     *
+     * @param data bytes to digest
+     * @return name of the algorithm and Base64-encoded digest
+     */
+    String headerValue(ByteBuffer data) {
+        return name + " " + TusUpload.base64Encode(digest(data));
+    }
+
+    /**
+     * @param algorithm name of a {@link MessageDigest} algorithm
+     * @param data      bytes to digest
+     * @return the digest
+     */
+    private static byte[] messageDigest(String algorithm, ByteBuffer data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(algorithm);
+            digest.update(data.duplicate());
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to implement SHA-1 and MD5.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param checksum 32-bit checksum to compute
+     * @param data     bytes to digest
+     * @return the checksum in big-endian order
+     */
+    private static byte[] checksum(Checksum checksum, ByteBuffer data) {
+        if (data.hasArray()) {
+            checksum.update(data.array(), data.arrayOffset() + data.position(), data.remaining());
+        } else {
+            // Checksum.update(ByteBuffer) is only available since Java 8.
+            ByteBuffer source = data.duplicate();
+            byte[] copy = new byte[Math.min(COPY_BUFFER_SIZE, source.remaining())];
+            while (source.hasRemaining()) {
+                int length = Math.min(copy.length, source.remaining());
+                source.get(copy, 0, length);
+                checksum.update(copy, 0, length);
+            }
+        }
+
+        long value = checksum.getValue();
+        ByteBuffer encoded = ByteBuffer.allocate(4);
+        encoded.putInt((int) value);
+        ((Buffer) encoded).flip();
+        return encoded.array();
+    }
+}
@@ -4,9 +4,21 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
@@ -28,9 +40,27 @@ public class TusClient {
     private URL uploadCreationURL;
     private boolean resumingEnabled;
     private boolean removeFingerprintOnSuccessEnabled;
+    private boolean creationWithUploadEnabled;
+    private boolean lowLatencyModeEnabled;
+    private volatile boolean backpressureEnabled;
+    private final TusRoundTripEstimator roundTripEstimator = new TusRoundTripEstimator();
+    private int creationWithUploadSize = 2 * 1024 * 1024;
+    private boolean capabilityDiscoveryEnabled;
+    private TusCapabilitiesStore capabilitiesStore;
+    private long capabilitiesTTL = 60 * 60 * 1000;
+    private long capabilitiesFailureTTL = 5 * 60 * 1000;
+    private final Map<String, Long> failedDiscoveries = new HashMap<String, Long>();
     private TusURLStore urlStore;
     private Map<String, String> headers;
     private int connectTimeout = 5000;
+    private TusBufferPool bufferPool;
+    private TusAdaptiveSizing adaptiveSizing;
+    private TusChecksumAlgorithm checksumAlgorithm;
+    private ExecutorService uploadExecutor;
+    private ExecutorService streamingExecutor;
+    private TusRateLimiter rateLimiter;
+    private TusRetryPolicy retryPolicy;
+    private final TusHostBackpressure backpressure = new TusHostBackpressure(this);
 
     /**
      * Create a new tus client.
@@ -120,6 +150,388 @@ public class TusClient {
         return removeFingerprintOnSuccessEnabled;
     }
 
+    /**
+     * Enable low-latency mode, which avoids waiting for round trips that are not needed:
+     * <ul>
+     *     <li>If the {@link TusURLStore} passed to {@link #enableResuming(TusURLStore)} is a
+     *     {@link TusURLOffsetStore} holding the last acknowledged offset of an upload,
+     *     {@link #resumeUpload(TusUpload)} continues from this offset without issuing a HEAD
+     *     request. If the server responds to a PATCH request with {@code 409 Conflict} because the
+     *     offset is outdated, {@link TusUploader} retrieves the actual offset and sends the chunk
+     *     again.</li>
+     *     <li>PATCH requests only wait for {@code 100 Continue} before sending their body if the
+     *     body's transfer takes considerably longer than a round trip, based on the measured
+     *     round-trip time and throughput, or if the server has recently rejected a body.</li>
+     * </ul>
+     * This mainly speeds up small uploads over connections with a high latency.
+     *
+     * @see #disableLowLatencyMode()
+     */
+    public void enableLowLatencyMode() {
+        lowLatencyModeEnabled = true;
+    }
+
+    /**
+     * Disable low-latency mode, so uploads are always resumed using a HEAD request and every PATCH
+     * request waits for {@code 100 Continue}.
+     *
+     * @see #enableLowLatencyMode()
+     */
+    public void disableLowLatencyMode() {
+        lowLatencyModeEnabled = false;
+    }
+
+    /**
+     * Get the current status if low-latency mode.
+     *
+     * @return True if enabled using {@link #enableLowLatencyMode()}
+     * @see #enableLowLatencyMode()
+     * @see #disableLowLatencyMode()
+     */
+    public boolean lowLatencyModeEnabled() {
+        return lowLatencyModeEnabled;
+    }
+
+    /**
+     * Enable coordinated backpressure, so all uploads of this client back off together once a host
+     * responds with {@code 429 Too Many Requests} or {@code 503 Service Unavailable}. Afterwards,
+     * POST and PATCH requests to this host are paused for the time requested by the
+     * {@code Retry-After} header and the number of them running at the same time is halved. The
+     * limit is raised again gradually with every successful request (additive increase,
+     * multiplicative decrease). This keeps an overloaded host from receiving the retries of all
+     * uploads at once.
+     * <br>
+     * The backpressure is applied by an interceptor of the client returned by
+     * {@link #getOrCreateOkHttpClient()}, so a client set using {@link #setOkHttpClient(OkHttpClient)}
+     * must be derived from it. Requests of {@link #uploadAsync(TusUpload, TusUploadCallback)} wait
+     * on a timer before they are enqueued, so they do not block the threads of OkHttp's dispatcher.
+     *
+     * @see #disableBackpressure()
+     */
+    public void enableBackpressure() {
+        backpressureEnabled = true;
+    }
+
+    /**
+     * Disable coordinated backpressure, so requests are started regardless of the responses other
+     * uploads received from the host.
+     *
+     * @see #enableBackpressure()
+     */
+    public void disableBackpressure() {
+        backpressureEnabled = false;
+    }
+
+    /**
+     * Get the current status of coordinated backpressure.
+     *
+     * @return True if enabled using {@link #enableBackpressure()}
+     * @see #enableBackpressure()
+     * @see #disableBackpressure()
+     */
+    public boolean backpressureEnabled() {
+        return backpressureEnabled;
+    }
+
+    /**
+     * Enable sending the first part of an upload's content in the POST request creating it, using
+     * the Creation With Upload extension. This saves a round trip for every new upload, which is
+     * significant for small uploads. Up to {@link #getCreationWithUploadSize()} bytes are sent and
+     * the uploader returned by {@link #createUpload(TusUpload)} continues at the offset reported
+     * by the server. The server must support the {@code creation-with-upload} extension.
+     *
+     * @see #disableCreationWithUpload()
+     */
+    public void enableCreationWithUpload() {
+        creationWithUploadEnabled = true;
+    }
+
+    /**
+     * Disable sending content in the POST request creating an upload.
+     *
+     * @see #enableCreationWithUpload()
+     */
+    public void disableCreationWithUpload() {
+        creationWithUploadEnabled = false;
+    }
+
+    /**
+     * Get the current status if sending content in the POST request creating an upload.
+     *
+     * @return True if enabled using {@link #enableCreationWithUpload()}
+     * @see #enableCreationWithUpload()
+     * @see #disableCreationWithUpload()
+     */
+    public boolean creationWithUploadEnabled() {
+        return creationWithUploadEnabled;
+    }
+
+    /**
+     * Set the maximum number of bytes sent in the POST request creating an upload if
+     * {@link #enableCreationWithUpload()} has been called. For uploads read from an
+     * {@link java.io.InputStream}, the size must not exceed the number of bytes which can be
+     * retransmitted, see {@link TusInputStreamSource#DEFAULT_REWIND_LIMIT}. The default is 2 MiB.
+     *
+     * @param creationWithUploadSize Number of bytes
+     */
+    public void setCreationWithUploadSize(int creationWithUploadSize) {
+        if (creationWithUploadSize < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
+        }
+        this.creationWithUploadSize = creationWithUploadSize;
+    }
+
+    /**
+     * Get the maximum number of bytes sent in the POST request creating an upload.
+     *
+     * @return Number of bytes
+     * @see #setCreationWithUploadSize(int)
+     */
+    public int getCreationWithUploadSize() {
+        return creationWithUploadSize;
+    }
+
+    /**
+     * Enable discovering the server's capabilities using an OPTIONS request to the upload creation
+     * URL before creating uploads. The capabilities are cached for {@link #getCapabilitiesTTL()}
+     * milliseconds in the {@link #getCapabilitiesStore()}. Based on them:
+     * <ul>
+     *     <li>uploads larger than the server's {@code Tus-Max-Size} are rejected by
+     *     {@link #createUpload(TusUpload)} before any content is sent,</li>
+     *     <li>the first chunk is sent in the POST request creating an upload if the server supports
+     *     the {@code creation-with-upload} extension (see {@link #enableCreationWithUpload()}),</li>
+     *     <li>{@link #uploadInParallel(TusUpload, int)} uploads sequentially if the server does not
+     *     support the {@code concatenation} extension.</li>
+     * </ul>
+     * If the OPTIONS request fails, uploads proceed as if discovery was disabled and the request is
+     * not repeated for {@link #getCapabilitiesFailureTTL()} milliseconds.
+     *
+     * @see #disableCapabilityDiscovery()
+     */
+    public void enableCapabilityDiscovery() {
+        capabilityDiscoveryEnabled = true;
+    }
+
+    /**
+     * Disable discovering the server's capabilities before creating uploads.
+     *
+     * @see #enableCapabilityDiscovery()
+     */
+    public void disableCapabilityDiscovery() {
+        capabilityDiscoveryEnabled = false;
+    }
+
+    /**
+     * Get the current status if discovering the server's capabilities before creating uploads.
+     *
+     * @return True if enabled using {@link #enableCapabilityDiscovery()}
+     * @see #enableCapabilityDiscovery()
+     * @see #disableCapabilityDiscovery()
+     */
+    public boolean capabilityDiscoveryEnabled() {
+        return capabilityDiscoveryEnabled;
+    }
+
+    /**
+     * Set the store caching the discovered server capabilities. A persistent store allows reusing
+     * the capabilities after a restart.
+     *
+     * @param capabilitiesStore The store to use
+     * @see #getCapabilitiesStore()
+     */
+    public synchronized void setCapabilitiesStore(@NotNull TusCapabilitiesStore capabilitiesStore) {
+        this.capabilitiesStore = capabilitiesStore;
+    }
+
+    /**
+     * Get the store caching the discovered server capabilities. If no store has been set using
+     * {@link #setCapabilitiesStore(TusCapabilitiesStore)}, a {@link TusCapabilitiesMemoryStore} is
+     * created.
+     *
+     * @return The store in use
+     */
+    public synchronized TusCapabilitiesStore getCapabilitiesStore() {
+        if (capabilitiesStore == null) {
+            capabilitiesStore = new TusCapabilitiesMemoryStore();
+        }
+        return capabilitiesStore;
+    }
+
+    /**
+     * Set the time after which cached server capabilities are discovered again. The default is one
+     * hour.
+     *
+     * @param capabilitiesTTL Time in milliseconds
+     */
+    public void setCapabilitiesTTL(long capabilitiesTTL) {
+        this.capabilitiesTTL = capabilitiesTTL;
+    }
+
+    /**
+     * Get the time after which cached server capabilities are discovered again.
+     *
+     * @return Time in milliseconds
+     */
+    public long getCapabilitiesTTL() {
+        return capabilitiesTTL;
+    }
+
+    /**
+     * Set the time after which the discovery of server capabilities is attempted again once it has
+     * failed, e.g. because the server does not answer OPTIONS requests. Until then, uploads proceed
+     * as if discovery was disabled. The default is five minutes.
+     *
+     * @param capabilitiesFailureTTL Time in milliseconds
+     */
+    public void setCapabilitiesFailureTTL(long capabilitiesFailureTTL) {
+        this.capabilitiesFailureTTL = capabilitiesFailureTTL;
+    }
+
+    /**
+     * Get the time after which the discovery of server capabilities is attempted again once it has
+     * failed.
+     *
+     * @return Time in milliseconds
+     */
+    public long getCapabilitiesFailureTTL() {
+        return capabilitiesFailureTTL;
+    }
+
+    /**
+     * Get the capabilities of the server behind the upload creation URL. If the
+     * {@link #getCapabilitiesStore()} holds capabilities which have been discovered less than
+     * {@link #getCapabilitiesTTL()} milliseconds ago, they are returned. Otherwise an OPTIONS
+     * request is issued and its result is stored. This method can be used regardless of
+     * {@link #enableCapabilityDiscovery()}.
+     *
+     * @return The server's capabilities
+     * @throws ProtocolException Thrown if the remote server sent an unexpected response, e.g.
+     *                           wrong status codes or invalid headers.
+     * @throws IOException       Thrown if an exception occurs while issuing the HTTP request.
+     * @throws IllegalStateException Thrown if no upload creation URL has been set.
+     */
+    public TusServerCapabilities getServerCapabilities() throws ProtocolException, IOException {
+        URL creationURL = uploadCreationURL;
+        if (creationURL == null) {
+            throw new IllegalStateException("upload creation URL must be set to discover the server's capabilities");
+        }
+
+        TusServerCapabilities capabilities = getCachedCapabilities();
+        if (capabilities != null) {
+            return capabilities;
+        }
+
+        Request request = getRequestBuilderWithHeaders()
+                .url(creationURL)
+                .method("OPTIONS", null)
+                .build();
+        Response response = getOrCreateOkHttpClient().newCall(request).execute();
+        try {
+            capabilities = TusServerCapabilities.fromResponse(response, System.currentTimeMillis());
+        } finally {
+            response.close();
+        }
+
+        getCapabilitiesStore().set(creationURL, capabilities);
+        synchronized (failedDiscoveries) {
+            failedDiscoveries.remove(creationURL.toString());
+        }
+        return capabilities;
+    }
+
+    /**
+     * @return the cached capabilities of the server behind the upload creation URL or {@code null}
+     * if none have been discovered within the TTL
+     */
+    @Nullable
+    TusServerCapabilities getCachedCapabilities() {
+        URL creationURL = uploadCreationURL;
+        if (creationURL == null) {
+            return null;
+        }
+
+        TusServerCapabilities capabilities = getCapabilitiesStore().get(creationURL);
+        if (capabilities == null) {
+            return null;
+        }
+
+        long age = System.currentTimeMillis() - capabilities.getDiscoveredAt();
+        return age >= 0 && age < capabilitiesTTL ? capabilities : null;
+    }
+
+    /**
+     * Discover the server's capabilities if enabled using {@link #enableCapabilityDiscovery()}.
+     *
+     * @return the capabilities or {@code null} if discovery is disabled or has failed
+     */
+    @Nullable
+    private TusServerCapabilities discoverCapabilities() {
+        URL creationURL = uploadCreationURL;
+        if (!capabilityDiscoveryEnabled || creationURL == null) {
+            return null;
+        }
+
+        TusServerCapabilities capabilities = getCachedCapabilities();
+        if (capabilities != null || discoveryRecentlyFailed(creationURL)) {
+            return capabilities;
+        }
+
+        try {
+            return getServerCapabilities();
+        } catch (ProtocolException e) {
+            discoveryFailed(creationURL);
+            return null;
+        } catch (IOException e) {
+            discoveryFailed(creationURL);
+            return null;
+        }
+    }
+
+    /**
+     * @param creationURL the upload creation URL
+     * @return {@code true} if discovering the capabilities of the server has failed less than
+     * {@link #getCapabilitiesFailureTTL()} milliseconds ago
+     */
+    private boolean discoveryRecentlyFailed(URL creationURL) {
+        Long failedAt;
+        synchronized (failedDiscoveries) {
+            failedAt = failedDiscoveries.get(creationURL.toString());
+        }
+        if (failedAt == null) {
+            return false;
+        }
+
+        long age = System.currentTimeMillis() - failedAt;
+        return age >= 0 && age < capabilitiesFailureTTL;
+    }
+
+    /**
+     * Remember that discovering the capabilities of a server has failed, so uploads do not wait for
+     * another attempt until {@link #getCapabilitiesFailureTTL()} has passed.
+     *
+     * @param creationURL the upload creation URL
+     */
+    private void discoveryFailed(URL creationURL) {
+        synchronized (failedDiscoveries) {
+            failedDiscoveries.put(creationURL.toString(), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Reject an upload which exceeds the maximum size announced by the server.
+     *
+     * @param upload       upload to create
+     * @param capabilities the server's capabilities or {@code null} if unknown
+     * @throws ProtocolException the upload is too large
+     */
+    void checkUploadSize(TusUpload upload, @Nullable TusServerCapabilities capabilities) throws ProtocolException {
+        if (capabilities != null && !upload.deferredLengthEnabled() && capabilities.getMaxSize() >= 0
+                && upload.getSize() > capabilities.getMaxSize()) {
+            throw new ProtocolException(String.format("upload size (%d) exceeds the server's maximum size (%d)",
+                    upload.getSize(), capabilities.getMaxSize()));
+        }
+    }
+
 
     /**
      * Set headers which will be added to every HTTP requestes made by this TusClient instance.
@@ -163,12 +575,182 @@ public class TusClient {
         return connectTimeout;
     }
 
+    /**
+     * Set the pool from which the {@link TusUploader} instances created by this client obtain their
+     * chunk buffers. Sharing a pool between multiple clients is possible.
+     *
+     * @param bufferPool The pool to use
+     * @see #getBufferPool()
+     */
+    public synchronized void setBufferPool(@NotNull TusBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Get the pool from which the {@link TusUploader} instances created by this client obtain their
+     * chunk buffers. If no pool has been set using {@link #setBufferPool(TusBufferPool)}, a pool
+     * using the default settings of {@link TusBufferPool#TusBufferPool()} is created.
+     *
+     * @return The pool in use
+     */
+    public synchronized TusBufferPool getBufferPool() {
+        if (bufferPool == null) {
+            bufferPool = new TusBufferPool();
+        }
+        return bufferPool;
+    }
+
+    /**
+     * Set the controller which chooses the chunk and payload sizes of the {@link TusUploader}
+     * instances created by this client afterwards. The controller is shared by these uploaders,
+     * so sizes learned during one upload are used for the following ones.
+     *
+     * @param adaptiveSizing The controller to use or {@code null} to use static sizes
+     * @see TusUploader#setAdaptiveSizing(TusAdaptiveSizing)
+     */
+    public void setAdaptiveSizing(@Nullable TusAdaptiveSizing adaptiveSizing) {
+        this.adaptiveSizing = adaptiveSizing;
+    }
+
+    /**
+     * Get the controller which chooses the chunk and payload sizes of new uploaders.
+     *
+     * @return The controller or {@code null} if static sizes are used
+     * @see #setAdaptiveSizing(TusAdaptiveSizing)
+     */
+    @Nullable
+    public TusAdaptiveSizing getAdaptiveSizing() {
+        return adaptiveSizing;
+    }
+
+    /**
+     * Set the algorithm used by the {@link TusUploader} instances created by this client afterwards
+     * and by asynchronous uploads (see {@link #uploadAsync(TusUpload, TusUploadCallback)}) for
+     * computing the {@code Upload-Checksum} header of their requests. The server must support
+     * the Checksum extension and the algorithm, see
+     * {@link TusServerCapabilities#getChecksumAlgorithms()}.
+     *
+     * @param checksumAlgorithm The algorithm to use or {@code null} to not send checksums
+     * @see TusUploader#setChecksumAlgorithm(TusChecksumAlgorithm)
+     */
+    public void setChecksumAlgorithm(@Nullable TusChecksumAlgorithm checksumAlgorithm) {
+        this.checksumAlgorithm = checksumAlgorithm;
+    }
+
+    /**
+     * Get the algorithm used by new uploaders for computing the {@code Upload-Checksum} header.
+     *
+     * @return The algorithm or {@code null} if no checksums are sent
+     * @see #setChecksumAlgorithm(TusChecksumAlgorithm)
+     */
+    @Nullable
+    public TusChecksumAlgorithm getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    /**
+     * Set the limiter which caps the rate at which all uploads of this client together write their
+     * content. The limiter is applied to requests started afterwards, while its rate can be changed
+     * at any time using {@link TusRateLimiter#setBytesPerSecond(long)}.
+     *
+     * @param rateLimiter The limiter to use or {@code null} to not limit the rate
+     * @see TusUpload#setRateLimiter(TusRateLimiter)
+     */
+    public void setRateLimiter(@Nullable TusRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Get the limiter which caps the rate of all uploads of this client.
+     *
+     * @return The limiter or {@code null} if the rate is not limited
+     * @see #setRateLimiter(TusRateLimiter)
+     */
+    @Nullable
+    public TusRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Set the policy deciding whether and when the {@link TusExecutor}s of a
+     * {@link TusUploadManager} or {@link TusUploadPublisher} using this client retry failed
+     * attempts. The policy is applied to uploads started afterwards.
+     *
+     * @param retryPolicy The policy to use or {@code null} to retry using the executors' delays
+     * @see TusExecutor#setRetryPolicy(TusRetryPolicy)
+     */
+    public void setRetryPolicy(@Nullable TusRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Get the policy deciding whether and when failed attempts are retried.
+     *
+     * @return The policy or {@code null} if the executors' delays are used
+     * @see #setRetryPolicy(TusRetryPolicy)
+     */
+    @Nullable
+    public TusRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Set the executor running the blocking uploads started by this client, i.e. the partial
+     * uploads of {@link #uploadInParallel(TusUpload, int)} and the jobs of a
+     * {@link TusUploadManager} created without an own executor. The executor is not shut down
+     * by the client. On Java 21 or later, an executor using virtual threads can be obtained from
+     * {@link TusVirtualThreads#newExecutor()}.
+     *
+     * @param uploadExecutor The executor to use or {@code null} to create thread pools as needed
+     * @see #getUploadExecutor()
+     */
+    public synchronized void setUploadExecutor(@Nullable ExecutorService uploadExecutor) {
+        this.uploadExecutor = uploadExecutor;
+    }
+
+    /**
+     * Get the executor running the blocking uploads started by this client.
+     *
+     * @return The executor or {@code null} if thread pools are created as needed
+     * @see #setUploadExecutor(ExecutorService)
+     */
+    @Nullable
+    public synchronized ExecutorService getUploadExecutor() {
+        return uploadExecutor;
+    }
+
+    /**
+     * Get the executor running the open PATCH requests of uploaders which send multiple chunks in a
+     * single request (see {@link TusUploader#enableMultiChunkRequests()}). The uploader blocks
+     * while writing into a request which has not started yet, so the executor must start every
+     * request immediately instead of queueing it, which rules out a bounded
+     * {@link #getUploadExecutor()}. Its threads are reused by later requests and terminate after
+     * being idle for a minute.
+     *
+     * @return the executor, which is created when first needed
+     */
+    synchronized ExecutorService getStreamingExecutor() {
+        if (streamingExecutor == null) {
+            streamingExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "tus-streaming-patch");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return streamingExecutor;
+    }
+
     /**
      * Create a new upload using the Creation extension. Before calling this function, an "upload
      * creation URL" must be defined using {@link #setUploadCreationURL(URL)} or else this
      * function will fail.
      * In order to create the upload a POST request will be issued. The file's chunks must be
-     * uploaded manually using the returned {@link TusUploader} object.
+     * uploaded manually using the returned {@link TusUploader} object. If
+     * {@link #enableCreationWithUpload()} has been called, the POST request contains the first
+     * chunk and the uploader continues after the bytes accepted by the server.
      *
      * @param upload The file for which a new upload will be created
      * @return Use {@link TusUploader} to upload the file's chunks.
@@ -177,8 +759,305 @@ public class TusClient {
      * @throws IOException       Thrown if an exception occurs while issuing the HTTP request.
      */
     public TusUploader createUpload(@NotNull TusUpload upload) throws ProtocolException, IOException {
+        checkUploadSize(upload, discoverCapabilities());
 
         OkHttpClient okHttpClient = getOrCreateOkHttpClient();
+        Request request = getUploadCreationRequestBuilder(upload).build();
+        Response response = okHttpClient.newCall(request).execute();
+
+        URL uploadURL;
+        long offset;
+        try {
+            uploadURL = getCreatedUploadURL(request, response);
+            offset = getCreationUploadOffset(upload, response);
+        } finally {
+            response.close();
+        }
+
+        storeUploadURL(upload.getFingerprint(), uploadURL);
+        recordExpiration(upload, response);
+        recordOffset(upload, offset);
+        if (offset == 0) {
+            roundTripCompleted(response);
+        }
+
+        return new TusUploader(this, upload, uploadURL, upload.getSource(), offset);
+    }
+
+    /**
+     * Upload a file using multiple connections at once. The upload is split into the specified
+     * number of byte ranges of equal size, each of which is uploaded as a partial upload
+     * ({@code Upload-Concat: partial}) on its own thread. Once all partial uploads are complete,
+     * they are concatenated into the final upload ({@code Upload-Concat: final}) using the upload's
+     * metadata. This requires the server to support the Concatenation extension.
+     * <br>
+     * If resuming has been enabled using {@link #enableResuming(TusURLStore)}, the URLs of the
+     * partial uploads are stored using fingerprints derived from the upload's fingerprint. Calling
+     * this method again after a failure, e.g. from a {@link TusExecutor}, resumes the unfinished
+     * partial uploads only. Once the final upload has been created, the partial uploads' entries are
+     * removed and the final upload's URL is stored using the upload's fingerprint. The
+     * {@link TusURLStore} is accessed from multiple threads and must be thread-safe.
+     * <br>
+     * The upload's source must support random access, e.g. a {@link TusFileSource}, and its size
+     * must be known. The source is closed after the upload has been completed. If capability
+     * discovery has been enabled using {@link #enableCapabilityDiscovery()} and the server does not
+     * support the {@code concatenation} extension, the upload is sent using a single connection.
+     * <br>
+     * The partial uploads run on the client's {@link #getUploadExecutor()} or on a thread pool
+     * created for this call. Partial uploads which the executor has not started by the time the
+     * calling thread waits for them are uploaded by the calling thread, so this method can also be
+     * called from a task running on a bounded upload executor, e.g. a {@link TusUploadManager} job.
+     * If resuming has been enabled, the upload must have a fingerprint.
+     *
+     * @param upload          The file to upload
+     * @param parallelUploads Number of partial uploads and connections to use
+     * @return URL of the final upload
+     * @throws ProtocolException Thrown if the remote server sent an unexpected response, e.g.
+     *                           wrong status codes or missing/invalid headers.
+     * @throws IOException       Thrown if an exception occurs while issuing the HTTP requests or
+     *                           reading the source.
+     */
+    public URL uploadInParallel(@NotNull TusUpload upload, int parallelUploads) throws ProtocolException, IOException {
+        final TusSource source = upload.getSource();
+        if (source == null || source instanceof TusInputStreamSource) {
+            throw new IllegalArgumentException("parallel uploads require a source supporting random access");
+        }
+        if (upload.getSize() <= 0) {
+            throw new IllegalArgumentException("parallel uploads require the upload's size to be known");
+        }
+        if (parallelUploads < 1) {
+            throw new IllegalArgumentException("at least one parallel upload is required");
+        }
+        if (resumingEnabled && upload.getFingerprint() == null) {
+            // The partial uploads' fingerprints are derived from the upload's one, so uploads
+            // without a fingerprint would resume each other's partial uploads.
+            throw new IllegalArgumentException("parallel uploads require a fingerprint if resuming is enabled");
+        }
+
+        TusServerCapabilities capabilities = discoverCapabilities();
+        checkUploadSize(upload, capabilities);
+        if (capabilities != null && !capabilities.supportsExtension("concatenation")) {
+            // The server cannot concatenate partial uploads, so the upload is sent in one piece.
+            TusUploader uploader = resumeOrCreateUpload(upload);
+            while (uploader.uploadChunk() > -1) {
+                // Keep uploading until the upload is complete.
+            }
+            uploader.finish();
+            return uploader.getUploadURL();
+        }
+
+        int partCount = (int) Math.min(parallelUploads, upload.getSize());
+        final TusUpload[] parts = new TusUpload[partCount];
+        for (int i = 0; i < partCount; i++) {
+            long start = upload.getSize() * i / partCount;
+            long end = upload.getSize() * (i + 1) / partCount;
+
+            parts[i] = new TusUpload();
+            parts[i].setSource(new TusSourceRegion(source, start, end - start));
+            parts[i].setFingerprint(String.format("%s-partial-%d-%d", upload.getFingerprint(), start, end));
+            parts[i].setPartial(true);
+        }
+
+        // Create the shared OkHttpClient before it is used from multiple threads.
+        getOrCreateOkHttpClient();
+
+        final URL[] partURLs = new URL[partCount];
+        ExecutorService sharedExecutor = getUploadExecutor();
+        ExecutorService executor = sharedExecutor != null ? sharedExecutor : Executors.newFixedThreadPool(partCount);
+        List<FutureTask<Void>> futures = new ArrayList<FutureTask<Void>>();
+        try {
+            for (int i = 0; i < partCount; i++) {
+                final int index = i;
+                FutureTask<Void> future = new FutureTask<Void>(new Callable<Void>() {
+                    @Override
+                    public Void call() throws ProtocolException, IOException {
+                        TusUploader uploader = resumeOrCreateUpload(parts[index]);
+                        while (uploader.uploadChunk() > -1) {
+                            // Keep uploading until the part is complete.
+                        }
+                        uploader.finish();
+                        partURLs[index] = uploader.getUploadURL();
+                        return null;
+                    }
+                });
+                futures.add(future);
+                executor.execute(future);
+            }
+
+            for (FutureTask<Void> future : futures) {
+                // A part which the executor has not started yet, e.g. because all of its threads
+                // are busy with uploads calling this method, is uploaded by the calling thread.
+                future.run();
+                awaitPartialUpload(future);
+            }
+        } finally {
+            // Stop the remaining parts if one of them has failed.
+            for (FutureTask<Void> future : futures) {
+                future.cancel(true);
+            }
+            if (sharedExecutor == null) {
+                executor.shutdownNow();
+            }
+        }
+
+        StringBuilder concat = new StringBuilder("final;");
+        for (int i = 0; i < partCount; i++) {
+            if (i > 0) {
+                concat.append(' ');
+            }
+            concat.append(partURLs[i]);
+        }
+
+        Request.Builder requestBuilder = getCreationRequestBuilder(upload);
+        requestBuilder.addHeader("Upload-Concat", concat.toString());
+        URL uploadURL = executeCreationRequest(requestBuilder);
+
+        if (resumingEnabled) {
+            for (TusUpload part : parts) {
+                urlStore.remove(part.getFingerprint());
+            }
+        }
+        storeUploadURL(upload.getFingerprint(), uploadURL);
+        uploadFinished(upload);
+
+        source.close();
+        upload.closeInputStream();
+        return uploadURL;
+    }
+
+    /**
+     * Wait for a partial upload started by {@link #uploadInParallel(TusUpload, int)} and rethrow
+     * its failure.
+     *
+     * @param future The task uploading the part
+     * @throws ProtocolException Thrown if the part failed due to an unexpected response
+     * @throws IOException       Thrown if the part failed due to an I/O error or the thread was
+     *                           interrupted
+     */
+    private void awaitPartialUpload(Future<?> future) throws ProtocolException, IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("interrupted while waiting for partial uploads");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ProtocolException) {
+                throw (ProtocolException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Upload a file without blocking the calling thread. The upload is resumed if possible (see
+     * {@link #resumeOrCreateUpload(TusUpload)}) and its content is sent in requests of up to 10 MiB,
+     * or 2 MiB if a checksum algorithm has been set using
+     * {@link #setChecksumAlgorithm(TusChecksumAlgorithm)}.
+     * All requests are executed asynchronously using OkHttp's {@link okhttp3.Dispatcher}, so no
+     * thread is occupied while waiting for the network and the number of concurrent requests is
+     * limited by the dispatcher's settings instead of the number of threads.
+     * <br>
+     * The callback is invoked on OkHttp's threads and must not block. The returned future
+     * completes with the upload's URL after the callback has been notified of the outcome and can
+     * be used to cancel the upload, which aborts the current request. A cancelled upload can be
+     * resumed later. The upload's source is closed after the upload has been completed
+     * successfully.
+     *
+     * @param upload   The file to upload, whose size must be known
+     * @param callback Receives progress and the outcome of the upload, may be {@code null}
+     * @return Future completing once the upload has been finished
+     */
+    public TusAsyncUpload uploadAsync(@NotNull TusUpload upload, @Nullable TusUploadCallback callback) {
+        if (upload.getSource() == null) {
+            throw new IllegalArgumentException("upload has no source to read from");
+        }
+        if (upload.deferredLengthEnabled()) {
+            throw new IllegalArgumentException("asynchronous uploads require the upload's size to be known");
+        }
+
+        TusAsyncUpload asyncUpload = new TusAsyncUpload(this, upload, callback);
+        asyncUpload.start();
+        return asyncUpload;
+    }
+
+    /**
+     * @param upload upload to create
+     * @return builder for a POST request creating the upload using the Creation extension
+     * @throws IOException the source cannot be marked
+     */
+    Request.Builder getUploadCreationRequestBuilder(TusUpload upload) throws IOException {
+        Request.Builder requestBuilder = getCreationRequestBuilder(upload);
+        if (upload.deferredLengthEnabled()) {
+            requestBuilder.addHeader("Upload-Defer-Length", "1");
+        } else {
+            requestBuilder.addHeader("Upload-Length", Long.toString(upload.getSize()));
+        }
+        if (upload.isPartial()) {
+            requestBuilder.addHeader("Upload-Concat", "partial");
+        }
+
+        TusSource source = upload.getSource();
+        if (useCreationWithUpload() && source != null && upload.getSize() > 0 && !upload.deferredLengthEnabled()) {
+            long length = Math.min(creationWithUploadSize, upload.getSize());
+            // The server may accept only a part of the body, so the rest must be readable again
+            // by the next PATCH request, even if the source is a stream.
+            source.discardBefore(0);
+            requestBuilder.post(ThrottledRequestBody.throttle(new TusSourceRequestBody(source, 0, length),
+                    rateLimiter, upload.getRateLimiter()));
+        }
+        return requestBuilder;
+    }
+
+    /**
+     * @return whether the first chunk is sent in the POST request creating an upload, either
+     * because it has been enabled or because the server announced support for it
+     */
+    private boolean useCreationWithUpload() {
+        if (creationWithUploadEnabled) {
+            return true;
+        }
+
+        TusServerCapabilities capabilities = capabilityDiscoveryEnabled ? getCachedCapabilities() : null;
+        return capabilities != null && capabilities.supportsExtension("creation-with-upload");
+    }
+
+    /**
+     * Get the number of bytes the server has accepted from the POST request creating an upload.
+     *
+     * @param upload   the created upload
+     * @param response the server's response
+     * @return value of the Upload-Offset header or zero if the server did not accept any content
+     * @throws ProtocolException the header is invalid
+     */
+    long getCreationUploadOffset(TusUpload upload, Response response) throws ProtocolException {
+        String offsetStr = response.header("Upload-Offset");
+        if (offsetStr == null || offsetStr.length() == 0) {
+            return 0;
+        }
+
+        long offset;
+        try {
+            offset = Long.parseLong(offsetStr);
+        } catch (NumberFormatException e) {
+            throw new ProtocolException("invalid upload offset in response for creating upload: " + offsetStr);
+        }
+        if (offset < 0 || offset > upload.getSize()) {
+            throw new ProtocolException("invalid upload offset in response for creating upload: " + offsetStr);
+        }
+        return offset;
+    }
+
+    /**
+     * @param upload upload whose metadata is sent
+     * @return builder for a POST request to the upload creation URL without a body
+     */
+    private Request.Builder getCreationRequestBuilder(TusUpload upload) {
         Request.Builder requestBuilder = getRequestBuilderWithHeaders()
                 .url(uploadCreationURL)
                 .post(RequestBody.create(null, new byte[0]));
@@ -187,34 +1066,54 @@ public class TusClient {
         if (encodedMetadata.length() > 0) {
             requestBuilder.addHeader("Upload-Metadata", encodedMetadata);
         }
+        return requestBuilder;
+    }
 
-        requestBuilder.addHeader("Upload-Length", Long.toString(upload.getSize()));
-
+    /**
+     * Issue a request creating a new upload.
+     *
+     * @param requestBuilder request containing all headers
+     * @return URL of the created upload
+     * @throws ProtocolException unexpected response code or missing upload URL
+     * @throws IOException       the request failed
+     */
+    private URL executeCreationRequest(Request.Builder requestBuilder) throws ProtocolException, IOException {
+        OkHttpClient okHttpClient = getOrCreateOkHttpClient();
         Request request = requestBuilder.build();
         Response response = okHttpClient.newCall(request).execute();
+        try {
+            return getCreatedUploadURL(request, response);
+        } finally {
+            response.close();
+        }
+    }
 
+    /**
+     * Check the response to a request creating an upload.
+     *
+     * @param request  the request creating the upload
+     * @param response the server's response
+     * @return URL of the created upload
+     * @throws ProtocolException unexpected response code or missing upload URL
+     * @throws IOException       the upload URL is malformed
+     */
+    URL getCreatedUploadURL(Request request, Response response) throws ProtocolException, IOException {
         int responseCode = response.code();
 
         if (!(responseCode >= 200 && responseCode < 300)) {
             throw new ProtocolException(
-                    "unexpected status code (" + responseCode + ") while creating upload");
+                    "unexpected status code (" + responseCode + ") while creating upload", response);
         }
 
         String urlStr = response.header("Location");
         if (urlStr == null || urlStr.length() == 0) {
-            throw new ProtocolException("missing upload URL in response for creating upload");
+            throw new ProtocolException("missing upload URL in response for creating upload", response);
         }
 
         // The upload URL must be relative to the URL of the request by which is was returned,
         // not the upload creation URL. In most cases, there is no difference between those two
         // but there may be cases in which the POST request is redirected.
-        URL uploadURL = new URL(request.url().url(), urlStr);
-
-        if (resumingEnabled) {
-            urlStore.set(upload.getFingerprint(), uploadURL);
-        }
-
-        return new TusUploader(this, upload, uploadURL, upload.getTusInputStream(), 0);
+        return new URL(request.url().url(), urlStr);
     }
 
     /**
@@ -223,6 +1122,13 @@ public class TusClient {
      * upload in the {@link TusURLStore} using the upload's fingerprint (see
      * {@link TusUpload#getFingerprint()}). After a successful lookup a HEAD request will be issued
      * to find the current offset without uploading the file, yet.
+     * <br>
+     * If the store is a {@link TusURLExpirationStore} and the upload has expired according to the
+     * {@code Upload-Expires} header last sent by the server, the entry is removed and a
+     * {@link FingerprintNotFoundException} is thrown without issuing a request. In low-latency
+     * mode, the HEAD request is skipped if the store is a {@link TusURLOffsetStore} holding the
+     * upload's offset (see {@link #enableLowLatencyMode()}). If the first PATCH request then
+     * reveals that the upload does not exist anymore, the returned uploader creates it again.
      *
      * @param upload The file for which an upload will be resumed
      * @return Use {@link TusUploader} to upload the remaining file's chunks.
@@ -240,11 +1146,17 @@ public class TusClient {
             throw new ResumingNotEnabledException();
         }
 
-        URL uploadURL = urlStore.get(upload.getFingerprint());
+        URL uploadURL = getResumableURL(upload);
         if (uploadURL == null) {
             throw new FingerprintNotFoundException(upload.getFingerprint());
         }
 
+        long storedOffset = getStoredOffset(upload);
+        if (storedOffset >= 0) {
+            // The offset is verified by the server when the first chunk is sent.
+            return new TusUploader(this, upload, uploadURL, upload.getSource(), storedOffset);
+        }
+
         return beginOrResumeUploadFromURL(upload, uploadURL);
     }
 
@@ -268,25 +1180,44 @@ public class TusClient {
     public TusUploader beginOrResumeUploadFromURL(@NotNull TusUpload upload, @NotNull URL uploadURL) throws
             ProtocolException, IOException {
         OkHttpClient okHttpClient = getOrCreateOkHttpClient();
-        Request.Builder requestBuilder = getRequestBuilderWithHeaders()
-                .url(uploadURL);
-        requestBuilder.head();
-        Request request = requestBuilder.build();
+        Request request = getOffsetRequestBuilder(uploadURL).build();
         Response response = okHttpClient.newCall(request).execute();
+        long offset = getUploadOffset(response);
+        recordExpiration(upload, response);
+        roundTripCompleted(response);
+
+        return new TusUploader(this, upload, uploadURL, upload.getSource(), offset);
+    }
 
+    /**
+     * @param uploadURL URL of the upload
+     * @return builder for a HEAD request retrieving the upload's offset
+     */
+    Request.Builder getOffsetRequestBuilder(URL uploadURL) {
+        return getRequestBuilderWithHeaders()
+                .url(uploadURL)
+                .head();
+    }
+
+    /**
+     * Check the response to a HEAD request retrieving an upload's offset.
+     *
+     * @param response the server's response
+     * @return the upload's offset
+     * @throws ProtocolException unexpected response code or missing offset
+     */
+    long getUploadOffset(Response response) throws ProtocolException {
         int responseCode = response.code();
         if (!(responseCode >= 200 && responseCode < 300)) {
             throw new ProtocolException(
-                    "unexpected status code (" + responseCode + ") while resuming upload");
+                    "unexpected status code (" + responseCode + ") while resuming upload", response);
         }
 
         String offsetStr = response.header("Upload-Offset");
         if (offsetStr == null || offsetStr.length() == 0) {
-            throw new ProtocolException("missing upload offset in response for resuming upload");
+            throw new ProtocolException("missing upload offset in response for resuming upload", response);
         }
-        long offset = Long.parseLong(offsetStr);
-
-        return new TusUploader(this, upload, uploadURL, upload.getTusInputStream(), offset);
+        return Long.parseLong(offsetStr);
     }
 
     /**
@@ -308,10 +1239,10 @@ public class TusClient {
         } catch (ResumingNotEnabledException e) {
             return createUpload(upload);
         } catch (ProtocolException e) {
-            // If the attempt to resume returned a 404 Not Found, we immediately try to create a new
-            // one since TusExectuor would not retry this operation.
-            HttpURLConnection connection = e.getCausingConnection();
-            if (connection != null && connection.getResponseCode() == 404) {
+            // If the attempt to resume returned a 404 Not Found or 410 Gone, we immediately try to
+            // create a new one since TusExectuor would not retry this operation.
+            int responseCode = e.getResponseCode();
+            if (responseCode == 404 || responseCode == 410) {
                 return createUpload(upload);
             }
 
@@ -319,6 +1250,58 @@ public class TusClient {
         }
     }
 
+    /**
+     * Terminate an upload using the Termination extension. The server stops accepting data for the
+     * upload and frees the resources associated with it. A response with the status code 404 or 410
+     * is regarded as success since the upload has already been removed, e.g. because it expired.
+     *
+     * @param uploadURL The URL of the upload to terminate
+     * @throws ProtocolException Thrown if the remote server sent an unexpected response, e.g.
+     *                           wrong status codes.
+     * @throws IOException       Thrown if an exception occurs while issuing the HTTP request.
+     */
+    public void terminate(@NotNull URL uploadURL) throws ProtocolException, IOException {
+        Request request = getRequestBuilderWithHeaders()
+                .url(uploadURL)
+                .delete()
+                .build();
+        Response response = getOrCreateOkHttpClient().newCall(request).execute();
+        try {
+            int responseCode = response.code();
+            if (!(responseCode >= 200 && responseCode < 300) && responseCode != 404 && responseCode != 410) {
+                throw new ProtocolException(
+                        "unexpected status code (" + responseCode + ") while terminating upload", response);
+            }
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Give up on an upload, so it will not be resumed. Its entry is removed from the
+     * {@link TusURLStore} passed to {@link #enableResuming(TusURLStore)}. If the store is a
+     * {@link TusURLCleanupStore}, the upload's URL is added to its abandoned uploads, so a
+     * {@link TusUploadCleaner} terminates it later. Otherwise, use {@link #terminate(URL)} to
+     * remove the upload from the server immediately.
+     *
+     * @param upload The upload to abandon
+     */
+    public void abandonUpload(@NotNull TusUpload upload) {
+        TusURLStore store = getURLStore();
+        if (store == null) {
+            return;
+        }
+
+        URL uploadURL = store.get(upload.getFingerprint());
+        if (uploadURL == null) {
+            return;
+        }
+        store.remove(upload.getFingerprint());
+        if (store instanceof TusURLCleanupStore) {
+            ((TusURLCleanupStore) store).addAbandoned(uploadURL);
+        }
+    }
+
     /**
      * Set headers used for every HTTP request. Currently, this will add the Tus-Resumable header
      * and any custom header which can be configured using {@link #setHeaders(Map)},
@@ -340,6 +1323,158 @@ public class TusClient {
         }
     }
 
+    /**
+     * @return the store used for resuming or {@code null} if resuming is disabled
+     */
+    TusURLStore getURLStore() {
+        return resumingEnabled ? urlStore : null;
+    }
+
+    /**
+     * Store the URL of a newly created upload. If the store is a {@link TusURLCleanupStore} and
+     * holds a different URL for the fingerprint, that upload has been superseded and is added to
+     * the abandoned uploads.
+     *
+     * @param fingerprint the upload's fingerprint
+     * @param uploadURL   the new upload's URL
+     */
+    void storeUploadURL(String fingerprint, URL uploadURL) {
+        TusURLStore store = getURLStore();
+        if (store == null) {
+            return;
+        }
+
+        if (store instanceof TusURLCleanupStore) {
+            URL previousURL = store.get(fingerprint);
+            if (previousURL != null && !previousURL.toString().equals(uploadURL.toString())) {
+                ((TusURLCleanupStore) store).addAbandoned(previousURL);
+            }
+        }
+        store.set(fingerprint, uploadURL);
+    }
+
+    /**
+     * Record the time at which an upload expires if the response contains an {@code Upload-Expires}
+     * header and the store is a {@link TusURLExpirationStore}.
+     *
+     * @param upload   the upload whose URL has been stored
+     * @param response the server's response to a request for the upload
+     */
+    void recordExpiration(TusUpload upload, Response response) {
+        TusURLStore store = getURLStore();
+        if (!(store instanceof TusURLExpirationStore) || upload.getFingerprint() == null) {
+            return;
+        }
+
+        Date expiresAt = response.headers().getDate("Upload-Expires");
+        if (expiresAt != null) {
+            ((TusURLExpirationStore) store).setExpiration(upload.getFingerprint(), expiresAt.getTime());
+        }
+    }
+
+    /**
+     * Record the offset acknowledged by the server if the store is a {@link TusURLOffsetStore}.
+     *
+     * @param upload the upload whose URL has been stored
+     * @param offset the acknowledged offset or -1 to discard the stored one
+     */
+    void recordOffset(TusUpload upload, long offset) {
+        TusURLStore store = getURLStore();
+        if (store instanceof TusURLOffsetStore && upload.getFingerprint() != null) {
+            ((TusURLOffsetStore) store).setOffset(upload.getFingerprint(), offset);
+        }
+    }
+
+    /**
+     * @param upload the upload to resume
+     * @return the stored offset to resume the upload from without asking the server or -1 if
+     * low-latency mode is disabled or the offset is unknown
+     */
+    long getStoredOffset(TusUpload upload) {
+        TusURLStore store = getURLStore();
+        if (!lowLatencyModeEnabled || !(store instanceof TusURLOffsetStore)) {
+            return -1;
+        }
+        return ((TusURLOffsetStore) store).getOffset(upload.getFingerprint());
+    }
+
+    /**
+     * @return the interceptor coordinating the requests to overloaded hosts
+     */
+    TusHostBackpressure getBackpressure() {
+        return backpressure;
+    }
+
+    /**
+     * Measure the round-trip time using the response to a request without a body.
+     *
+     * @param response the server's response
+     */
+    void roundTripCompleted(Response response) {
+        long millis = response.receivedResponseAtMillis() - response.sentRequestAtMillis();
+        roundTripEstimator.roundTripCompleted(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * @return the estimator measuring round trips and throughput of this client's requests
+     */
+    TusRoundTripEstimator getRoundTripEstimator() {
+        return roundTripEstimator;
+    }
+
+    /**
+     * Decide whether a PATCH request should wait for {@code 100 Continue} before sending its body.
+     *
+     * @param bodyBytes size of the request's body or -1 if unknown
+     * @return {@code true} unless low-latency mode considers the wait unnecessary
+     */
+    boolean shouldExpectContinue(long bodyBytes) {
+        return !lowLatencyModeEnabled || roundTripEstimator.shouldExpectContinue(bodyBytes);
+    }
+
+    /**
+     * Look up the stored URL of an upload which can still be resumed. Entries of expired uploads
+     * are removed from the store.
+     *
+     * @param upload the upload to resume
+     * @return the upload's URL or {@code null} if resuming is disabled, no URL has been stored or
+     * the upload has expired
+     */
+    @Nullable
+    URL getResumableURL(TusUpload upload) {
+        TusURLStore store = getURLStore();
+        if (store == null) {
+            return null;
+        }
+
+        String fingerprint = upload.getFingerprint();
+        if (store instanceof TusURLExpirationStore) {
+            long expiresAt = ((TusURLExpirationStore) store).getExpiration(fingerprint);
+            if (expiresAt >= 0 && expiresAt <= System.currentTimeMillis()) {
+                store.remove(fingerprint);
+                return null;
+            }
+        }
+        return store.get(fingerprint);
+    }
+
+    /**
+     * Remove the entries of all expired uploads from the {@link TusURLStore} passed to
+     * {@link #enableResuming(TusURLStore)}. This only has an effect if the store is a
+     * {@link TusURLExpirationStore}. Expired entries are also skipped when resuming, but removing
+     * them in advance keeps the store small, e.g. after the application has been offline for a
+     * long time.
+     *
+     * @return Number of removed entries
+     */
+    public int removeExpiredUploads() {
+        TusURLStore store = getURLStore();
+        if (!(store instanceof TusURLExpirationStore)) {
+            return 0;
+        }
+        return ((TusURLExpirationStore) store).removeExpired(System.currentTimeMillis());
+    }
+
     /**
      * Actions to be performed after a successful upload completion.
      * Manages URL removal from the URL store if remove fingerprint on success is enabled
@@ -347,7 +1482,9 @@ public class TusClient {
      * @param upload that has been finished
      */
     protected void uploadFinished(@NotNull TusUpload upload) {
-        if (resumingEnabled && removeFingerprintOnSuccessEnabled) {
+        // Partial uploads are removed once they have been concatenated, since they must be
+        // resumable until then.
+        if (resumingEnabled && removeFingerprintOnSuccessEnabled && !upload.isPartial()) {
             urlStore.remove(upload.getFingerprint());
         }
     }
@@ -395,6 +1532,7 @@ public class TusClient {
             okHttpClient = new OkHttpClient.Builder()
                     .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
                     .followRedirects(true)
+                    .addInterceptor(backpressure)
                     .build();
         }
         return okHttpClient;
@@ -0,0 +1,74 @@
+package io.tus.java.client;
+
+import java.util.zip.Checksum;
+
+/**
+ * TusCrc32c is an internal implementation of CRC-32C (Castagnoli), which is only part of the Java
+ * platform since Java 9. It processes eight bytes per step using precomputed tables.
+ */
+final class TusCrc32c implements Checksum {
+    private static final int POLYNOMIAL = 0x82F63B78;
+    private static final int[][] TABLES = createTables();
+
+    private int crc = 0xFFFFFFFF;
+
+    @Override
+    public void update(int b) {
+        crc = (crc >>> 8) ^ TABLES[0][(crc ^ b) & 0xFF];
+    }
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+        int value = crc;
+        int end = off + len;
+
+        while (end - off >= 8) {
+            value ^= (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24;
+            value = TABLES[7][value & 0xFF]
+                    ^ TABLES[6][(value >>> 8) & 0xFF]
+                    ^ TABLES[5][(value >>> 16) & 0xFF]
+                    ^ TABLES[4][value >>> 24]
+                    ^ TABLES[3][b[off + 4] & 0xFF]
+                    ^ TABLES[2][b[off + 5] & 0xFF]
+                    ^ TABLES[1][b[off + 6] & 0xFF]
+                    ^ TABLES[0][b[off + 7] & 0xFF];
+            off += 8;
+        }
+
+        while (off < end) {
+            value = (value >>> 8) ^ TABLES[0][(value ^ b[off]) & 0xFF];
+            off++;
+        }
+        crc = value;
+    }
+
+    @Override
+    public long getValue() {
+        return ~crc & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public void reset() {
+        crc = 0xFFFFFFFF;
+    }
+
+    /**
+     * @return the lookup tables, where {@code tables[k][b]} is the CRC of byte b followed by k zero bytes
+     */
+    private static int[][] createTables() {
+        int[][] tables = new int[8][256];
+        for (int i = 0; i < 256; i++) {
+            int value = i;
+            for (int bit = 0; bit < 8; bit++) {
+                value = (value & 1) != 0 ? (value >>> 1) ^ POLYNOMIAL : value >>> 1;
+            }
+            tables[0][i] = value;
+        }
+        for (int i = 0; i < 256; i++) {
+            for (int k = 1; k < 8; k++) {
+                tables[k][i] = (tables[k - 1][i] >>> 8) ^ tables[0][tables[k - 1][i] & 0xFF];
+            }
+        }
+        return tables;
+    }
+}
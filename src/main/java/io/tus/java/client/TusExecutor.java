@@ -1,6 +1,12 @@
 package io.tus.java.client;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
 import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * TusExecutor is a wrapper class which you can build around your uploading mechanism and any
@@ -29,9 +35,19 @@ import java.io.IOException;
  *
  * The current attempt can be interrupted using {@link Thread#interrupt()} which will cause the
  * {@link #makeAttempts()} method to return <code>false</code> immediately.
+ *
+ * By default, failed attempts are retried after the fixed delays set using
+ * {@link #setDelays(int[])}. A {@link TusRetryPolicy} set using
+ * {@link #setRetryPolicy(TusRetryPolicy)} replaces them, e.g. a {@link TusBackoffRetryPolicy}.
+ *
+ * {@link #makeAttempts()} sleeps between attempts, so a thread is held while waiting for the next
+ * one. {@link #makeAttemptsAsync(ScheduledExecutorService, Executor)} schedules the retries on a
+ * shared scheduler instead, which is preferable when many executions may back off at once, e.g.
+ * during a server outage.
  */
 public abstract class TusExecutor {
     private int[] delays = new int[]{500, 1000, 2000, 3000};
+    private TusRetryPolicy retryPolicy;
 
     /**
      * Set the delays at which TusExecutor will issue a retry if {@link #makeAttempt()} throws an
@@ -61,6 +77,30 @@ public abstract class TusExecutor {
         return delays;
     }
 
+    /**
+     * Set the policy deciding whether and when failed attempts are retried. If a policy is set, the
+     * delays set using {@link #setDelays(int[])} are not used.
+     *
+     * @see #getRetryPolicy()
+     *
+     * @param retryPolicy The policy or {@code null} to use the delays again
+     */
+    public void setRetryPolicy(@Nullable TusRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Get the policy deciding whether and when failed attempts are retried.
+     *
+     * @see #setRetryPolicy(TusRetryPolicy)
+     *
+     * @return The policy or {@code null} if the delays are used
+     */
+    @Nullable
+    public TusRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
     /**
      * This method is basically just calling the {@link #makeAttempt()} method which should then
      * retrieve an {@link TusUploader} using {@link TusClient#resumeOrCreateUpload(TusUpload)} and then
@@ -77,37 +117,29 @@ public abstract class TusExecutor {
      * @throws IOException
      */
     public boolean makeAttempts() throws ProtocolException, IOException {
-        int attempt = -1;
+        TusRetryPolicy.Attempts attempts = startAttempts();
         while (true) {
-            attempt++;
-
+            long delay;
             try {
                 makeAttempt();
                 // Returning true is the signal that the makeAttempt() function exited without
                 // throwing an error.
                 return true;
             } catch (ProtocolException e) {
-                // Do not attempt a retry, if the Exception suggests so.
-                if (!e.shouldRetry()) {
-                    throw e;
-                }
-
-                if (attempt >= delays.length) {
-                    // We exceeds the number of maximum retries. In this case the latest exception
-                    // is thrown.
+                delay = attempts.nextDelay(e);
+                if (delay < 0) {
                     throw e;
                 }
-            }  catch (IOException e) {
-                if (attempt >= delays.length) {
-                    // We exceeds the number of maximum retries. In this case the latest exception
-                    // is thrown.
+            } catch (IOException e) {
+                delay = attempts.nextDelay(e);
+                if (delay < 0) {
                     throw e;
                 }
             }
 
             try {
                 // Sleep for the specified delay before attempting the next retry.
-                Thread.sleep(delays[attempt]);
+                Thread.sleep(delay);
             } catch (InterruptedException e) {
                 // If we get interrupted while waiting for the next retry, the user has cancelled
                 // the upload willingly and we return false as a signal.
@@ -116,6 +148,71 @@ public abstract class TusExecutor {
         }
     }
 
+    /**
+     * Run {@link #makeAttempt()} and its retries without blocking the calling thread. The attempts
+     * run on the scheduler's threads and the retries are scheduled on it, so no thread is held
+     * while waiting for the next attempt.
+     *
+     * @see #makeAttemptsAsync(ScheduledExecutorService, Executor)
+     *
+     * @param scheduler The executor running the attempts and timing the retries
+     * @return A future which completes once {@link #makeAttempt()} returned normally
+     */
+    public Future<Void> makeAttemptsAsync(@NotNull ScheduledExecutorService scheduler) {
+        return makeAttemptsAsync(scheduler, scheduler);
+    }
+
+    /**
+     * Run {@link #makeAttempt()} and its retries without blocking the calling thread. The attempts
+     * run on the supplied executor, while the scheduler only times the retries. A single scheduler
+     * thread can therefore serve any number of executions waiting for their next attempt.
+     * <br>
+     * The returned future completes once {@link #makeAttempt()} returned normally. If an exception
+     * is not retried, its {@link Future#get()} method throws an
+     * {@link java.util.concurrent.ExecutionException} wrapping it. Cancelling the future stops
+     * further retries and, if requested, interrupts the running attempt.
+     *
+     * @param scheduler The executor timing the retries
+     * @param executor  The executor running the attempts
+     * @return A future which completes once {@link #makeAttempt()} returned normally
+     * @throws java.util.concurrent.RejectedExecutionException Thrown if the executor does not
+     *                                                         accept the first attempt.
+     */
+    public Future<Void> makeAttemptsAsync(@NotNull ScheduledExecutorService scheduler, @NotNull Executor executor) {
+        TusScheduledAttempts execution = new TusScheduledAttempts(this, startAttempts(), scheduler, executor);
+        executor.execute(execution);
+        return execution;
+    }
+
+    /**
+     * @return the retry state of a new execution, using either the retry policy or the delays
+     */
+    private TusRetryPolicy.Attempts startAttempts() {
+        if (retryPolicy != null) {
+            return retryPolicy.start();
+        }
+
+        final int[] currentDelays = delays;
+        return new TusRetryPolicy.Attempts() {
+            private int attempt;
+
+            @Override
+            public long nextDelay(@NotNull Exception e) {
+                // Do not attempt a retry, if the Exception suggests so.
+                if (e instanceof ProtocolException && !((ProtocolException) e).shouldRetry()) {
+                    return -1;
+                }
+
+                if (attempt >= currentDelays.length) {
+                    // We exceeds the number of maximum retries. In this case the latest exception
+                    // is thrown.
+                    return -1;
+                }
+                return currentDelays[attempt++];
+            }
+        };
+    }
+
     /**
      * This method must be implemented by the specific caller. It will be invoked once or multiple
      * times by the {@link #makeAttempts()} method.
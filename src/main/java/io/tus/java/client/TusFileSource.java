@@ -0,0 +1,128 @@
+package io.tus.java.client;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class provides the content of a local file as a {@link TusSource}. All reads use the
+ * positional methods of {@link FileChannel}, so seeking is free and multiple threads may read
+ * concurrently. Bytes are written to request bodies using
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+ * <br>
+ * If the source has been created from a {@link File}, the file is opened on first use and
+ * {@link #close()} only releases the file handle, so the source can be reused afterwards.
+ */
+public class TusFileSource implements TusSource {
+    private final File file;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+
+    /**
+     * Create a new source reading from the specified file.
+     *
+     * @param file The file to read from
+     */
+    public TusFileSource(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Create a new source reading from the specified channel. The channel will be closed by
+     * {@link #close()}.
+     *
+     * @param channel The channel to read from
+     */
+    public TusFileSource(FileChannel channel) {
+        this.file = null;
+        this.channel = channel;
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+        return getChannel().read(dst, position);
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        FileChannel source = getChannel();
+        long transferred = 0;
+        while (transferred < count) {
+            long bytesTransferred = source.transferTo(position + transferred, count - transferred, target);
+            if (bytesTransferred <= 0) {
+                break;
+            }
+            transferred += bytesTransferred;
+        }
+        return transferred;
+    }
+
+    @Override
+    public void discardBefore(long position) {
+        // Nothing is buffered.
+    }
+
+    @Override
+    public long getSize() {
+        if (file != null) {
+            return file.length();
+        }
+
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Map a region of the file into memory.
+     *
+     * @param position Position at which the region starts
+     * @param size     Size of the region
+     * @return Read-only mapping of the region
+     * @throws IOException Thrown if the file cannot be mapped
+     */
+    public MappedByteBuffer map(long position, long size) throws IOException {
+        return getChannel().map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    /**
+     * Returns the channel used for reading, opening the file if necessary.
+     *
+     * @return The channel to read from
+     * @throws IOException Thrown if the file cannot be opened
+     */
+    public FileChannel getChannel() throws IOException {
+        lock.lock();
+        try {
+            if (channel == null) {
+                if (file == null) {
+                    throw new IOException("source has been closed");
+                }
+                channel = new RandomAccessFile(file, "r").getChannel();
+            }
+            return channel;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
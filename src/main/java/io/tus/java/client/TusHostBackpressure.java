@@ -0,0 +1,418 @@
+package io.tus.java.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * This interceptor coordinates all requests of a {@link TusClient} to a host once the host signals
+ * that it is overloaded, i.e. responds with {@code 429 Too Many Requests} or
+ * {@code 503 Service Unavailable}. Without coordination, every upload would find out on its own and
+ * retry on its own schedule, so an overloaded host keeps receiving the retries of all uploads.
+ * <br>
+ * An overload signal has two effects on the requests starting uploads or sending content, i.e.
+ * POST and PATCH requests:
+ * <ul>
+ *     <li>They are paused for the time requested by the {@code Retry-After} header, but at most
+ *     {@link #MAX_PAUSE} milliseconds, or {@link #DEFAULT_PAUSE} milliseconds without the
+ *     header.</li>
+ *     <li>The number of such requests running at the same time is limited to half of the number
+ *     running when the signal was received (multiplicative decrease). Signals caused by requests
+ *     started before the last decrease are not counted again. Each successful request raises the
+ *     limit by the reciprocal of the limit, so it grows by one per round of requests (additive
+ *     increase). Once it reaches {@link #MAX_LIMIT}, the host is not limited anymore.</li>
+ * </ul>
+ * Other requests, e.g. HEAD requests, are never delayed, but their responses are signals as well.
+ * Synchronous requests are delayed by blocking the thread executing them. Asynchronous requests
+ * must obtain a permit using {@link #tryAcquire(Request, Runnable)} before they are enqueued, so
+ * they wait on a timer instead of blocking a thread of OkHttp's dispatcher. This class is
+ * thread-safe. Blocked threads wait on a condition of their host, so a released slot only wakes
+ * the threads waiting for the same host.
+ */
+final class TusHostBackpressure implements Interceptor {
+    /**
+     * Pause in milliseconds after an overload signal without a {@code Retry-After} header.
+     */
+    static final long DEFAULT_PAUSE = 1000;
+
+    /**
+     * Longest pause in milliseconds, regardless of the {@code Retry-After} header.
+     */
+    static final long MAX_PAUSE = 60 * 1000;
+
+    /**
+     * Limit at which a recovering host is not limited anymore.
+     */
+    static final int MAX_LIMIT = 64;
+
+    private final TusClient client;
+    // A lock instead of synchronized methods, so that virtual threads waiting for their host do not
+    // pin their carrier thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Host> hosts = new HashMap<String, Host>();
+    private ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * @param client client whose {@link TusClient#backpressureEnabled()} setting is honored
+     */
+    TusHostBackpressure(TusClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Permit permit = request.tag(Permit.class);
+        if (permit == null && !client.backpressureEnabled()) {
+            return chain.proceed(request);
+        }
+
+        String host = getHost(request);
+        boolean gated = permit != null || isGated(request);
+        long startNanos;
+        if (permit != null) {
+            startNanos = permit.startNanos;
+        } else {
+            startNanos = gated ? acquire(host) : System.nanoTime();
+        }
+
+        Response response = null;
+        try {
+            response = chain.proceed(request);
+            return response;
+        } finally {
+            release(host, gated, startNanos, response);
+        }
+    }
+
+    /**
+     * Wait until a POST or PATCH request may be started to a host.
+     *
+     * @param host the host's name and port
+     * @return the time at which the request is started, as returned by {@link System#nanoTime()}
+     * @throws InterruptedIOException the thread has been interrupted while waiting
+     */
+    long acquire(String host) throws InterruptedIOException {
+        lock.lock();
+        try {
+            while (true) {
+                Host state = getOrCreateHost(host);
+                if (state.paused) {
+                    long remaining = state.pausedUntil - System.nanoTime();
+                    if (remaining > 0) {
+                        state.available.awaitNanos(remaining);
+                        continue;
+                    }
+                    state.paused = false;
+                }
+
+                if (state.running < state.limit) {
+                    state.running++;
+                    return System.nanoTime();
+                }
+                state.available.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the host to recover");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Try to start an asynchronous request without blocking. If the request is a POST or PATCH
+     * request and its host is paused or has reached its limit, the supplied task is run on an
+     * internal timer once this is not the case anymore, so it can try again. Otherwise, the
+     * request is returned with a permit, which is released once the request has been executed
+     * by the interceptor or using {@link #abandon(Request)}.
+     *
+     * @param request the request to start
+     * @param retry   task run once the request may be started
+     * @return the request to enqueue or {@code null} if it must wait for the retry
+     */
+    Request tryAcquire(Request request, Runnable retry) {
+        if (!client.backpressureEnabled() || !isGated(request)) {
+            return request;
+        }
+
+        String host = getHost(request);
+        lock.lock();
+        try {
+            Host state = getOrCreateHost(host);
+            if (state.paused) {
+                long remaining = state.pausedUntil - System.nanoTime();
+                if (remaining > 0) {
+                    getScheduler().schedule(retry, remaining, TimeUnit.NANOSECONDS);
+                    return null;
+                }
+                state.paused = false;
+            }
+
+            if (state.running >= state.limit) {
+                state.waiters.add(retry);
+                return null;
+            }
+            state.running++;
+        } finally {
+            lock.unlock();
+        }
+        return request.newBuilder()
+                .tag(Permit.class, new Permit(System.nanoTime()))
+                .build();
+    }
+
+    /**
+     * Release the permit of a request returned by {@link #tryAcquire(Request, Runnable)} which will
+     * not be executed.
+     *
+     * @param request the request holding the permit
+     */
+    void abandon(Request request) {
+        Permit permit = request.tag(Permit.class);
+        if (permit != null) {
+            release(getHost(request), true, permit.startNanos, null);
+        }
+    }
+
+    /**
+     * Record the completion of a request and adjust the host's state to its response.
+     *
+     * @param host       the host's name and port
+     * @param gated      {@code true} if the request has been started using {@link #acquire(String)}
+     *                   or {@link #tryAcquire(Request, Runnable)}
+     * @param startNanos the time at which the request has been started
+     * @param response   the response or {@code null} if the request failed
+     */
+    void release(String host, boolean gated, long startNanos, Response response) {
+        lock.lock();
+        try {
+            Host state = hosts.get(host);
+            if (state == null) {
+                if (response == null || !isOverloaded(response)) {
+                    return;
+                }
+                state = getOrCreateHost(host);
+            }
+            release(host, state, gated, startNanos, response);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adjust the host's state while holding the lock and wake up the requests waiting for it.
+     *
+     * @param host       the host's name and port
+     * @param state      the host's state
+     * @param gated      {@code true} if the request has been counted as running
+     * @param startNanos the time at which the request has been started
+     * @param response   the response or {@code null} if the request failed
+     */
+    private void release(String host, Host state, boolean gated, long startNanos, Response response) {
+        if (gated) {
+            state.running--;
+        }
+
+        if (response != null && isOverloaded(response)) {
+            overloaded(state, gated, startNanos, response);
+        } else if (gated && response != null && response.isSuccessful() && state.limit < MAX_LIMIT) {
+            state.limit += 1 / state.limit;
+            if (state.limit >= MAX_LIMIT) {
+                state.limit = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        if (state.running < state.limit && !state.waiters.isEmpty()) {
+            // The waiting requests try again in the order in which they have been queued and
+            // queue again if they lose the race for the free slots.
+            List<Runnable> waiters = new ArrayList<Runnable>(state.waiters);
+            state.waiters.clear();
+            for (Runnable waiter : waiters) {
+                getScheduler().execute(waiter);
+            }
+        }
+
+        if (state.running == 0 && state.limit == Double.POSITIVE_INFINITY
+                && !(state.paused && state.pausedUntil - System.nanoTime() > 0)) {
+            hosts.remove(host);
+        }
+        state.available.signalAll();
+    }
+
+    /**
+     * Pause the host and decrease its limit.
+     *
+     * @param state      the host's state
+     * @param gated      {@code true} if the overloaded request has been counted as running
+     * @param startNanos the time at which the overloaded request has been started
+     * @param response   the response signalling the overload
+     */
+    private void overloaded(Host state, boolean gated, long startNanos, Response response) {
+        long retryAfter = TusBackoffRetryPolicy.getRetryAfter(response, System.currentTimeMillis());
+        long pause = retryAfter >= 0 ? Math.min(retryAfter, MAX_PAUSE) : DEFAULT_PAUSE;
+        long now = System.nanoTime();
+        long pausedUntil = now + TimeUnit.MILLISECONDS.toNanos(pause);
+        if (!state.paused || pausedUntil - state.pausedUntil > 0) {
+            state.paused = true;
+            state.pausedUntil = pausedUntil;
+        }
+
+        // Requests started before the last decrease were sent under the old limit, so their
+        // responses do not tell anything about the new one.
+        if (state.decreased && startNanos - state.decreasedAt < 0) {
+            return;
+        }
+        double concurrency = Math.min(state.limit, state.running + (gated ? 1 : 0));
+        state.limit = Math.max(1, Math.floor(concurrency / 2));
+        state.decreased = true;
+        state.decreasedAt = now;
+    }
+
+    /**
+     * @param host the host's name and port
+     * @return the host's state, which is created if the host is not known yet; must be called
+     * while holding the lock
+     */
+    private Host getOrCreateHost(String host) {
+        Host state = hosts.get(host);
+        if (state == null) {
+            state = new Host(lock.newCondition());
+            hosts.put(host, state);
+        }
+        return state;
+    }
+
+    /**
+     * @param request a request
+     * @return the name and port of the request's host
+     */
+    private static String getHost(Request request) {
+        HttpUrl url = request.url();
+        return url.host() + ":" + url.port();
+    }
+
+    /**
+     * @param request a request
+     * @return {@code true} if the request is delayed while its host is overloaded
+     */
+    private static boolean isGated(Request request) {
+        return "POST".equals(request.method()) || "PATCH".equals(request.method());
+    }
+
+    /**
+     * @return the timer running the asynchronous requests waiting for their host, whose thread
+     * terminates while it is idle
+     */
+    private ScheduledThreadPoolExecutor getScheduler() {
+        lock.lock();
+        try {
+            if (scheduler == null) {
+                scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "tus-backpressure-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+                scheduler.setKeepAliveTime(10, TimeUnit.SECONDS);
+                scheduler.allowCoreThreadTimeOut(true);
+            }
+            return scheduler;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param response a response
+     * @return {@code true} if the response signals that the host is overloaded
+     */
+    private static boolean isOverloaded(Response response) {
+        return response.code() == 429 || response.code() == 503;
+    }
+
+    /**
+     * Get the number of POST and PATCH requests which may run to a host at the same time.
+     *
+     * @param host the host's name and port
+     * @return the limit or {@link Integer#MAX_VALUE} if the host is not limited
+     */
+    int getLimit(String host) {
+        lock.lock();
+        try {
+            Host state = hosts.get(host);
+            return state == null || state.limit >= MAX_LIMIT ? Integer.MAX_VALUE : (int) state.limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the time until POST and PATCH requests to a host are started again.
+     *
+     * @param host the host's name and port
+     * @return the remaining pause in milliseconds or 0 if the host is not paused
+     */
+    long getRemainingPause(String host) {
+        lock.lock();
+        try {
+            Host state = hosts.get(host);
+            if (state == null || !state.paused) {
+                return 0;
+            }
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(state.pausedUntil - System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The backpressure state of a host.
+     */
+    private static final class Host {
+        private final Condition available;
+        private final List<Runnable> waiters = new ArrayList<Runnable>();
+        private double limit = Double.POSITIVE_INFINITY;
+        private int running;
+        private boolean paused;
+        private long pausedUntil;
+        private boolean decreased;
+        private long decreasedAt;
+
+        /**
+         * @param available condition signalled whenever a request to the host has completed
+         */
+        private Host(Condition available) {
+            this.available = available;
+        }
+    }
+
+    /**
+     * The permission of an asynchronous request to be started, attached as the request's tag.
+     */
+    private static final class Permit {
+        private final long startNanos;
+
+        /**
+         * @param startNanos the time at which the permit has been granted
+         */
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+}
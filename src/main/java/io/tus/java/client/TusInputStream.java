@@ -1,18 +1,24 @@
 package io.tus.java.client;
 
 import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import okio.Buffer;
 
 /**
  * TusInputStream is an internal abstraction above an InputStream which allows seeking to a
  * position relative to the beginning of the stream. In comparision {@link InputStream#skip(long)}
- * only supports skipping bytes relative to the current position.
+ * only supports skipping bytes relative to the current position. It is used by
+ * {@link TusInputStreamSource}.
  */
 class TusInputStream {
     private InputStream stream;
     private long bytesRead;
     private long lastMark = -1;
+    private byte[] transferBuffer;
 
     /**
      * Create a new TusInputStream which reads from and operates on the supplied stream.
@@ -44,21 +50,105 @@ class TusInputStream {
     }
 
     /**
-     * Seek to the position relative to the start of the stream.
+     * Read bytes from the stream into the supplied buffer, starting at its position and reading
+     * at most {@link ByteBuffer#remaining()} bytes. The buffer's position is advanced by the number
+     * of bytes read. For heap buffers this behaves like {@link #read(byte[], int)}. Direct buffers
+     * are filled using a small intermediate array until they are full or the stream ends.
      *
-     * @param position Absolute position to seek to
+     * @param buffer The buffer to write the bytes to
+     * @return Actual number of bytes read or -1 if the stream has ended
      * @throws IOException
      */
+    public int read(ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            int bytesReadNow = stream.read(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining());
+            if (bytesReadNow > 0) {
+                ((java.nio.Buffer) buffer).position(buffer.position() + bytesReadNow);
+                bytesRead += bytesReadNow;
+            }
+            return bytesReadNow;
+        }
+
+        if (transferBuffer == null) {
+            transferBuffer = new byte[8 * 1024];
+        }
+
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int bytesReadNow = stream.read(transferBuffer, 0, Math.min(transferBuffer.length, buffer.remaining()));
+            if (bytesReadNow == -1) {
+                break;
+            }
+            buffer.put(transferBuffer, 0, bytesReadNow);
+            total += bytesReadNow;
+        }
+
+        if (total == 0 && buffer.hasRemaining()) {
+            return -1;
+        }
+        bytesRead += total;
+        return total;
+    }
+
+    /**
+     * Read exactly the specified amount of bytes from the stream and append them to the supplied
+     * Okio buffer. The bytes are copied directly into the buffer's segments without an intermediate
+     * array.
+     *
+     * @param buffer The buffer to append the bytes to
+     * @param length Number of bytes to read
+     * @throws IOException Thrown if the stream ends before the specified number of bytes was read.
+     */
+    public void readTo(Buffer buffer, long length) throws IOException {
+        long sizeBefore = buffer.size();
+        try {
+            buffer.readFrom(stream, length);
+        } finally {
+            // If the stream ends prematurely, the bytes read so far remain in the buffer.
+            bytesRead += buffer.size() - sizeBefore;
+        }
+    }
+
+    /**
+     * Seek to the position relative to the start of the stream. Seeking forward skips the bytes in
+     * between. Seeking backward is only possible to positions after the last mark set using
+     * {@link #mark(int)}, as long as this mark has not been invalidated.
+     *
+     * @param position Absolute position to seek to
+     * @throws IOException Thrown if the position lies before the last mark or after the end of the
+     *                     stream
+     */
     public void seekTo(long position) throws IOException {
-        if (lastMark != -1) {
+        if (position < bytesRead) {
+            if (lastMark == -1 || position < lastMark) {
+                throw new IOException("cannot seek backwards to position " + position
+                        + " since the stream has been read up to " + bytesRead);
+            }
             stream.reset();
-            stream.skip(position - lastMark);
-            lastMark = -1;
-        } else {
-            stream.skip(position);
+            bytesRead = lastMark;
         }
 
-        bytesRead = position;
+        while (bytesRead < position) {
+            long skipped = stream.skip(position - bytesRead);
+            if (skipped <= 0) {
+                // skip() may return zero before the end is reached, read() tells them apart.
+                if (stream.read() == -1) {
+                    throw new EOFException("stream ended before position " + position);
+                }
+                skipped = 1;
+            }
+            bytesRead += skipped;
+        }
+    }
+
+    /**
+     * Returns the current position relative to the start of the stream.
+     *
+     * @return Number of bytes read or skipped
+     */
+    public long getPosition() {
+        return bytesRead;
     }
 
     /**
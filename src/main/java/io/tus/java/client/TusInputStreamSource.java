@@ -0,0 +1,185 @@
+package io.tus.java.client;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.locks.ReentrantLock;
+
+import okio.BufferedSink;
+
+/**
+ * This class provides the content of an {@link InputStream} as a {@link TusSource}. Since a stream
+ * can only be read sequentially, reads at later positions skip through the stream and reads at
+ * earlier positions are only possible within a limited window: whenever
+ * {@link #discardBefore(long)} is called, the stream is marked and up to the rewind limit of bytes
+ * following this mark are retained for retransmission. Prefer {@link TusFileSource} or
+ * {@link TusChannelSource} whenever the data is available in a seekable form.
+ * <br>
+ * Reads are serialized, so the source can be shared between threads, but reading concurrently at
+ * different positions is not efficient.
+ */
+public class TusInputStreamSource implements TusSource {
+    /**
+     * Default number of bytes retained for rewinding, which equals the default chunk size of
+     * {@link TusUploader}.
+     */
+    public static final int DEFAULT_REWIND_LIMIT = 2 * 1024 * 1024;
+
+    private static final int TRANSFER_SIZE = 64 * 1024;
+
+    // A lock instead of synchronized methods, so that virtual threads blocked in reading the
+    // stream do not pin their carrier thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TusInputStream input;
+    private final int rewindLimit;
+    private byte[] transferBuffer;
+
+    /**
+     * Create a new source reading from the specified stream, which retains up to
+     * {@link #DEFAULT_REWIND_LIMIT} bytes for rewinding.
+     *
+     * @param stream The stream to read from
+     */
+    public TusInputStreamSource(InputStream stream) {
+        this(stream, DEFAULT_REWIND_LIMIT);
+    }
+
+    /**
+     * Create a new source reading from the specified stream.
+     *
+     * @param stream      The stream to read from
+     * @param rewindLimit Number of bytes following the last position passed to
+     *                    {@link #discardBefore(long)} which can be read again. This should be at
+     *                    least the number of bytes sent in a single request.
+     */
+    public TusInputStreamSource(InputStream stream, int rewindLimit) {
+        this(new TusInputStream(stream), rewindLimit);
+    }
+
+    /**
+     * Create a new source reading from an existing {@link TusInputStream}.
+     *
+     * @param input       The stream to read from
+     * @param rewindLimit Number of bytes which can be read again after a mark
+     */
+    TusInputStreamSource(TusInputStream input, int rewindLimit) {
+        this.input = input;
+        this.rewindLimit = rewindLimit;
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+        lock.lock();
+        try {
+            if (!seekTo(position)) {
+                return -1;
+            }
+            return input.read(dst);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        lock.lock();
+        try {
+            if (!seekTo(position)) {
+                return 0;
+            }
+
+            if (target instanceof BufferedSink) {
+                // Copy straight into the sink's segments without an intermediate array.
+                BufferedSink sink = (BufferedSink) target;
+                try {
+                    while (input.getPosition() - position < count) {
+                        long remaining = count - (input.getPosition() - position);
+                        input.readTo(sink.buffer(), Math.min(TRANSFER_SIZE, remaining));
+                        sink.emitCompleteSegments();
+                    }
+                } catch (EOFException e) {
+                    // The stream has ended. The bytes read so far have been written nonetheless.
+                }
+                return input.getPosition() - position;
+            }
+
+            if (transferBuffer == null) {
+                transferBuffer = new byte[TRANSFER_SIZE];
+            }
+            ByteBuffer chunk = ByteBuffer.wrap(transferBuffer);
+            long transferred = 0;
+            while (transferred < count) {
+                ((Buffer) chunk).clear();
+                ((Buffer) chunk).limit((int) Math.min(TRANSFER_SIZE, count - transferred));
+                int bytesRead = input.read(chunk);
+                if (bytesRead == -1) {
+                    break;
+                }
+
+                ((Buffer) chunk).flip();
+                while (chunk.hasRemaining()) {
+                    target.write(chunk);
+                }
+                transferred += bytesRead;
+            }
+            return transferred;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Skip to the specified position if necessary and mark it, so that the following
+     * {@code rewindLimit} bytes can be read again. If the stream has already been read beyond the
+     * position, the previous mark is kept.
+     *
+     * @param position Position before which no bytes will be read
+     * @throws IOException Thrown if the stream cannot be skipped to the position
+     */
+    @Override
+    public void discardBefore(long position) throws IOException {
+        lock.lock();
+        try {
+            if (position > input.getPosition()) {
+                input.seekTo(position);
+            }
+            if (position == input.getPosition()) {
+                input.mark(rewindLimit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param position position to seek to
+     * @return false if the stream ends before the position
+     * @throws IOException seeking failed
+     */
+    private boolean seekTo(long position) throws IOException {
+        try {
+            input.seekTo(position);
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public long getSize() {
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            input.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package io.tus.java.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * TusPrefetcher is an internal helper which reads the chunks following the current offset of a
+ * {@link TusSource} on a background thread, so that reading from a slow source overlaps with
+ * sending the previous chunk. Chunks are read sequentially into buffers obtained from a
+ * {@link TusBufferPool}, up to the configured depth ahead of the chunk currently being sent.
+ * <br>
+ * A chunk returned by {@link #read(long, int, int)} stays valid until the next call to one of this
+ * class' methods. Reading at a position which does not follow the previous one, e.g. after
+ * rewinding, discards everything read ahead.
+ */
+class TusPrefetcher {
+    private final TusSource source;
+    private final TusBufferPool pool;
+    private final int depth;
+    private final Deque<Future<Chunk>> pending = new ArrayDeque<Future<Chunk>>();
+    private ExecutorService executor;
+    private long scheduledPosition;
+    private Chunk head;
+    // Incremented whenever the pending reads are discarded, so queued reads are skipped.
+    private volatile int generation;
+
+    /**
+     * Create a new prefetcher. The background thread is started on first use.
+     *
+     * @param source Source to read from
+     * @param pool   Pool providing the buffers
+     * @param depth  Number of chunks read ahead
+     */
+    TusPrefetcher(TusSource source, TusBufferPool pool, int depth) {
+        this.source = source;
+        this.pool = pool;
+        this.depth = depth;
+    }
+
+    /**
+     * Get the bytes at the specified position, waiting for them to be read if necessary.
+     *
+     * @param position  Position in the source
+     * @param maxLength Maximum number of bytes to return
+     * @param chunkSize Number of bytes to read for chunks which are read ahead
+     * @return Read-only view of the bytes, possibly fewer than requested, or {@code null} if the
+     * position is at the end of the source
+     * @throws IOException Thrown if reading from the source failed
+     */
+    ByteBuffer read(long position, int maxLength, int chunkSize) throws IOException {
+        if (head != null && (position < head.position || position >= head.position + head.buffer.limit())) {
+            pool.release(head.buffer);
+            head = null;
+        }
+
+        while (head == null) {
+            if (pending.isEmpty() || scheduledPosition < position) {
+                discardPending();
+                scheduledPosition = position;
+            }
+            schedule(chunkSize);
+
+            Chunk chunk = await(pending.removeFirst());
+            if (chunk.position != position) {
+                // The chunks read ahead do not start at the requested position.
+                if (chunk.buffer != null) {
+                    pool.release(chunk.buffer);
+                }
+                discardPending();
+                scheduledPosition = position;
+                continue;
+            }
+            if (chunk.buffer == null) {
+                discardPending();
+                scheduledPosition = position;
+                return null;
+            }
+
+            head = chunk;
+            schedule(chunkSize);
+        }
+
+        ByteBuffer slice = head.buffer.asReadOnlyBuffer();
+        int start = (int) (position - head.position);
+        ((Buffer) slice).position(start);
+        ((Buffer) slice).limit((int) Math.min(head.buffer.limit(), (long) start + maxLength));
+        return slice.slice();
+    }
+
+    /**
+     * Discard everything read ahead, return the buffers to the pool and stop the background thread.
+     */
+    void close() {
+        if (head != null) {
+            pool.release(head.buffer);
+            head = null;
+        }
+        discardPending();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Start reading chunks until the configured depth is reached.
+     *
+     * @param chunkSize number of bytes per chunk
+     */
+    private void schedule(final int chunkSize) {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "tus-prefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+
+        while (pending.size() < depth) {
+            final long position = scheduledPosition;
+            final int scheduledGeneration = generation;
+            pending.addLast(executor.submit(new Callable<Chunk>() {
+                @Override
+                public Chunk call() throws IOException {
+                    if (generation != scheduledGeneration) {
+                        return new Chunk(position, null);
+                    }
+                    return readChunk(position, chunkSize);
+                }
+            }));
+            scheduledPosition += chunkSize;
+        }
+    }
+
+    /**
+     * Read a full chunk, unless the source ends before.
+     *
+     * @param position  position of the chunk
+     * @param chunkSize number of bytes to read
+     * @return the chunk, whose buffer is {@code null} if the position is at the end of the source
+     * @throws IOException reading failed
+     */
+    private Chunk readChunk(long position, int chunkSize) throws IOException {
+        ByteBuffer buffer = pool.acquire(chunkSize);
+        boolean success = false;
+        try {
+            while (buffer.hasRemaining()) {
+                if (source.read(position + buffer.position(), buffer) == -1) {
+                    break;
+                }
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                pool.release(buffer);
+            }
+        }
+
+        if (buffer.position() == 0) {
+            pool.release(buffer);
+            return new Chunk(position, null);
+        }
+        ((Buffer) buffer).flip();
+        return new Chunk(position, buffer);
+    }
+
+    /**
+     * @param future pending chunk
+     * @return the chunk once it has been read
+     * @throws IOException reading failed or the thread was interrupted
+     */
+    private Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // The read keeps running, so it is awaited once the pending reads are discarded.
+            pending.addFirst(future);
+            throw new InterruptedIOException("interrupted while waiting for chunk");
+        } catch (ExecutionException e) {
+            discardPending();
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Discard the pending reads and return their buffers to the pool. Reads which have not started
+     * yet are skipped, while a running read is awaited, so it neither moves a stream source past
+     * the following reads nor keeps its buffer from the pool.
+     */
+    private void discardPending() {
+        generation++;
+        boolean interrupted = false;
+        while (!pending.isEmpty()) {
+            Future<Chunk> future = pending.removeFirst();
+            while (true) {
+                try {
+                    Chunk chunk = future.get();
+                    if (chunk.buffer != null) {
+                        pool.release(chunk.buffer);
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    // The failure is irrelevant since the chunk is discarded anyway.
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A chunk read ahead.
+     */
+    private static final class Chunk {
+        private final long position;
+        private final ByteBuffer buffer;
+
+        Chunk(long position, ByteBuffer buffer) {
+            this.position = position;
+            this.buffer = buffer;
+        }
+    }
+}
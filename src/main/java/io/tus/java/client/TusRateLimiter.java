@@ -0,0 +1,157 @@
+package io.tus.java.client;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class limits the rate at which the content of uploads is written to the network. A limiter
+ * set using {@link TusClient#setRateLimiter(TusRateLimiter)} is shared by all uploads of the
+ * client, while a limiter set using {@link TusUpload#setRateLimiter(TusRateLimiter)} only applies
+ * to a single upload. If both are set, a request body is written at the lower of both rates.
+ * A limiter can also be shared by a group of uploads or multiple clients.
+ * <br>
+ * The limiter is a token bucket. Bytes can be written without delay as long as the bucket holds
+ * enough tokens, which are refilled at {@link #getBytesPerSecond()} up to the bucket's capacity,
+ * {@link #getBurstBytes()}. A writer exceeding the rate reserves the tokens it needs and waits
+ * until they would have been refilled. Since the state of the bucket is a single timestamp
+ * updated using compare-and-set, many uploads can share a limiter without contending for a lock.
+ * <br>
+ * The rate can be changed at any time using {@link #setBytesPerSecond(long)}. Writes which are
+ * already waiting are not affected.
+ */
+public class TusRateLimiter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_BURST_BYTES = 16 * 1024;
+
+    /**
+     * Time at which the bucket would be full again if no further bytes were written. A value
+     * in the future means that the bucket is partially or completely empty.
+     */
+    private final AtomicLong fullAtNanos = new AtomicLong(System.nanoTime());
+    private volatile long bytesPerSecond;
+    private volatile long burstBytes;
+
+    /**
+     * Create a new limiter whose bucket holds the bytes of a tenth of a second, but at least
+     * 16 KiB.
+     *
+     * @param bytesPerSecond Maximum rate, or zero to not limit the rate
+     */
+    public TusRateLimiter(long bytesPerSecond) {
+        this(bytesPerSecond, Math.max(bytesPerSecond / 10, MIN_BURST_BYTES));
+    }
+
+    /**
+     * Create a new limiter.
+     *
+     * @param bytesPerSecond Maximum rate, or zero to not limit the rate
+     * @param burstBytes     Number of bytes which can be written without delay after a pause
+     */
+    public TusRateLimiter(long bytesPerSecond, long burstBytes) {
+        setBytesPerSecond(bytesPerSecond);
+        setBurstBytes(burstBytes);
+    }
+
+    /**
+     * Set the maximum rate.
+     *
+     * @param bytesPerSecond Number of bytes per second, or zero to not limit the rate
+     */
+    public void setBytesPerSecond(long bytesPerSecond) {
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("rate must not be negative");
+        }
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Get the maximum rate.
+     *
+     * @return Number of bytes per second, or zero if the rate is not limited
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Set the capacity of the bucket, i.e. the number of bytes which can be written without delay
+     * after a pause.
+     *
+     * @param burstBytes Number of bytes, at least 1
+     */
+    public void setBurstBytes(long burstBytes) {
+        if (burstBytes < 1) {
+            throw new IllegalArgumentException("burst size must be at least 1");
+        }
+        this.burstBytes = burstBytes;
+    }
+
+    /**
+     * Get the capacity of the bucket.
+     *
+     * @return Number of bytes
+     */
+    public long getBurstBytes() {
+        return burstBytes;
+    }
+
+    /**
+     * Wait until the specified number of bytes can be written without exceeding the rate. To keep
+     * the rate smooth, callers should acquire small amounts, e.g. a few kilobytes at a time.
+     *
+     * @param bytes Number of bytes which are about to be written
+     * @throws InterruptedIOException The thread has been interrupted while waiting
+     */
+    public void acquire(long bytes) throws InterruptedIOException {
+        long delayNanos = reserve(bytes, System.nanoTime());
+        if (delayNanos <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the rate limit");
+        }
+    }
+
+    /**
+     * Take tokens for the specified number of bytes from the bucket.
+     *
+     * @param bytes    number of bytes
+     * @param nowNanos current value of {@link System#nanoTime()}
+     * @return nanoseconds to wait until the bytes may be written
+     */
+    long reserve(long bytes, long nowNanos) {
+        long rate = bytesPerSecond;
+        if (rate <= 0 || bytes <= 0) {
+            return 0;
+        }
+
+        long costNanos = toNanos(bytes, rate);
+        long capacityNanos = toNanos(burstBytes, rate);
+        while (true) {
+            long fullAt = fullAtNanos.get();
+            long newFullAt = Math.max(fullAt, nowNanos) + costNanos;
+            if (fullAtNanos.compareAndSet(fullAt, newFullAt)) {
+                // The bucket is empty at newFullAt - capacityNanos. Until then, the reserved
+                // tokens have not been refilled yet.
+                return newFullAt - capacityNanos - nowNanos;
+            }
+        }
+    }
+
+    /**
+     * @param bytes number of bytes
+     * @param rate  bytes per second
+     * @return nanoseconds needed for transferring the bytes at the rate
+     */
+    private static long toNanos(long bytes, long rate) {
+        if (bytes > Long.MAX_VALUE / NANOS_PER_SECOND) {
+            return (long) ((double) bytes / rate * NANOS_PER_SECOND);
+        }
+        return bytes * NANOS_PER_SECOND / rate;
+    }
+}
@@ -0,0 +1,39 @@
+package io.tus.java.client;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A policy deciding whether and when a {@link TusExecutor} retries a failed attempt. A policy is
+ * set using {@link TusExecutor#setRetryPolicy(TusRetryPolicy)} or, for the executors created by
+ * {@link TusUploadManager} and {@link TusUploadPublisher}, using
+ * {@link TusClient#setRetryPolicy(TusRetryPolicy)}. {@link TusBackoffRetryPolicy} is the
+ * implementation shipped with this library.
+ * <br>
+ * Since a policy is shared by all executors, it does not keep the state of a single execution
+ * itself. Instead, {@link #start()} is called once per execution and the returned
+ * {@link Attempts} tracks the failures of that execution.
+ */
+public interface TusRetryPolicy {
+    /**
+     * Start a new execution.
+     *
+     * @return The state of the execution, which is only used by a single thread.
+     */
+    @NotNull
+    Attempts start();
+
+    /**
+     * The retry state of a single execution of {@link TusExecutor#makeAttempts()}.
+     */
+    interface Attempts {
+        /**
+         * Decide whether a failed attempt is retried.
+         *
+         * @param e The exception thrown by the failed attempt, either a {@link ProtocolException}
+         *          or an {@link java.io.IOException}.
+         * @return The time to wait before the next attempt in milliseconds or -1 if the exception
+         * should be thrown instead of retrying.
+         */
+        long nextDelay(@NotNull Exception e);
+    }
+}
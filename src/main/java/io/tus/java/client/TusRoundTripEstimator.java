@@ -0,0 +1,90 @@
+package io.tus.java.client;
+
+/**
+ * This class decides whether a PATCH request should wait for {@code 100 Continue} before sending
+ * its body, which costs a round trip. Waiting only pays off if the body takes considerably longer
+ * to transfer than a round trip, because then a rejected request saves a large part of the
+ * transfer. The round-trip time is measured from requests without a body (HEAD or creation
+ * requests) and the throughput from completed PATCH requests, both as exponentially weighted
+ * moving averages.
+ * <br>
+ * After the server has rejected a body, the next {@link #REJECTION_PENALTY} requests wait for
+ * {@code 100 Continue} regardless of their size. This class is thread-safe.
+ */
+final class TusRoundTripEstimator {
+    /**
+     * A body is sent without waiting if its transfer is expected to take at most this many round
+     * trips.
+     */
+    static final int EXPECT_THRESHOLD_ROUND_TRIPS = 4;
+
+    /**
+     * Bodies of at least this size wait for {@code 100 Continue} until the round-trip time and the
+     * throughput have been measured.
+     */
+    static final long DEFAULT_EXPECT_THRESHOLD = 1024 * 1024;
+
+    /**
+     * Number of requests which wait for {@code 100 Continue} after a body has been rejected.
+     */
+    static final int REJECTION_PENALTY = 8;
+
+    private static final double SMOOTHING = 0.25;
+
+    private double roundTripNanos = -1;
+    private double bytesPerNano = -1;
+    private int penalizedRequests;
+
+    /**
+     * Record the duration of a request without a body.
+     *
+     * @param nanos time between sending the request and receiving the response
+     */
+    synchronized void roundTripCompleted(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        roundTripNanos = roundTripNanos < 0 ? nanos : roundTripNanos + SMOOTHING * (nanos - roundTripNanos);
+    }
+
+    /**
+     * Record the duration of a PATCH request whose body has been accepted.
+     *
+     * @param bytes number of bytes in the body
+     * @param nanos time between starting the request and receiving the response
+     */
+    synchronized void transferCompleted(long bytes, long nanos) {
+        if (bytes <= 0 || nanos <= 0) {
+            return;
+        }
+        double rate = (double) bytes / nanos;
+        bytesPerNano = bytesPerNano < 0 ? rate : bytesPerNano + SMOOTHING * (rate - bytesPerNano);
+    }
+
+    /**
+     * Record that the server has rejected a body.
+     */
+    synchronized void bodyRejected() {
+        penalizedRequests = REJECTION_PENALTY;
+    }
+
+    /**
+     * Decide whether the next request should wait for {@code 100 Continue}.
+     *
+     * @param bodyBytes size of the request's body or -1 if unknown
+     * @return {@code true} if the request should carry an {@code Expect: 100-continue} header
+     */
+    synchronized boolean shouldExpectContinue(long bodyBytes) {
+        if (penalizedRequests > 0) {
+            penalizedRequests--;
+            return true;
+        }
+        if (bodyBytes < 0) {
+            return true;
+        }
+        if (roundTripNanos < 0 || bytesPerNano < 0) {
+            return bodyBytes >= DEFAULT_EXPECT_THRESHOLD;
+        }
+        return bodyBytes / bytesPerNano > EXPECT_THRESHOLD_ROUND_TRIPS * roundTripNanos;
+    }
+}
@@ -0,0 +1,195 @@
+package io.tus.java.client;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class represents an execution started using
+ * {@link TusExecutor#makeAttemptsAsync(ScheduledExecutorService, Executor)}. Each run makes a
+ * single attempt. If the attempt fails and is retried, a timer is scheduled which hands the next
+ * run to the executor once the delay has passed, so waiting for a retry does not occupy a thread.
+ */
+final class TusScheduledAttempts implements Future<Void>, Runnable {
+    private final TusExecutor tusExecutor;
+    private final TusRetryPolicy.Attempts attempts;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private Future<?> pendingRetry;
+    private Thread runner;
+    private boolean finished;
+    private boolean cancelled;
+    private volatile Throwable failure;
+
+    /**
+     * @param tusExecutor the executor whose attempts are made
+     * @param attempts    the retry state of this execution
+     * @param scheduler   the executor timing the retries
+     * @param executor    the executor running the attempts
+     */
+    TusScheduledAttempts(TusExecutor tusExecutor, TusRetryPolicy.Attempts attempts,
+                         ScheduledExecutorService scheduler, Executor executor) {
+        this.tusExecutor = tusExecutor;
+        this.attempts = attempts;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            runner = Thread.currentThread();
+        }
+
+        Exception error;
+        try {
+            tusExecutor.makeAttempt();
+            error = null;
+        } catch (ProtocolException e) {
+            error = e;
+        } catch (IOException e) {
+            error = e;
+        } catch (Throwable t) {
+            // Unexpected failures, including errors, are not retried but must complete the future.
+            finish(t);
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            return;
+        } finally {
+            synchronized (this) {
+                runner = null;
+            }
+        }
+
+        if (error == null) {
+            finish(null);
+            return;
+        }
+
+        long delay = attempts.nextDelay(error);
+        if (delay < 0) {
+            finish(error);
+            return;
+        }
+        scheduleRetry(delay, error);
+    }
+
+    /**
+     * Hand the next attempt to the executor once the delay has passed.
+     *
+     * @param delay time to wait in milliseconds
+     * @param error the failure of the last attempt, which completes the execution if the retry
+     *              cannot be scheduled
+     */
+    private void scheduleRetry(long delay, final Exception error) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            try {
+                pendingRetry = scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            executor.execute(TusScheduledAttempts.this);
+                        } catch (RejectedExecutionException e) {
+                            finish(error);
+                        }
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // The scheduler has been shut down, so the last failure is reported below.
+            }
+        }
+        finish(error);
+    }
+
+    /**
+     * Complete the execution unless it has been completed or cancelled already.
+     *
+     * @param cause the failure or {@code null} if the last attempt succeeded
+     */
+    private void finish(Throwable cause) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+        }
+
+        failure = cause;
+        completed.countDown();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            cancelled = true;
+
+            if (pendingRetry != null) {
+                pendingRetry.cancel(false);
+            }
+            if (mayInterruptIfRunning && runner != null) {
+                runner.interrupt();
+            }
+        }
+
+        completed.countDown();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return completed.getCount() == 0;
+    }
+
+    @Override
+    public Void get() throws InterruptedException, ExecutionException {
+        completed.await();
+        return getResult();
+    }
+
+    @Override
+    public Void get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!completed.await(timeout, unit)) {
+            throw new TimeoutException("attempts have not been completed in time");
+        }
+        return getResult();
+    }
+
+    /**
+     * @return {@code null} once the last attempt succeeded
+     * @throws ExecutionException the last failure has not been retried
+     */
+    private Void getResult() throws ExecutionException {
+        if (isCancelled()) {
+            throw new CancellationException("attempts have been cancelled");
+        }
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return null;
+    }
+}
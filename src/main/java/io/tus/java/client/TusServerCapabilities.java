@@ -0,0 +1,266 @@
+package io.tus.java.client;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import okhttp3.Response;
+
+/**
+ * This class describes the capabilities a tus server announces in its response to an OPTIONS
+ * request: the supported protocol versions ({@code Tus-Version}), extensions
+ * ({@code Tus-Extension}), the maximum upload size ({@code Tus-Max-Size}) and the checksum
+ * algorithms ({@code Tus-Checksum-Algorithm}). Instances are obtained using
+ * {@link TusClient#getServerCapabilities()}.
+ * <br>
+ * The capabilities can be persisted using {@link #encode()} and {@link #decode(String)}, e.g. by a
+ * {@link TusCapabilitiesStore} keeping them across restarts.
+ */
+public class TusServerCapabilities {
+    private static final String DISCOVERED_AT = "Discovered-At";
+
+    private final List<String> versions;
+    private final Set<String> extensions;
+    private final long maxSize;
+    private final List<String> checksumAlgorithms;
+    private final long discoveredAt;
+
+    /**
+     * Create a new description of a server's capabilities.
+     *
+     * @param versions           Supported protocol versions, the preferred one first
+     * @param extensions         Supported extensions, e.g. {@code creation}
+     * @param maxSize            Maximum size of an upload in bytes or -1 if not limited
+     * @param checksumAlgorithms Supported checksum algorithms
+     * @param discoveredAt       Time of the discovery in milliseconds since the epoch
+     */
+    public TusServerCapabilities(@NotNull List<String> versions, @NotNull Set<String> extensions, long maxSize,
+                                 @NotNull List<String> checksumAlgorithms, long discoveredAt) {
+        this.versions = Collections.unmodifiableList(new ArrayList<String>(versions));
+        this.extensions = Collections.unmodifiableSet(new LinkedHashSet<String>(extensions));
+        this.maxSize = maxSize;
+        this.checksumAlgorithms = Collections.unmodifiableList(new ArrayList<String>(checksumAlgorithms));
+        this.discoveredAt = discoveredAt;
+    }
+
+    /**
+     * Read the capabilities from the server's response to an OPTIONS request.
+     *
+     * @param response     the response
+     * @param discoveredAt current time in milliseconds since the epoch
+     * @return the capabilities
+     * @throws ProtocolException the response is not successful or contains an invalid header
+     */
+    static TusServerCapabilities fromResponse(Response response, long discoveredAt) throws ProtocolException {
+        int responseCode = response.code();
+        if (!(responseCode >= 200 && responseCode < 300)) {
+            throw new ProtocolException(
+                    "unexpected status code (" + responseCode + ") while discovering server capabilities", response);
+        }
+
+        return new TusServerCapabilities(
+                splitList(response.header("Tus-Version")),
+                new LinkedHashSet<String>(splitList(response.header("Tus-Extension"))),
+                parseMaxSize(response.header("Tus-Max-Size")),
+                splitList(response.header("Tus-Checksum-Algorithm")),
+                discoveredAt);
+    }
+
+    /**
+     * Get the protocol versions supported by the server.
+     *
+     * @return Versions, the preferred one first
+     */
+    public List<String> getVersions() {
+        return versions;
+    }
+
+    /**
+     * Get the extensions supported by the server.
+     *
+     * @return Names of the extensions
+     */
+    public Set<String> getExtensions() {
+        return extensions;
+    }
+
+    /**
+     * Check whether the server supports an extension.
+     *
+     * @param extension Name of the extension, e.g. {@code concatenation}
+     * @return True if the extension has been announced
+     */
+    public boolean supportsExtension(String extension) {
+        return extensions.contains(extension);
+    }
+
+    /**
+     * Get the maximum size of an upload accepted by the server.
+     *
+     * @return Number of bytes or -1 if the server did not announce a limit
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the checksum algorithms supported by the server.
+     *
+     * @return Names of the algorithms, e.g. {@code sha1}
+     */
+    public List<String> getChecksumAlgorithms() {
+        return checksumAlgorithms;
+    }
+
+    /**
+     * Check whether the server supports a checksum algorithm. Names are compared ignoring case.
+     *
+     * @param algorithm Name of the algorithm
+     * @return True if the algorithm has been announced
+     */
+    public boolean supportsChecksumAlgorithm(String algorithm) {
+        for (String supported : checksumAlgorithms) {
+            if (supported.equalsIgnoreCase(algorithm)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the time at which the capabilities have been discovered.
+     *
+     * @return Milliseconds since the epoch
+     */
+    public long getDiscoveredAt() {
+        return discoveredAt;
+    }
+
+    /**
+     * Encode the capabilities into a string which can be read again using {@link #decode(String)}.
+     * The string consists of lines in the format of the corresponding HTTP headers.
+     *
+     * @return Encoded capabilities
+     */
+    public String encode() {
+        StringBuilder encoded = new StringBuilder();
+        encoded.append("Tus-Version: ").append(joinList(versions)).append('\n');
+        encoded.append("Tus-Extension: ").append(joinList(extensions)).append('\n');
+        encoded.append("Tus-Max-Size: ").append(maxSize >= 0 ? Long.toString(maxSize) : "").append('\n');
+        encoded.append("Tus-Checksum-Algorithm: ").append(joinList(checksumAlgorithms)).append('\n');
+        encoded.append(DISCOVERED_AT).append(": ").append(discoveredAt).append('\n');
+        return encoded.toString();
+    }
+
+    /**
+     * Decode capabilities encoded using {@link #encode()}.
+     *
+     * @param encoded Encoded capabilities
+     * @return The capabilities
+     * @throws IllegalArgumentException The string is not valid
+     */
+    public static TusServerCapabilities decode(@NotNull String encoded) {
+        List<String> versions = Collections.emptyList();
+        Set<String> extensions = Collections.emptySet();
+        long maxSize = -1;
+        List<String> checksumAlgorithms = Collections.emptyList();
+        long discoveredAt = -1;
+
+        try {
+            for (String line : encoded.split("\n")) {
+                int separator = line.indexOf(':');
+                if (separator < 0) {
+                    continue;
+                }
+
+                String name = line.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+                String value = line.substring(separator + 1).trim();
+                if (name.equals("tus-version")) {
+                    versions = splitList(value);
+                } else if (name.equals("tus-extension")) {
+                    extensions = new LinkedHashSet<String>(splitList(value));
+                } else if (name.equals("tus-max-size")) {
+                    maxSize = parseMaxSize(value);
+                } else if (name.equals("tus-checksum-algorithm")) {
+                    checksumAlgorithms = splitList(value);
+                } else if (name.equals(DISCOVERED_AT.toLowerCase(Locale.ROOT))) {
+                    discoveredAt = Long.parseLong(value);
+                }
+            }
+        } catch (ProtocolException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid discovery time in encoded capabilities");
+        }
+
+        if (discoveredAt < 0) {
+            throw new IllegalArgumentException("missing discovery time in encoded capabilities");
+        }
+        return new TusServerCapabilities(versions, extensions, maxSize, checksumAlgorithms, discoveredAt);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+
+    /**
+     * @param value comma-separated header value or {@code null}
+     * @return the trimmed, non-empty elements
+     */
+    private static List<String> splitList(String value) {
+        List<String> elements = new ArrayList<String>();
+        if (value == null) {
+            return elements;
+        }
+
+        for (String element : value.split(",")) {
+            element = element.trim();
+            if (element.length() > 0) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * @param elements values
+     * @return the values separated by commas
+     */
+    private static String joinList(Iterable<String> elements) {
+        StringBuilder joined = new StringBuilder();
+        for (String element : elements) {
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(element);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * @param value value of the Tus-Max-Size header or {@code null}
+     * @return the maximum size or -1 if not set
+     * @throws ProtocolException the value is not a non-negative number
+     */
+    private static long parseMaxSize(String value) throws ProtocolException {
+        if (value == null || value.length() == 0) {
+            return -1;
+        }
+
+        try {
+            long maxSize = Long.parseLong(value);
+            if (maxSize >= 0) {
+                return maxSize;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw new ProtocolException("invalid Tus-Max-Size value: " + value);
+    }
+}
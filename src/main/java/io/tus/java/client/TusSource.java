@@ -0,0 +1,67 @@
+package io.tus.java.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Implementations of this interface provide the data of a {@link TusUpload}. In contrast to an
+ * {@link java.io.InputStream}, the data is read at absolute positions, which allows
+ * {@link TusUploader} to resume an upload or retransmit a failed request without skipping through
+ * the data. Implementations which support random access (e.g. {@link TusFileSource}) should make
+ * these reads cheap regardless of the position and allow multiple threads to read concurrently.
+ * <br>
+ * The following implementations are included:
+ * <ul>
+ *  <li>{@link TusFileSource} for {@link java.io.File}s and {@link java.nio.channels.FileChannel}s</li>
+ *  <li>{@link TusChannelSource} for {@link java.nio.channels.SeekableByteChannel}s</li>
+ *  <li>{@link TusByteBufferSource} for byte arrays and {@link ByteBuffer}s</li>
+ *  <li>{@link TusInputStreamSource} for {@link java.io.InputStream}s, which can only rewind to a
+ *  limited extent</li>
+ * </ul>
+ */
+public interface TusSource extends Closeable {
+    /**
+     * Read bytes starting at the specified position into the supplied buffer. The bytes are written
+     * starting at the buffer's position and at most {@link ByteBuffer#remaining()} bytes are read.
+     * The buffer's position is advanced by the number of bytes read.
+     *
+     * @param position Position in the source to read from
+     * @param dst      The buffer to write the bytes to
+     * @return Number of bytes read, possibly zero, or -1 if the position is at or after the end of
+     * the source
+     * @throws IOException Thrown if reading fails or the position cannot be reached
+     */
+    int read(long position, ByteBuffer dst) throws IOException;
+
+    /**
+     * Write bytes starting at the specified position to the supplied channel. This method is used
+     * for writing request bodies and allows implementations to avoid intermediate copies.
+     *
+     * @param position Position in the source to read from
+     * @param count    Maximum number of bytes to transfer
+     * @param target   The channel to write the bytes to
+     * @return Number of bytes transferred, which is only lower than {@code count} if the end of the
+     * source has been reached
+     * @throws IOException Thrown if reading or writing fails or the position cannot be reached
+     */
+    long transferTo(long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * Inform the source that all bytes before the specified position have been received by the
+     * server and will not be read again. Sources which must buffer data in order to rewind, e.g.
+     * {@link TusInputStreamSource}, may release it. Reads at earlier positions may fail afterwards.
+     *
+     * @param position Position before which no bytes will be read
+     * @throws IOException Thrown if the source fails to skip to the position
+     */
+    void discardBefore(long position) throws IOException;
+
+    /**
+     * Returns the total number of bytes provided by this source.
+     *
+     * @return Size in bytes or -1 if the size is not known in advance
+     */
+    long getSize();
+}
@@ -0,0 +1,70 @@
+package io.tus.java.client;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * TusSourceRegion is an internal {@link TusSource} which provides a region of another source, so
+ * that the region can be uploaded as a partial upload (see
+ * {@link TusClient#uploadInParallel(TusUpload, int)}). Positions are relative to the start of the
+ * region. Closing the region does not close the underlying source, which may be shared by multiple
+ * regions.
+ */
+class TusSourceRegion implements TusSource {
+    private final TusSource source;
+    private final long start;
+    private final long length;
+
+    /**
+     * Create a new region of the supplied source.
+     *
+     * @param source Source containing the region
+     * @param start  Position in the source at which the region starts
+     * @param length Number of bytes in the region
+     */
+    TusSourceRegion(TusSource source, long start, long length) {
+        this.source = source;
+        this.start = start;
+        this.length = length;
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+        if (position >= length) {
+            return -1;
+        }
+
+        int limit = dst.limit();
+        ((Buffer) dst).limit(dst.position() + (int) Math.min(dst.remaining(), length - position));
+        try {
+            return source.read(start + position, dst);
+        } finally {
+            ((Buffer) dst).limit(limit);
+        }
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        if (position >= length) {
+            return 0;
+        }
+        return source.transferTo(start + position, Math.min(count, length - position), target);
+    }
+
+    @Override
+    public void discardBefore(long position) {
+        // The underlying source is shared with the other regions, which may still need earlier bytes.
+    }
+
+    @Override
+    public long getSize() {
+        return length;
+    }
+
+    @Override
+    public void close() {
+        // The underlying source is closed once all regions have been uploaded.
+    }
+}
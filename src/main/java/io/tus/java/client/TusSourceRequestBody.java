@@ -0,0 +1,57 @@
+package io.tus.java.client;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * TusSourceRequestBody is an internal {@link RequestBody} which copies a region of a
+ * {@link TusSource} into the request while it is being written, using
+ * {@link TusSource#transferTo(long, long, java.nio.channels.WritableByteChannel)}. The bytes are
+ * read at an absolute position, so the body may be written multiple times, e.g. if OkHttp retries
+ * the request, as long as the source is able to read the region again.
+ */
+class TusSourceRequestBody extends RequestBody {
+    private final TusSource source;
+    private final long position;
+    private final long length;
+
+    /**
+     * Create a new body for the specified region of the source.
+     *
+     * @param source   Source to read from
+     * @param position Position in the source at which the region starts
+     * @param length   Number of bytes to send
+     */
+    TusSourceRequestBody(TusSource source, long position, long length) {
+        this.source = source;
+        this.position = position;
+        this.length = length;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return TusUploader.CONTENT_TYPE;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        long transferred = 0;
+        while (transferred < length) {
+            long count = source.transferTo(position + transferred, length - transferred, sink);
+            if (count <= 0) {
+                throw new EOFException("source ended after " + (position + transferred) + " bytes");
+            }
+            transferred += count;
+        }
+        sink.emitCompleteSegments();
+    }
+}
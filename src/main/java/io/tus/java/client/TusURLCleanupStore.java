@@ -0,0 +1,36 @@
+package io.tus.java.client;
+
+import java.net.URL;
+import java.util.List;
+
+/**
+ * A {@link TusURLStore} which additionally keeps the URLs of uploads which will not be continued,
+ * so they can be terminated on the server later, e.g. by a {@link TusUploadCleaner}. An upload is
+ * added to this store if it has been abandoned using {@link TusClient#abandonUpload(TusUpload)} or
+ * if a new upload has been created for the same fingerprint, superseding the stored one.
+ */
+public interface TusURLCleanupStore extends TusURLStore {
+    /**
+     * Add the URL of an upload which should be terminated. Adding a URL which is already contained
+     * should have no effect.
+     *
+     * @param url The abandoned upload's URL.
+     */
+    void addAbandoned(URL url);
+
+    /**
+     * Retrieve the URLs of all uploads which should be terminated, in the order they were added.
+     * The returned list must not be affected by later changes to the store.
+     *
+     * @return The abandoned uploads' URLs.
+     */
+    List<URL> getAbandoned();
+
+    /**
+     * Remove the URL of an upload after it has been terminated. If the URL is not contained no
+     * exception should be thrown.
+     *
+     * @param url The terminated upload's URL.
+     */
+    void removeAbandoned(URL url);
+}
@@ -0,0 +1,35 @@
+package io.tus.java.client;
+
+/**
+ * A {@link TusURLStore} which additionally keeps the time at which each stored upload expires, as
+ * announced by the server in the {@code Upload-Expires} header of the Expiration extension.
+ * {@link TusClient} records the expiration from the responses to POST, HEAD and PATCH requests and
+ * creates a new upload instead of resuming an expired one, without asking the server first.
+ */
+public interface TusURLExpirationStore extends TusURLStore {
+    /**
+     * Store the time at which the upload stored for a fingerprint expires. If no entry exists for
+     * this fingerprint, the call should be ignored. The expiration must be discarded when the entry
+     * is removed using {@link #remove(String)} or replaced using {@link #set(String, java.net.URL)}.
+     *
+     * @param fingerprint An upload's fingerprint.
+     * @param expiresAt   Time of expiration in milliseconds since the epoch.
+     */
+    void setExpiration(String fingerprint, long expiresAt);
+
+    /**
+     * Retrieve the time at which the upload stored for a fingerprint expires.
+     *
+     * @param fingerprint An upload's fingerprint.
+     * @return Time of expiration in milliseconds since the epoch or -1 if it is unknown.
+     */
+    long getExpiration(String fingerprint);
+
+    /**
+     * Remove all entries whose uploads have expired at the supplied time.
+     *
+     * @param now Current time in milliseconds since the epoch.
+     * @return Number of removed entries.
+     */
+    int removeExpired(long now);
+}
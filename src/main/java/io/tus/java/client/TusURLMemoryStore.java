@@ -1,7 +1,12 @@
 package io.tus.java.client;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -10,10 +15,17 @@ import java.util.Map;
  * fingerprint is usually retrieved using {@link TusUpload#getFingerprint()}.
  * <br>
  * The values will only be stored as long as the application is running. This store will not
- * keep the values after your application crashes or restarts.
+ * keep the values after your application crashes or restarts. This store is thread-safe.
+ * <br>
+ * Abandoned uploads are kept in insertion order until they are removed using
+ * {@link #removeAbandoned(URL)}. Expired entries are removed when they are looked up.
  */
-public class TusURLMemoryStore implements TusURLStore {
-    private Map<String, URL> store = new HashMap<String, URL>();
+public class TusURLMemoryStore implements TusURLCleanupStore, TusURLExpirationStore, TusURLOffsetStore {
+    private Map<String, URL> store = Collections.synchronizedMap(new HashMap<String, URL>());
+    private Map<String, Long> expirations = new HashMap<String, Long>();
+    private Map<String, Long> offsets = new HashMap<String, Long>();
+    // Keyed by the URL's string, since URL#equals() resolves host names.
+    private Map<String, URL> abandoned = new LinkedHashMap<String, URL>();
 
     /**
      * Stores the upload's fingerprint and url.
@@ -21,8 +33,10 @@ public class TusURLMemoryStore implements TusURLStore {
      * @param url The corresponding upload URL.
      */
     @Override
-    public void set(String fingerprint, URL url) {
+    public synchronized void set(String fingerprint, URL url) {
         store.put(fingerprint, url);
+        expirations.remove(fingerprint);
+        offsets.remove(fingerprint);
     }
 
     /**
@@ -31,7 +45,12 @@ public class TusURLMemoryStore implements TusURLStore {
      * @return The corresponding upload URL.
      */
     @Override
-    public URL get(String fingerprint) {
+    public synchronized URL get(String fingerprint) {
+        Long expiresAt = expirations.get(fingerprint);
+        if (expiresAt != null && expiresAt <= System.currentTimeMillis()) {
+            remove(fingerprint);
+            return null;
+        }
         return store.get(fingerprint);
     }
 
@@ -40,7 +59,105 @@ public class TusURLMemoryStore implements TusURLStore {
      * @param fingerprint An upload's fingerprint.
      */
     @Override
-    public void remove(String fingerprint) {
+    public synchronized void remove(String fingerprint) {
         store.remove(fingerprint);
+        expirations.remove(fingerprint);
+        offsets.remove(fingerprint);
+    }
+
+    /**
+     * Stores the time at which the upload of a fingerprint expires.
+     * @param fingerprint An upload's fingerprint.
+     * @param expiresAt Time of expiration in milliseconds since the epoch.
+     */
+    @Override
+    public synchronized void setExpiration(String fingerprint, long expiresAt) {
+        if (store.containsKey(fingerprint)) {
+            expirations.put(fingerprint, expiresAt);
+        }
+    }
+
+    /**
+     * Returns the time at which the upload of a fingerprint expires.
+     * @param fingerprint An upload's fingerprint.
+     * @return Time of expiration in milliseconds since the epoch or -1 if it is unknown.
+     */
+    @Override
+    public synchronized long getExpiration(String fingerprint) {
+        Long expiresAt = expirations.get(fingerprint);
+        return expiresAt != null ? expiresAt : -1;
+    }
+
+    /**
+     * Removes all entries whose uploads have expired.
+     * @param now Current time in milliseconds since the epoch.
+     * @return Number of removed entries.
+     */
+    @Override
+    public synchronized int removeExpired(long now) {
+        int removed = 0;
+        Iterator<Map.Entry<String, Long>> iterator = expirations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getValue() <= now) {
+                store.remove(entry.getKey());
+                offsets.remove(entry.getKey());
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Stores the offset acknowledged for the upload of a fingerprint.
+     * @param fingerprint An upload's fingerprint.
+     * @param offset The acknowledged offset or -1 to discard a stored one.
+     */
+    @Override
+    public synchronized void setOffset(String fingerprint, long offset) {
+        if (offset < 0) {
+            offsets.remove(fingerprint);
+        } else if (store.containsKey(fingerprint)) {
+            offsets.put(fingerprint, offset);
+        }
+    }
+
+    /**
+     * Returns the offset acknowledged for the upload of a fingerprint.
+     * @param fingerprint An upload's fingerprint.
+     * @return The acknowledged offset or -1 if it is unknown.
+     */
+    @Override
+    public synchronized long getOffset(String fingerprint) {
+        Long offset = offsets.get(fingerprint);
+        return offset != null ? offset : -1;
+    }
+
+    /**
+     * Adds the URL of an upload which should be terminated.
+     * @param url The abandoned upload's URL.
+     */
+    @Override
+    public synchronized void addAbandoned(URL url) {
+        abandoned.put(url.toString(), url);
+    }
+
+    /**
+     * Returns a copy of the URLs of all uploads which should be terminated.
+     * @return The abandoned uploads' URLs.
+     */
+    @Override
+    public synchronized List<URL> getAbandoned() {
+        return new ArrayList<URL>(abandoned.values());
+    }
+
+    /**
+     * Removes the URL of a terminated upload.
+     * @param url The terminated upload's URL.
+     */
+    @Override
+    public synchronized void removeAbandoned(URL url) {
+        abandoned.remove(url.toString());
     }
 }
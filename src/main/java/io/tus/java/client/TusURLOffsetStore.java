@@ -0,0 +1,27 @@
+package io.tus.java.client;
+
+/**
+ * A {@link TusURLStore} which additionally keeps the last offset acknowledged by the server for
+ * each stored upload. If low-latency mode has been enabled using
+ * {@link TusClient#enableLowLatencyMode()}, {@link TusClient} resumes uploads from this offset
+ * instead of retrieving it using a HEAD request.
+ */
+public interface TusURLOffsetStore extends TusURLStore {
+    /**
+     * Store the offset acknowledged for the upload stored for a fingerprint. If no entry exists for
+     * this fingerprint, the call should be ignored. The offset must be discarded when the entry is
+     * removed using {@link #remove(String)} or replaced using {@link #set(String, java.net.URL)}.
+     *
+     * @param fingerprint An upload's fingerprint.
+     * @param offset      The acknowledged offset or -1 to discard a stored one.
+     */
+    void setOffset(String fingerprint, long offset);
+
+    /**
+     * Retrieve the offset acknowledged for the upload stored for a fingerprint.
+     *
+     * @param fingerprint An upload's fingerprint.
+     * @return The acknowledged offset or -1 if it is unknown.
+     */
+    long getOffset(String fingerprint);
+}
@@ -1,10 +1,12 @@
 package io.tus.java.client;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,8 +19,13 @@ import java.util.Map;
  */
 public class TusUpload {
     private long size;
+    private File file;
     private InputStream input;
-    private TusInputStream tusInputStream;
+    private TusSource source;
+    private boolean memoryMappingEnabled;
+    private boolean partial;
+    private boolean deferredLengthEnabled;
+    private TusRateLimiter rateLimiter;
     private String fingerprint;
     private Map<String, String> metadata;
 
@@ -29,15 +36,21 @@ public class TusUpload {
     }
 
     /**
-     * Create a new TusUpload object using the supplied file object. The corresponding {@link
-     * InputStream}, size and fingerprint will be automatically set.
+     * Create a new TusUpload object using the supplied file object. The size and fingerprint will
+     * be automatically set. The file's content is read using a {@link TusFileSource}, so the
+     * corresponding {@link InputStream} is only opened if it is requested using
+     * {@link #getInputStream()}.
      *
      * @param file The file whose content should be later uploaded.
      * @throws FileNotFoundException Thrown if the file cannot be found.
      */
     public TusUpload(@NotNull File file) throws FileNotFoundException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException(file.getAbsolutePath() + " is not a file");
+        }
         size = file.length();
-        setInputStream(new FileInputStream(file));
+        this.file = file;
+        source = new TusFileSource(file);
 
         fingerprint = String.format("%s-%d", file.getAbsolutePath(), size);
 
@@ -80,29 +93,187 @@ public class TusUpload {
     }
 
     /**
-     * Returns the input stream of the file to upload.
+     * Returns the input stream of the file to upload. For uploads created using
+     * {@link #TusUpload(File)}, the stream is opened on the first call.
      * @return {@link InputStream}
+     * @throws IllegalStateException Thrown if the file cannot be opened anymore.
      */
     public InputStream getInputStream() {
+        if (input == null && file != null) {
+            try {
+                input = new FileInputStream(file);
+            } catch (FileNotFoundException e) {
+                throw new IllegalStateException("file cannot be opened", e);
+            }
+        }
         return input;
     }
 
     /**
-     * This method returns the {@link TusInputStream}, which was derived from the file's {@link InputStream}.
-     * @return {@link TusInputStream}
+     * Close the input stream if it has been set or opened. Other than {@link #getInputStream()},
+     * this does not open the file of an upload created using {@link #TusUpload(File)}.
+     *
+     * @throws IOException Thrown if the stream cannot be closed.
+     */
+    void closeInputStream() throws IOException {
+        if (input != null) {
+            input.close();
+        }
+    }
+
+    /**
+     * Returns the source from which the upload's content is read.
+     * @return {@link TusSource} or {@code null} if neither a source nor an input stream has been set.
      */
-    TusInputStream getTusInputStream() {
-        return tusInputStream;
+    public TusSource getSource() {
+        return source;
     }
 
     /**
-     * Set the source from which will be read if the file will be later uploaded.
+     * Set the source from which will be read if the file will be later uploaded. In contrast to
+     * an {@link InputStream}, a {@link TusSource} can be read at any position, which allows resuming
+     * and retransmitting without skipping through the data. If the source's size is known, the
+     * upload's size is set accordingly.
+     *
+     * @param source The source which will be read.
+     */
+    public void setSource(@NotNull TusSource source) {
+        this.source = source;
+        file = null;
+        input = null;
+
+        long sourceSize = source.getSize();
+        if (sourceSize >= 0) {
+            size = sourceSize;
+        }
+    }
+
+    /**
+     * Enable reading the file using memory mapping. Instead of copying the file through a buffer,
+     * {@link TusUploader} will map the region of the file which is sent in the current request
+     * (up to {@link TusUploader#getRequestPayloadSize()} bytes) into memory and write the request
+     * directly from this mapping. No chunk buffer is allocated. This only has an effect for uploads
+     * whose source is a {@link TusFileSource}, e.g. uploads created using {@link #TusUpload(File)}.
+     *
+     * @see #disableMemoryMapping()
+     */
+    public void enableMemoryMapping() {
+        memoryMappingEnabled = true;
+    }
+
+    /**
+     * Disable reading the file using memory mapping.
+     *
+     * @see #enableMemoryMapping()
+     */
+    public void disableMemoryMapping() {
+        memoryMappingEnabled = false;
+    }
+
+    /**
+     * Get the current status if reading the file using memory mapping.
+     *
+     * @return True if memory mapping has been enabled using {@link #enableMemoryMapping()}
+     * @see #enableMemoryMapping()
+     * @see #disableMemoryMapping()
+     */
+    public boolean memoryMappingEnabled() {
+        return memoryMappingEnabled;
+    }
+
+    /**
+     * Set the source from which will be read if the file will be later uploaded. The stream is
+     * wrapped in a {@link TusInputStreamSource}, so only a limited number of bytes can be
+     * retransmitted. Use {@link #setSource(TusSource)} for seekable data.
      *
      * @param inputStream The stream which will be read.
      */
     public void setInputStream(InputStream inputStream) {
+        file = null;
         input = inputStream;
-        tusInputStream = new TusInputStream(inputStream);
+        source = new TusInputStreamSource(inputStream);
+    }
+
+    /**
+     * Enable creating this upload without knowing its size, using the {@code Upload-Defer-Length}
+     * header of the Creation Defer Length extension. The size set using {@link #setSize(long)} is
+     * ignored until the end of the source is reached. {@link TusUploader} then declares the length
+     * in the last PATCH request and sets the size of this upload accordingly. If the content ends
+     * exactly at the end of a chunk, the length is declared using an additional PATCH request
+     * without a body.
+     * <br>
+     * This is useful for data which is generated while it is uploaded, e.g. read from a pipe. When
+     * reading from an {@link InputStream}, only the bytes which have not been acknowledged by the
+     * server yet are kept for retransmission, bounded by the rewind limit of the
+     * {@link TusInputStreamSource}, which must not be smaller than the chunk size. Each chunk is
+     * read into a buffer and sent in its own request, since the request's headers must be complete
+     * before its body is sent.
+     *
+     * @see #disableDeferredLength()
+     */
+    public void enableDeferredLength() {
+        deferredLengthEnabled = true;
+    }
+
+    /**
+     * Disable creating this upload without knowing its size.
+     *
+     * @see #enableDeferredLength()
+     */
+    public void disableDeferredLength() {
+        deferredLengthEnabled = false;
+    }
+
+    /**
+     * Get the current status if creating this upload without knowing its size.
+     *
+     * @return True if enabled using {@link #enableDeferredLength()}
+     * @see #enableDeferredLength()
+     * @see #disableDeferredLength()
+     */
+    public boolean deferredLengthEnabled() {
+        return deferredLengthEnabled;
+    }
+
+    /**
+     * Set a limiter which caps the rate at which this upload's content is written. It applies in
+     * addition to the client's limiter set using {@link TusClient#setRateLimiter(TusRateLimiter)}.
+     *
+     * @param rateLimiter The limiter to use or {@code null} to only apply the client's limiter
+     */
+    public void setRateLimiter(@Nullable TusRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Get the limiter which caps the rate of this upload.
+     *
+     * @return The limiter or {@code null} if none has been set
+     * @see #setRateLimiter(TusRateLimiter)
+     */
+    @Nullable
+    public TusRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Mark this upload as a partial upload of the Concatenation extension, which is created using
+     * the {@code Upload-Concat: partial} header. Such uploads are created by
+     * {@link TusClient#uploadInParallel(TusUpload, int)}.
+     *
+     * @param partial True if this upload is a partial upload
+     */
+    void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    /**
+     * Returns whether this upload is a partial upload of the Concatenation extension.
+     *
+     * @return True if set using {@link #setPartial(boolean)}
+     */
+    boolean isPartial() {
+        return partial;
     }
 
     /**
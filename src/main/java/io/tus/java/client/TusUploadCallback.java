@@ -0,0 +1,35 @@
+package io.tus.java.client;
+
+import java.net.URL;
+
+/**
+ * Implementations of this interface are notified about the progress and outcome of uploads
+ * started using {@link TusClient#uploadAsync(TusUpload, TusUploadCallback)}. The methods are
+ * invoked on OkHttp's threads and must not block.
+ */
+public interface TusUploadCallback {
+    /**
+     * Called after a request has been acknowledged by the server.
+     *
+     * @param upload        The upload in progress
+     * @param bytesUploaded Number of bytes received by the server
+     * @param bytesTotal    Size of the upload
+     */
+    void onProgress(TusUpload upload, long bytesUploaded, long bytesTotal);
+
+    /**
+     * Called once the upload has been completed.
+     *
+     * @param upload    The completed upload
+     * @param uploadURL URL of the upload
+     */
+    void onSuccess(TusUpload upload, URL uploadURL);
+
+    /**
+     * Called if the upload has failed. It is not called if the upload has been cancelled.
+     *
+     * @param upload The failed upload
+     * @param e      The cause, usually a {@link ProtocolException} or {@link java.io.IOException}
+     */
+    void onFailure(TusUpload upload, Exception e);
+}
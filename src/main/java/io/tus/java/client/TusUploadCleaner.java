@@ -0,0 +1,232 @@
+package io.tus.java.client;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class terminates uploads which will not be continued, so they do not occupy storage on the
+ * server until they expire. It reads the abandoned uploads from a {@link TusURLCleanupStore},
+ * terminates them using {@link TusClient#terminate(URL)} and removes them from the store.
+ * <br>
+ * Uploads are terminated in batches of {@link #getBatchSize()} concurrent requests. After each
+ * batch, the cleaner waits {@link #getBatchDelay()} milliseconds, which limits the load put on the
+ * server. Uploads which could not be terminated remain in the store and are retried on the next
+ * run. A run is started either directly using {@link #clean()} or periodically in the background
+ * using {@link #start(long)}. If the store is also a {@link TusURLExpirationStore}, each run first
+ * removes the entries of expired uploads from it.
+ * <br>
+ * The requests are sent on the executor set using
+ * {@link TusClient#setUploadExecutor(ExecutorService)} or, if none has been set, on threads owned
+ * by the run. This class is thread-safe.
+ */
+public class TusUploadCleaner implements Closeable {
+    private final TusClient client;
+    private final TusURLCleanupStore store;
+    private volatile int batchSize = 4;
+    private volatile long batchDelay = 1000;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Create a new cleaner terminating the abandoned uploads of the supplied store.
+     *
+     * @param client The client used for sending the requests
+     * @param store  The store holding the abandoned uploads
+     */
+    public TusUploadCleaner(@NotNull TusClient client, @NotNull TusURLCleanupStore store) {
+        this.client = client;
+        this.store = store;
+    }
+
+    /**
+     * Set the number of uploads which are terminated concurrently in a single batch. The default
+     * value is 4.
+     *
+     * @param batchSize Number of concurrent requests, must be positive
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Get the number of uploads which are terminated concurrently in a single batch.
+     *
+     * @return Number of concurrent requests
+     * @see #setBatchSize(int)
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the time to wait after each batch before the next one is started. The default value is
+     * 1000 milliseconds.
+     *
+     * @param batchDelay Delay in milliseconds, must not be negative
+     */
+    public void setBatchDelay(long batchDelay) {
+        if (batchDelay < 0) {
+            throw new IllegalArgumentException("batch delay must not be negative");
+        }
+        this.batchDelay = batchDelay;
+    }
+
+    /**
+     * Get the time to wait after each batch before the next one is started.
+     *
+     * @return Delay in milliseconds
+     * @see #setBatchDelay(long)
+     */
+    public long getBatchDelay() {
+        return batchDelay;
+    }
+
+    /**
+     * Terminate all uploads which are currently marked as abandoned in the store. This method
+     * blocks until all batches have been sent.
+     *
+     * @return Number of uploads which have been terminated and removed from the store
+     * @throws InterruptedException Thrown if the thread has been interrupted while waiting for a
+     *                              batch to complete.
+     */
+    public int clean() throws InterruptedException {
+        if (store instanceof TusURLExpirationStore) {
+            ((TusURLExpirationStore) store).removeExpired(System.currentTimeMillis());
+        }
+
+        List<URL> abandoned = store.getAbandoned();
+        if (abandoned.isEmpty()) {
+            return 0;
+        }
+
+        int size = batchSize;
+        ExecutorService sharedExecutor = client.getUploadExecutor();
+        ExecutorService executor = sharedExecutor != null ? sharedExecutor
+                : Executors.newFixedThreadPool(Math.min(size, abandoned.size()), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "tus-upload-cleaner");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+        int terminated = 0;
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+        try {
+            for (int start = 0; start < abandoned.size(); start += size) {
+                if (start > 0 && batchDelay > 0) {
+                    Thread.sleep(batchDelay);
+                }
+
+                futures.clear();
+                for (final URL uploadURL : abandoned.subList(start, Math.min(start + size, abandoned.size()))) {
+                    futures.add(executor.submit(new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() {
+                            return terminate(uploadURL);
+                        }
+                    }));
+                }
+
+                for (Future<Boolean> future : futures) {
+                    try {
+                        if (future.get()) {
+                            terminated++;
+                        }
+                    } catch (ExecutionException e) {
+                        // Unexpected failures leave the upload in the store for the next run.
+                    }
+                }
+            }
+        } finally {
+            for (Future<Boolean> future : futures) {
+                future.cancel(true);
+            }
+            if (sharedExecutor == null) {
+                executor.shutdownNow();
+            }
+        }
+
+        return terminated;
+    }
+
+    /**
+     * Terminate a single upload and remove it from the store if successful.
+     *
+     * @param uploadURL the upload's URL
+     * @return {@code true} if the upload has been terminated
+     */
+    private boolean terminate(URL uploadURL) {
+        try {
+            client.terminate(uploadURL);
+        } catch (ProtocolException e) {
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+
+        store.removeAbandoned(uploadURL);
+        return true;
+    }
+
+    /**
+     * Run {@link #clean()} periodically on a background thread until {@link #close()} is called.
+     * The first run starts immediately. Calling this method again has no effect.
+     *
+     * @param period Time between the end of a run and the start of the next one in milliseconds
+     */
+    public synchronized void start(long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "tus-upload-cleaner-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    clean();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop running {@link #clean()} in the background. A run in progress is interrupted.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
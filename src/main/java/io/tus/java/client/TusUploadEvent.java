@@ -0,0 +1,111 @@
+package io.tus.java.client;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URL;
+
+/**
+ * This class describes a step of an upload published by a {@link TusUploadPublisher}.
+ */
+public final class TusUploadEvent {
+    /**
+     * The kinds of events.
+     */
+    public enum Type {
+        /**
+         * A new upload has been created on the server.
+         */
+        CREATED,
+        /**
+         * An existing upload has been resumed. The offset is the one reported by the server.
+         */
+        RESUMED,
+        /**
+         * The server has acknowledged a chunk. The offset is the number of bytes received so far.
+         */
+        CHUNK_ACKNOWLEDGED,
+        /**
+         * The upload has been completed.
+         */
+        COMPLETED,
+        /**
+         * The upload has failed and will not be retried.
+         */
+        FAILED
+    }
+
+    private final Type type;
+    private final TusUpload upload;
+    private final URL uploadURL;
+    private final long offset;
+    private final Exception exception;
+
+    /**
+     * Create a new event.
+     *
+     * @param type      Kind of the event
+     * @param upload    The upload the event belongs to
+     * @param uploadURL URL of the upload or {@code null} if it is not known
+     * @param offset    Number of bytes received by the server
+     * @param exception Cause of a {@link Type#FAILED} event or {@code null}
+     */
+    TusUploadEvent(Type type, TusUpload upload, URL uploadURL, long offset, Exception exception) {
+        this.type = type;
+        this.upload = upload;
+        this.uploadURL = uploadURL;
+        this.offset = offset;
+        this.exception = exception;
+    }
+
+    /**
+     * Get the kind of this event.
+     *
+     * @return The type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the upload this event belongs to.
+     *
+     * @return The upload
+     */
+    public TusUpload getUpload() {
+        return upload;
+    }
+
+    /**
+     * Get the URL of the upload.
+     *
+     * @return The URL or {@code null} if the upload failed before it has been created or resumed
+     */
+    @Nullable
+    public URL getUploadURL() {
+        return uploadURL;
+    }
+
+    /**
+     * Get the number of bytes received by the server when this event occurred.
+     *
+     * @return Number of bytes
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the cause of a {@link Type#FAILED} event.
+     *
+     * @return The exception or {@code null} for other events
+     */
+    @Nullable
+    public Exception getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%s, %d)", type, uploadURL, offset);
+    }
+}
@@ -0,0 +1,494 @@
+package io.tus.java.client;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class runs many uploads using a single {@link TusClient}. Uploads are submitted as jobs
+ * using {@link #submit(TusUpload, Priority, String)} and are queued until one of the
+ * {@code maxConcurrentUploads} slots becomes free. Each job resumes or creates its upload using
+ * {@link TusClient#resumeOrCreateUpload(TusUpload)} and sends it chunk by chunk. Failed attempts are
+ * retried by a {@link TusExecutor} using the delays set by {@link #setDelays(int[])} or, if one has
+ * been set, the client's {@link TusClient#getRetryPolicy() retry policy}.
+ * <br>
+ * Queued jobs are started in the following order:
+ * <ul>
+ *     <li>Jobs with a higher {@link Priority} are started before jobs with a lower one.</li>
+ *     <li>Within a priority, the tenants passed when submitting take turns, so a tenant with
+ *     thousands of queued jobs does not starve a tenant with a single one. The jobs of a tenant
+ *     are started in the order of submission.</li>
+ *     <li>A job is skipped while {@link #getMaxUploadsPerHost()} uploads to its host are running.
+ *     The host is taken from the upload's URL in the client's {@link TusURLStore} or, for new
+ *     uploads, from {@link TusClient#getUploadCreationURL()}.</li>
+ * </ul>
+ * Uploads can be cancelled using {@link Future#cancel(boolean)} on the future returned when
+ * submitting. Cancelling a running upload interrupts its thread.
+ * <br>
+ * This class is thread-safe.
+ */
+public class TusUploadManager implements Closeable {
+    /**
+     * Priority classes of jobs. Queued jobs of a higher priority are always started first.
+     */
+    public enum Priority {
+        /**
+         * Started before all other jobs.
+         */
+        HIGH,
+        /**
+         * The priority of jobs submitted using {@link #submit(TusUpload)}.
+         */
+        NORMAL,
+        /**
+         * Started only if no other jobs are waiting.
+         */
+        LOW
+    }
+
+    private static final String DEFAULT_TENANT = "";
+
+    private final TusClient client;
+    private final int maxConcurrentUploads;
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+    private final List<Map<String, ArrayDeque<Job>>> queues = new ArrayList<Map<String, ArrayDeque<Job>>>();
+    private final Map<String, Integer> runningPerHost = new HashMap<String, Integer>();
+    private final Set<Job> runningJobs = new HashSet<Job>();
+    private int maxUploadsPerHost = Integer.MAX_VALUE;
+    private int[] delays = new int[]{500, 1000, 2000, 3000};
+    private int runningUploads;
+    private int queuedUploads;
+    private boolean closed;
+
+    /**
+     * Create a new manager which runs its uploads using the client's
+     * {@link TusClient#getUploadExecutor()}. If the client has no executor, the uploads run on a
+     * pool of {@code maxConcurrentUploads} threads, which are released using {@link #close()}.
+     *
+     * @param client               Client used for the uploads
+     * @param maxConcurrentUploads Maximum number of uploads running at the same time
+     */
+    public TusUploadManager(@NotNull TusClient client, int maxConcurrentUploads) {
+        this(client, maxConcurrentUploads, client.getUploadExecutor());
+    }
+
+    /**
+     * Create a new manager which runs its uploads using the supplied executor. The manager never
+     * hands more than {@code maxConcurrentUploads} uploads to the executor at the same time. The
+     * executor is not shut down by {@link #close()}.
+     *
+     * @param client               Client used for the uploads
+     * @param maxConcurrentUploads Maximum number of uploads running at the same time
+     * @param executor             Executor running the uploads or {@code null} to use an own
+     *                             thread pool
+     */
+    public TusUploadManager(@NotNull TusClient client, int maxConcurrentUploads, Executor executor) {
+        if (maxConcurrentUploads < 1) {
+            throw new IllegalArgumentException("maxConcurrentUploads must be at least 1");
+        }
+
+        this.client = client;
+        this.maxConcurrentUploads = maxConcurrentUploads;
+
+        if (executor == null) {
+            ownExecutor = Executors.newFixedThreadPool(maxConcurrentUploads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "tus-upload-manager");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            this.executor = ownExecutor;
+        } else {
+            ownExecutor = null;
+            this.executor = executor;
+        }
+
+        for (int i = 0; i < Priority.values().length; i++) {
+            queues.add(new LinkedHashMap<String, ArrayDeque<Job>>());
+        }
+    }
+
+    /**
+     * Get the maximum number of uploads running at the same time.
+     *
+     * @return Number of uploads
+     */
+    public int getMaxConcurrentUploads() {
+        return maxConcurrentUploads;
+    }
+
+    /**
+     * Set the maximum number of uploads to the same host running at the same time. Hosts are
+     * distinguished by the authority of the upload URL, i.e. host name and port. By default, the
+     * number is only limited by {@link #getMaxConcurrentUploads()}.
+     *
+     * @param maxUploadsPerHost Number of uploads, at least 1
+     */
+    public void setMaxUploadsPerHost(int maxUploadsPerHost) {
+        if (maxUploadsPerHost < 1) {
+            throw new IllegalArgumentException("maxUploadsPerHost must be at least 1");
+        }
+
+        List<Job> started;
+        synchronized (this) {
+            this.maxUploadsPerHost = maxUploadsPerHost;
+            started = startQueuedJobs();
+        }
+        execute(started);
+    }
+
+    /**
+     * Get the maximum number of uploads to the same host running at the same time.
+     *
+     * @return Number of uploads
+     */
+    public synchronized int getMaxUploadsPerHost() {
+        return maxUploadsPerHost;
+    }
+
+    /**
+     * Set the delays used by the {@link TusExecutor} retrying failed attempts of jobs which are
+     * started afterwards.
+     *
+     * @param delays Delays in milliseconds
+     * @see TusExecutor#setDelays(int[])
+     */
+    public synchronized void setDelays(@NotNull int[] delays) {
+        this.delays = delays;
+    }
+
+    /**
+     * Get the delays used for retrying failed attempts.
+     *
+     * @return Delays in milliseconds
+     */
+    public synchronized int[] getDelays() {
+        return delays;
+    }
+
+    /**
+     * Get the number of uploads currently running.
+     *
+     * @return Number of uploads
+     */
+    public synchronized int getRunningUploads() {
+        return runningUploads;
+    }
+
+    /**
+     * Get the number of uploads waiting to be started.
+     *
+     * @return Number of uploads
+     */
+    public synchronized int getQueuedUploads() {
+        return queuedUploads;
+    }
+
+    /**
+     * Submit an upload with {@link Priority#NORMAL} priority for the default tenant.
+     *
+     * @param upload Upload to run
+     * @return Future completed with the upload's URL
+     * @see #submit(TusUpload, Priority, String)
+     */
+    public Future<URL> submit(@NotNull TusUpload upload) {
+        return submit(upload, Priority.NORMAL, DEFAULT_TENANT);
+    }
+
+    /**
+     * Submit an upload. It is started immediately if a slot is free, otherwise it is queued.
+     *
+     * @param upload   Upload to run
+     * @param priority Priority class of the upload
+     * @param tenant   Identifier of the party the upload belongs to, used for sharing the slots
+     *                 fairly between parties
+     * @return Future completed with the upload's URL. Its {@link Future#get()} method throws an
+     * {@link java.util.concurrent.ExecutionException} wrapping the last {@link ProtocolException} or
+     * {@link IOException} if all attempts failed.
+     * @throws IllegalStateException The manager has been closed
+     */
+    public Future<URL> submit(@NotNull TusUpload upload, @NotNull Priority priority, @NotNull String tenant) {
+        Job job = new Job(upload, getHost(upload));
+
+        List<Job> started;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("upload manager has been closed");
+            }
+
+            Map<String, ArrayDeque<Job>> tenants = queues.get(priority.ordinal());
+            ArrayDeque<Job> queue = tenants.get(tenant);
+            if (queue == null) {
+                queue = new ArrayDeque<Job>();
+                tenants.put(tenant, queue);
+            }
+            queue.add(job);
+            queuedUploads++;
+
+            started = startQueuedJobs();
+        }
+        execute(started);
+        return job;
+    }
+
+    /**
+     * Cancel all queued and running uploads and release the manager's threads. Running uploads are
+     * interrupted, regardless of the executor running them. No further uploads can be submitted
+     * afterwards.
+     */
+    @Override
+    public void close() {
+        List<Job> cancelled = new ArrayList<Job>();
+        List<Job> interrupted;
+        synchronized (this) {
+            closed = true;
+            for (Map<String, ArrayDeque<Job>> tenants : queues) {
+                for (ArrayDeque<Job> queue : tenants.values()) {
+                    cancelled.addAll(queue);
+                }
+                tenants.clear();
+            }
+            queuedUploads = 0;
+            interrupted = new ArrayList<Job>(runningJobs);
+        }
+
+        for (Job job : cancelled) {
+            job.cancel(false);
+        }
+        for (Job job : interrupted) {
+            job.cancel(true);
+        }
+        if (ownExecutor != null) {
+            ownExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Take as many queued jobs as there are free slots, honoring priorities, fairness between
+     * tenants and the per-host limit. The caller must hold the lock and pass the returned jobs to
+     * {@link #execute(List)} after releasing it.
+     *
+     * @return jobs to start
+     */
+    private List<Job> startQueuedJobs() {
+        List<Job> started = new ArrayList<Job>();
+        while (runningUploads < maxConcurrentUploads) {
+            Job job = pollNextJob();
+            if (job == null) {
+                break;
+            }
+
+            runningUploads++;
+            Integer running = runningPerHost.get(job.host);
+            runningPerHost.put(job.host, running == null ? 1 : running + 1);
+            runningJobs.add(job);
+            started.add(job);
+        }
+        return started;
+    }
+
+    /**
+     * @return the next job which can be started or {@code null}
+     */
+    private Job pollNextJob() {
+        for (Map<String, ArrayDeque<Job>> tenants : queues) {
+            Iterator<Map.Entry<String, ArrayDeque<Job>>> iterator = tenants.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, ArrayDeque<Job>> entry = iterator.next();
+                ArrayDeque<Job> queue = entry.getValue();
+
+                Job job = pollStartableJob(queue);
+                if (job == null) {
+                    if (queue.isEmpty()) {
+                        iterator.remove();
+                    }
+                    continue;
+                }
+
+                // Move the tenant to the end, so the other tenants of this priority are served
+                // before it is served again.
+                iterator.remove();
+                if (!queue.isEmpty()) {
+                    tenants.put(entry.getKey(), queue);
+                }
+                return job;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param queue jobs of a tenant
+     * @return the first job whose host is below the limit or {@code null}. Cancelled jobs are
+     * dropped from the queue.
+     */
+    private Job pollStartableJob(ArrayDeque<Job> queue) {
+        Iterator<Job> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Job job = iterator.next();
+            if (job.isCancelled()) {
+                iterator.remove();
+                queuedUploads--;
+                continue;
+            }
+
+            Integer running = runningPerHost.get(job.host);
+            if (running == null || running < maxUploadsPerHost) {
+                iterator.remove();
+                queuedUploads--;
+                return job;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param jobs jobs to hand to the executor
+     */
+    private void execute(List<Job> jobs) {
+        for (Job job : jobs) {
+            try {
+                executor.execute(job);
+            } catch (RejectedExecutionException e) {
+                job.cancel(false);
+                jobFinished(job);
+            }
+        }
+    }
+
+    /**
+     * Release the slot of a job and start the next ones.
+     *
+     * @param job the finished job
+     */
+    private void jobFinished(Job job) {
+        List<Job> started;
+        synchronized (this) {
+            runningUploads--;
+            runningJobs.remove(job);
+            int running = runningPerHost.get(job.host) - 1;
+            if (running == 0) {
+                runningPerHost.remove(job.host);
+            } else {
+                runningPerHost.put(job.host, running);
+            }
+
+            if (closed) {
+                return;
+            }
+            started = startQueuedJobs();
+        }
+        execute(started);
+    }
+
+    /**
+     * @param upload an upload
+     * @return authority of the URL the upload is sent to
+     */
+    private String getHost(TusUpload upload) {
+        URL url = null;
+        TusURLStore urlStore = client.getURLStore();
+        if (urlStore != null && upload.getFingerprint() != null) {
+            url = urlStore.get(upload.getFingerprint());
+        }
+        if (url == null) {
+            url = client.getUploadCreationURL();
+        }
+        return url != null ? url.getAuthority() : "";
+    }
+
+    /**
+     * A submitted upload. It releases its slot once it has been run.
+     */
+    final class Job extends FutureTask<URL> {
+        private final TusUpload upload;
+        private final String host;
+
+        /**
+         * @param upload the upload to run
+         * @param host   authority of the upload's URL
+         */
+        Job(final TusUpload upload, String host) {
+            super(new Callable<URL>() {
+                @Override
+                public URL call() throws ProtocolException, IOException {
+                    return runUpload(upload);
+                }
+            });
+            this.upload = upload;
+            this.host = host;
+        }
+
+        /**
+         * @return the upload run by this job
+         */
+        TusUpload getUpload() {
+            return upload;
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                jobFinished(this);
+            }
+        }
+    }
+
+    /**
+     * Resume or create an upload and send it, retrying failed attempts.
+     *
+     * @param upload the upload to run
+     * @return URL of the upload
+     * @throws ProtocolException the last attempt failed due to an unexpected response
+     * @throws IOException       the last attempt failed due to a network error or the thread
+     *                           was interrupted
+     */
+    private URL runUpload(final TusUpload upload) throws ProtocolException, IOException {
+        final URL[] uploadURL = new URL[1];
+        TusExecutor tusExecutor = new TusExecutor() {
+            @Override
+            protected void makeAttempt() throws ProtocolException, IOException {
+                TusUploader uploader = client.resumeOrCreateUpload(upload);
+                uploadURL[0] = uploader.getUploadURL();
+                while (uploader.uploadChunk() > -1) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("upload has been interrupted");
+                    }
+                }
+                uploader.finish();
+            }
+        };
+        tusExecutor.setDelays(getDelays());
+        tusExecutor.setRetryPolicy(client.getRetryPolicy());
+
+        if (!tusExecutor.makeAttempts()) {
+            throw new InterruptedIOException("upload has been interrupted");
+        }
+        return uploadURL[0];
+    }
+}
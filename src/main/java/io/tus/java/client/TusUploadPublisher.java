@@ -0,0 +1,304 @@
+package io.tus.java.client;
+
+import org.jetbrains.annotations.NotNull;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class publishes the progress of an upload as a Reactive Streams {@link Publisher}. Once the
+ * subscriber requests the first event, the upload is started using
+ * {@link TusClient#resumeOrCreateUpload(TusUpload)} and sent chunk by chunk. Failed attempts are
+ * retried by a {@link TusExecutor}. The subscriber receives a {@link TusUploadEvent} when the
+ * upload has been created or resumed and after every acknowledged chunk, followed by a
+ * {@link TusUploadEvent.Type#COMPLETED} event and {@code onComplete()}. If the upload fails, a
+ * {@link TusUploadEvent.Type#FAILED} event is sent if the subscriber has requested one, followed by
+ * {@code onError()}.
+ * <br>
+ * Events are not buffered. If the subscriber has not requested another event, the upload waits
+ * before sending the next chunk, so a slow subscriber slows down the upload instead of causing
+ * events to pile up. Cancelling the subscription interrupts the upload, which can be resumed
+ * later.
+ * <br>
+ * The upload runs using the client's {@link TusClient#getUploadExecutor()} or, if none has been
+ * set, on a new thread. A publisher represents a single upload and can only be subscribed once.
+ */
+public class TusUploadPublisher implements Publisher<TusUploadEvent> {
+    private final TusClient client;
+    private final TusUpload upload;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Create a new publisher for an upload. The upload is not started before it is requested by
+     * a subscriber.
+     *
+     * @param client Client used for the upload
+     * @param upload Upload to send
+     */
+    public TusUploadPublisher(@NotNull TusClient client, @NotNull TusUpload upload) {
+        this.client = client;
+        this.upload = upload;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super TusUploadEvent> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("upload publisher can only be subscribed once"));
+            return;
+        }
+
+        subscriber.onSubscribe(new UploadSubscription(subscriber));
+    }
+
+    /**
+     * The subscription running the upload. All signals to the subscriber are sent from the
+     * upload's thread.
+     */
+    private final class UploadSubscription implements Subscription, Runnable {
+        private final Subscriber<? super TusUploadEvent> subscriber;
+        // A lock instead of a monitor, so that a virtual thread waiting for demand does not pin its
+        // carrier thread.
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private long demand;
+        private boolean started;
+        private boolean cancelled;
+        private Exception invalidRequest;
+        private Thread thread;
+
+        /**
+         * @param subscriber the subscriber receiving the events
+         */
+        UploadSubscription(Subscriber<? super TusUploadEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+
+                if (n <= 0) {
+                    invalidRequest = new IllegalArgumentException("number of requested events must be positive");
+                    stop();
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                    changed.signalAll();
+                }
+
+                if (started) {
+                    return;
+                }
+                started = true;
+            } finally {
+                lock.unlock();
+            }
+            start();
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                stop();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Mark the subscription as cancelled and interrupt the upload. The caller must hold the lock.
+         */
+        private void stop() {
+            cancelled = true;
+            changed.signalAll();
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Run the upload using the client's executor or a new thread.
+         */
+        private void start() {
+            ExecutorService executor = client.getUploadExecutor();
+            if (executor != null) {
+                executor.execute(this);
+            } else {
+                Thread uploadThread = new Thread(this, "tus-upload-publisher");
+                uploadThread.setDaemon(true);
+                uploadThread.start();
+            }
+        }
+
+        @Override
+        public void run() {
+            lock.lock();
+            try {
+                thread = Thread.currentThread();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                upload();
+            } finally {
+                lock.lock();
+                try {
+                    thread = null;
+                    // Do not leave an interrupt meant for this upload on a pooled thread.
+                    Thread.interrupted();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * Send the upload and signal its outcome to the subscriber.
+         */
+        private void upload() {
+            final URL[] uploadURL = new URL[1];
+            final long[] offset = new long[1];
+
+            boolean cancelledBeforeStart;
+            lock.lock();
+            try {
+                cancelledBeforeStart = cancelled;
+            } finally {
+                lock.unlock();
+            }
+            if (cancelledBeforeStart) {
+                // Only an invalid request needs to be signalled.
+                fail(null, 0, null);
+                return;
+            }
+
+            try {
+                TusExecutor executor = new TusExecutor() {
+                    @Override
+                    protected void makeAttempt() throws ProtocolException, IOException {
+                        URL storedURL = client.getResumableURL(upload);
+
+                        TusUploader uploader = client.resumeOrCreateUpload(upload);
+                        uploadURL[0] = uploader.getUploadURL();
+                        offset[0] = uploader.getOffset();
+                        boolean resumed = storedURL != null && storedURL.equals(uploadURL[0]);
+                        emit(resumed ? TusUploadEvent.Type.RESUMED : TusUploadEvent.Type.CREATED,
+                                uploadURL[0], offset[0], null);
+
+                        while (uploader.uploadChunk() > -1) {
+                            offset[0] = uploader.getOffset();
+                            emit(TusUploadEvent.Type.CHUNK_ACKNOWLEDGED, uploadURL[0], offset[0], null);
+                        }
+                        uploader.finish();
+                    }
+                };
+                executor.setRetryPolicy(client.getRetryPolicy());
+
+                if (executor.makeAttempts()) {
+                    emit(TusUploadEvent.Type.COMPLETED, uploadURL[0], offset[0], null);
+                    subscriber.onComplete();
+                    return;
+                }
+                fail(uploadURL[0], offset[0], new InterruptedIOException("upload has been interrupted"));
+            } catch (Exception e) {
+                fail(uploadURL[0], offset[0], e);
+            }
+        }
+
+        /**
+         * Wait until the subscriber has requested another event and send it.
+         *
+         * @param type      kind of the event
+         * @param uploadURL URL of the upload
+         * @param offset    number of bytes received by the server
+         * @param exception cause of a failure
+         * @throws InterruptedIOException the subscription has been cancelled
+         */
+        private void emit(TusUploadEvent.Type type, URL uploadURL, long offset, Exception exception)
+                throws InterruptedIOException {
+            lock.lock();
+            try {
+                try {
+                    while (demand == 0 && !cancelled) {
+                        changed.await();
+                    }
+                } catch (InterruptedException e) {
+                    cancelled = true;
+                }
+
+                if (cancelled) {
+                    // Keep the interrupt, so the TusExecutor does not wait for the next attempt.
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("subscription has been cancelled");
+                }
+
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            subscriber.onNext(new TusUploadEvent(type, upload, uploadURL, offset, exception));
+        }
+
+        /**
+         * Signal a failure unless the subscription has been cancelled.
+         *
+         * @param uploadURL URL of the upload or {@code null}
+         * @param offset    number of bytes received by the server
+         * @param e         the cause
+         */
+        private void fail(URL uploadURL, long offset, Exception e) {
+            boolean failedEvent;
+            Exception invalid;
+            lock.lock();
+            try {
+                invalid = invalidRequest;
+                failedEvent = !cancelled && demand > 0;
+                if (invalid == null && cancelled) {
+                    return;
+                }
+                cancelled = true;
+            } finally {
+                lock.unlock();
+            }
+
+            if (invalid != null) {
+                subscriber.onError(invalid);
+                return;
+            }
+
+            if (failedEvent) {
+                subscriber.onNext(new TusUploadEvent(TusUploadEvent.Type.FAILED, upload, uploadURL, offset, e));
+            }
+            subscriber.onError(e);
+        }
+    }
+}
@@ -3,12 +3,16 @@ package io.tus.java.client;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.BufferedSink;
 
 /**
  * This class is used for doing the actual upload of the files. Instances are returned by
@@ -24,14 +28,55 @@ import okhttp3.Response;
  * </ol>
  */
 public class TusUploader {
-    private final URL uploadURL;
-    private final TusInputStream input;
+    static final MediaType CONTENT_TYPE = MediaType.get("application/offset+octet-stream");
+
+    /**
+     * Status code sent by servers supporting the Checksum extension if the checksum of a request
+     * does not match its body.
+     */
+    private static final int CHECKSUM_MISMATCH = 460;
+    private static final int MAX_CHECKSUM_RETRANSMISSIONS = 3;
+    /**
+     * Status code sent if the Upload-Offset header of a PATCH request does not match the upload's
+     * offset.
+     */
+    private static final int OFFSET_CONFLICT = 409;
+    private static final int NOT_FOUND = 404;
+    private static final int GONE = 410;
+    private static final int MAX_OFFSET_RETRANSMISSIONS = 3;
+
+    private URL uploadURL;
+    private final TusSource source;
+    private MappedByteBuffer mappedRegion;
+    private long mappedRegionStart;
     private long offset;
     private final TusClient client;
     private final TusUpload upload;
-    private byte[] buffer;
-    private int requestPayloadSize = 10 * 1024 * 1024;
+    private ByteBuffer buffer;
+    // Position in the source and length of the bytes held by the buffer, used for retransmission.
+    private long bufferedOffset;
+    private int bufferedLength;
+    private int chunkSize;
+    private long requestPayloadSize = 10 * 1024 * 1024;
     private boolean requestInProgress = false;
+    private boolean streamingEnabled = false;
+    private boolean multiChunkRequestsEnabled = false;
+    private StreamingPatchRequest openRequest;
+    private long bytesRemainingForOpenRequest;
+    private long openRequestBytes;
+    private long openRequestStartNanos;
+    private long requestStartOffset;
+    private TusAdaptiveSizing adaptiveSizing;
+    private boolean prefetchingEnabled = false;
+    private int prefetchDepth = 2;
+    private TusPrefetcher prefetcher;
+    private TusChecksumAlgorithm checksumAlgorithm;
+    private boolean lengthDeclared;
+    private boolean sourceExhausted;
+    // Whether the server has confirmed the offset in a response to this uploader. Until then, an
+    // offset conflict in low-latency mode may stem from resuming from an outdated stored offset.
+    private boolean offsetVerified;
+    private int offsetRetransmissions;
 
     /**
      * Begin a new upload request by opening a PATCH request to specified upload URL. After this
@@ -46,15 +91,40 @@ public class TusUploader {
      */
     public TusUploader(TusClient client, TusUpload upload, URL uploadURL, TusInputStream input, long offset)
             throws IOException {
+        this(client, upload, uploadURL, new TusInputStreamSource(input, TusInputStreamSource.DEFAULT_REWIND_LIMIT),
+                offset);
+    }
+
+    /**
+     * Begin a new upload request which reads the upload's content from the supplied
+     * {@link TusSource}. Sources which support random access are read at the offset directly,
+     * without skipping through the preceding data.
+     *
+     * @param client    Used for preparing a request ({@link TusClient#prepareConnection(HttpURLConnection)}
+     * @param upload    {@link TusUpload} to be uploaded.
+     * @param uploadURL URL to send the request to
+     * @param source    Source to read from and upload to the remote server
+     * @param offset    Offset to read from
+     * @throws IOException Thrown if the source cannot be positioned at the offset.
+     */
+    public TusUploader(TusClient client, TusUpload upload, URL uploadURL, TusSource source, long offset)
+            throws IOException {
         this.uploadURL = uploadURL;
-        this.input = input;
+        this.source = source;
         this.offset = offset;
         this.client = client;
         this.upload = upload;
 
-        input.seekTo(offset);
+        // The server has received everything before the offset. Uploads which are only created
+        // or resumed, e.g. for retrieving their URL, may have no source.
+        if (source != null) {
+            source.discardBefore(offset);
+        }
 
         setChunkSize(2 * 1024 * 1024);
+        adaptiveSizing = client.getAdaptiveSizing();
+        checksumAlgorithm = client.getChecksumAlgorithm();
+        lengthDeclared = !upload.deferredLengthEnabled();
     }
 
     /**
@@ -62,12 +132,16 @@ public class TusUploader {
      * much data is uploaded in a single take. When choosing a value for this parameter you need to
      * consider that uploadChunk() will only return once the specified number of bytes has been
      * sent. For slow internet connections this may take a long time. In addition, a buffer with
-     * the chunk size is allocated and kept in memory.
+     * the chunk size is obtained from the client's {@link TusBufferPool} and kept until
+     * {@link #finish()} is called, unless streaming has been enabled using {@link #enableStreaming()}.
      *
      * @param size The new chunk size
      */
     public void setChunkSize(int size) {
-        buffer = new byte[size];
+        if (size != chunkSize) {
+            releaseBuffer();
+        }
+        chunkSize = size;
     }
 
     /**
@@ -76,7 +150,109 @@ public class TusUploader {
      * @return Current chunk size
      */
     public int getChunkSize() {
-        return buffer.length;
+        return chunkSize;
+    }
+
+    /**
+     * Enable streaming request bodies. Instead of reading a chunk into a buffer before sending it,
+     * {@link #uploadChunk()} will copy the bytes directly from the {@link TusSource} into the HTTP
+     * request while it is being written. This avoids allocating a buffer with the chunk size and
+     * copying every byte twice. Files (see {@link TusFileSource}) are copied using
+     * {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+     * The length of each request is derived from {@link TusUpload#getSize()}, which therefore must be
+     * set correctly. If the source ends prematurely, an {@link java.io.EOFException} is thrown.
+     *
+     * @see #disableStreaming()
+     */
+    public void enableStreaming() {
+        streamingEnabled = true;
+    }
+
+    /**
+     * Disable streaming request bodies and read every chunk into a buffer before sending it.
+     *
+     * @see #enableStreaming()
+     */
+    public void disableStreaming() {
+        streamingEnabled = false;
+    }
+
+    /**
+     * Get the current status if streaming request bodies.
+     *
+     * @return True if streaming has been enabled using {@link #enableStreaming()}
+     * @see #enableStreaming()
+     * @see #disableStreaming()
+     */
+    public boolean streamingEnabled() {
+        return streamingEnabled;
+    }
+
+    /**
+     * Enable reading ahead of the current offset. A background thread reads the following chunks
+     * from the {@link TusSource} while the current chunk is being sent, so that slow sources (e.g.
+     * network file systems or decompressing streams) and the network are busy at the same time. Up
+     * to {@link #getPrefetchDepth()} chunks are read ahead, each occupying a buffer from the
+     * client's {@link TusBufferPool}. The chunks are still sent in order and the offset only
+     * advances once a chunk has been sent, so resuming is not affected.
+     * <p>
+     * This only has an effect if chunks are read into buffers, i.e. neither streaming (see
+     * {@link #enableStreaming()}) nor memory mapping (see {@link TusUpload#enableMemoryMapping()}) is
+     * used. For {@link TusInputStreamSource}s, the rewind limit should cover the chunks read ahead.
+     *
+     * @see #disablePrefetching()
+     * @see #setPrefetchDepth(int)
+     */
+    public void enablePrefetching() {
+        prefetchingEnabled = true;
+    }
+
+    /**
+     * Disable reading ahead of the current offset and release the chunks read ahead.
+     *
+     * @see #enablePrefetching()
+     */
+    public void disablePrefetching() {
+        prefetchingEnabled = false;
+        closePrefetcher();
+    }
+
+    /**
+     * Get the current status if reading ahead of the current offset.
+     *
+     * @return True if prefetching has been enabled using {@link #enablePrefetching()}
+     * @see #enablePrefetching()
+     * @see #disablePrefetching()
+     */
+    public boolean prefetchingEnabled() {
+        return prefetchingEnabled;
+    }
+
+    /**
+     * Set the number of chunks which are read ahead if prefetching is enabled. The default value
+     * is 2, so one chunk can be read while another one is waiting to be sent.
+     *
+     * @param depth Number of chunks, at least 1
+     * @see #enablePrefetching()
+     */
+    public void setPrefetchDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("prefetch depth must be at least 1");
+        }
+        if (depth != prefetchDepth) {
+            closePrefetcher();
+        }
+        prefetchDepth = depth;
+    }
+
+    /**
+     * Get the number of chunks which are read ahead if prefetching is enabled.
+     *
+     * @return Number of chunks
+     * @see #setPrefetchDepth(int)
+     */
+    public int getPrefetchDepth() {
+        return prefetchDepth;
     }
 
     /**
@@ -105,6 +281,20 @@ public class TusUploader {
      * @see #getRequestPayloadSize()
      */
     public void setRequestPayloadSize(int size) throws IllegalStateException {
+        setRequestPayloadSize((long) size);
+    }
+
+    /**
+     * Set the maximum payload size for a single request counted in bytes. In contrast to
+     * {@link #setRequestPayloadSize(int)}, this method accepts payloads of 2 GiB and more. Pass
+     * {@link Long#MAX_VALUE} to send the entire remaining upload in a single request if
+     * {@link #enableMultiChunkRequests()} is used.
+     *
+     * @param size Number of bytes for a single payload
+     * @throws IllegalStateException Thrown if the uploader currently has a connection open
+     * @see #setRequestPayloadSize(int)
+     */
+    public void setRequestPayloadSize(long size) throws IllegalStateException {
         if (requestInProgress) {
             throw new IllegalStateException("payload size for a single request must not be "
                     + "modified as long as a request is in progress");
@@ -114,18 +304,120 @@ public class TusUploader {
     }
 
     /**
-     * Get the current maximum payload size for a single request.
+     * Get the current maximum payload size for a single request. Payload sizes larger than
+     * {@link Integer#MAX_VALUE} are returned as {@link Integer#MAX_VALUE}.
      *
      * @return Number of bytes for a single payload
      * @see #setChunkSize(int)
      */
     public int getRequestPayloadSize() {
-        return requestPayloadSize;
+        return (int) Math.min(requestPayloadSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Let the supplied controller choose the chunk and payload sizes based on the measured
+     * throughput and latency. Before each request, the sizes are taken from the controller and
+     * override the values set using {@link #setChunkSize(int)} and
+     * {@link #setRequestPayloadSize(long)}. By default, the controller set using
+     * {@link TusClient#setAdaptiveSizing(TusAdaptiveSizing)} is used.
+     *
+     * @param adaptiveSizing The controller to use or {@code null} to use static sizes
+     * @see #getAdaptiveSizing()
+     */
+    public void setAdaptiveSizing(TusAdaptiveSizing adaptiveSizing) {
+        this.adaptiveSizing = adaptiveSizing;
+    }
+
+    /**
+     * Get the controller which chooses the chunk and payload sizes.
+     *
+     * @return The controller or {@code null} if static sizes are used
+     * @see #setAdaptiveSizing(TusAdaptiveSizing)
+     */
+    public TusAdaptiveSizing getAdaptiveSizing() {
+        return adaptiveSizing;
+    }
+
+    /**
+     * Send an {@code Upload-Checksum} header with every request, so the server can verify the
+     * request's body using the Checksum extension. The checksum is computed from the chunk in
+     * memory, after it has been read from the source and before it is sent, so the source is read
+     * only once. If the server responds with 460 Checksum Mismatch, the request is sent again from
+     * memory up to three times. By default, the algorithm set using
+     * {@link TusClient#setChecksumAlgorithm(TusChecksumAlgorithm)} is used.
+     * <br>
+     * Since the checksum must be known before a request is sent, each chunk is sent in its own
+     * request and read into a buffer while an algorithm is set, i.e. {@link #enableStreaming()} and
+     * {@link #enableMultiChunkRequests()} have no effect. The algorithm should be set before the
+     * first chunk is uploaded.
+     *
+     * @param checksumAlgorithm The algorithm to use or {@code null} to not send checksums
+     * @see #getChecksumAlgorithm()
+     */
+    public void setChecksumAlgorithm(TusChecksumAlgorithm checksumAlgorithm) {
+        this.checksumAlgorithm = checksumAlgorithm;
+    }
+
+    /**
+     * Get the algorithm used for computing the {@code Upload-Checksum} header.
+     *
+     * @return The algorithm or {@code null} if no checksums are sent
+     * @see #setChecksumAlgorithm(TusChecksumAlgorithm)
+     */
+    public TusChecksumAlgorithm getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    /**
+     * Enable sending multiple chunks in a single request. The first call to {@link #uploadChunk()}
+     * opens a PATCH request and the following calls append their chunks to its body until
+     * {@link #getRequestPayloadSize()} bytes have been sent or the input is exhausted. Only then the
+     * server's response is awaited and checked. This way the overhead of a request, e.g. the round
+     * trip and the {@code Expect: 100-continue} handshake, only occurs once per payload instead of
+     * once per chunk.
+     * <p>
+     * If {@link TusUpload#getSize()} is set, the request's length is announced using the
+     * Content-Length header. Otherwise chunked transfer encoding is used.
+     * Calling {@link #finish()} while a request is open aborts the request, which is useful for
+     * pausing an upload.
+     *
+     * @see #disableMultiChunkRequests()
+     */
+    public void enableMultiChunkRequests() {
+        multiChunkRequestsEnabled = true;
+    }
+
+    /**
+     * Disable sending multiple chunks in a single request, so every call to {@link #uploadChunk()}
+     * issues its own request. This must not be called while a request is open.
+     *
+     * @throws IllegalStateException Thrown if the uploader currently has a connection open
+     * @see #enableMultiChunkRequests()
+     */
+    public void disableMultiChunkRequests() throws IllegalStateException {
+        if (openRequest != null) {
+            throw new IllegalStateException("multi-chunk requests must not be disabled "
+                    + "as long as a request is in progress");
+        }
+        multiChunkRequestsEnabled = false;
+    }
+
+    /**
+     * Get the current status if sending multiple chunks in a single request.
+     *
+     * @return True if enabled using {@link #enableMultiChunkRequests()}
+     * @see #enableMultiChunkRequests()
+     * @see #disableMultiChunkRequests()
+     */
+    public boolean multiChunkRequestsEnabled() {
+        return multiChunkRequestsEnabled;
     }
 
     /**
-     * Upload a part of the file by reading a chunk from the InputStream and writing
-     * it to the HTTP request's body. If the number of available bytes is lower than the chunk's
+     * Upload a part of the file by reading a chunk from the {@link TusSource} and writing
+     * it to the HTTP request's body. Uploads read from a file with memory mapping enabled (see
+     * {@link TusUpload#enableMemoryMapping()}) are read from a mapping of the current request's
+     * region of the file instead. If the number of available bytes is lower than the chunk's
      * size, all available bytes will be uploaded and nothing more.
      * No new connection will be established when calling this method, instead the connection opened
      * in the previous calls will be used.
@@ -138,38 +430,446 @@ public class TusUploader {
      *                     to the HTTP request.
      */
     public int uploadChunk() throws IOException, ProtocolException {
+        boolean success = false;
+        try {
+            boolean toOpenRequest = multiChunkRequestsEnabled && checksumAlgorithm == null && lengthDeclared;
+            int bytesRead = toOpenRequest ? uploadChunkToOpenRequest() : uploadChunkInOwnRequest();
+            success = true;
+            return bytesRead;
+        } finally {
+            if (!success) {
+                // A failed uploader is usually discarded without calling finish(), e.g. by
+                // TusExecutor, so the buffer is returned to the pool right away.
+                releaseBuffer();
+                closePrefetcher();
+                if (adaptiveSizing != null) {
+                    adaptiveSizing.requestFailed();
+                }
+            }
+        }
+    }
+
+    /**
+     * Send a single chunk in its own request.
+     *
+     * @return Number of bytes read and written or -1 if the input is exhausted.
+     * @throws IOException       Thrown if an exception occurs while reading from the source or
+     *                           writing to the HTTP request.
+     * @throws ProtocolException Thrown if the server sends an unexpected response
+     */
+    private int uploadChunkInOwnRequest() throws IOException, ProtocolException {
+        applyAdaptiveSizing();
         requestInProgress = true;
-        int bytesRemainingForRequest = requestPayloadSize;
         OkHttpClient okHttpClient = client.getOrCreateOkHttpClient();
 
+        Request.Builder requestBuilder = getPatchRequestBuilder();
+
+        int bytesToRead = (int) Math.min(getChunkSize(), requestPayloadSize);
+        RequestBody body = readChunk(bytesToRead);
+        if (body == null) {
+            // No bytes were read since the input stream is empty
+            requestInProgress = false;
+            if (lengthDeclared) {
+                return -1;
+            }
+
+            declareLength();
+            if (!lengthDeclared) {
+                // The server is missing data, which is sent again before the length is declared.
+                return uploadChunkInOwnRequest();
+            }
+            return -1;
+        }
+        int bytesRead = (int) body.contentLength();
+
+        // The chunk is the last one, so the length of a deferred-length upload is known now.
+        boolean declaresLength = !lengthDeclared && sourceExhausted;
+        long declaredLength = offset + bytesRead;
+        if (declaresLength) {
+            requestBuilder.header("Upload-Length", Long.toString(declaredLength));
+        }
+
+        if (checksumAlgorithm != null) {
+            // Chunks are always read into memory while checksums are enabled, see readChunk().
+            ByteBuffer chunk = ((ByteBufferRequestBody) body).getBuffer();
+            requestBuilder.header("Upload-Checksum", checksumAlgorithm.headerValue(chunk));
+        }
+        if (client.shouldExpectContinue(bytesRead)) {
+            requestBuilder.header("Expect", "100-continue");
+        }
+
+        TimedRequestBody timedBody = new TimedRequestBody(throttle(body));
+        requestBuilder.patch(timedBody);
+        Request request = requestBuilder.build();
+
+        requestStartOffset = offset;
+        long startNanos = System.nanoTime();
+        Response response = okHttpClient.newCall(request).execute();
+        long endNanos;
+        try {
+            for (int i = 0; response.code() == CHECKSUM_MISMATCH && i < MAX_CHECKSUM_RETRANSMISSIONS; i++) {
+                // The server has discarded the corrupted body, so only this request is sent again.
+                response.close();
+                response = okHttpClient.newCall(request).execute();
+            }
+            endNanos = System.nanoTime();
+
+            if (response.code() == CHECKSUM_MISMATCH) {
+                client.recordOffset(upload, -1);
+                client.getRoundTripEstimator().bodyRejected();
+                requestInProgress = false;
+                throw new ProtocolException("checksum of the uploaded chunk did not match after "
+                        + MAX_CHECKSUM_RETRANSMISSIONS + " retransmissions", response);
+            }
+
+            // Every chunk is sent in its own request, so its response is always checked.
+            offset += bytesRead;
+            if (!finishConnection(response)) {
+                // The offset has been retrieved from the server, so the chunk is sent again from there.
+                response.close();
+                return uploadChunkInOwnRequest();
+            }
+        } finally {
+            response.close();
+        }
+
+        // The server has accepted the chunk, so it will not be sent again.
+        source.discardBefore(offset);
+        client.getRoundTripEstimator().transferCompleted(bytesRead, endNanos - startNanos);
+        if (declaresLength && offset == declaredLength) {
+            lengthDeclared = true;
+            upload.setSize(declaredLength);
+        }
+        if (adaptiveSizing != null) {
+            adaptiveSizing.requestCompleted(bytesRead, endNanos - startNanos,
+                    endNanos - timedBody.getWrittenAtNanos());
+        }
+
+        requestInProgress = false;
+        return bytesRead;
+    }
+
+    /**
+     * Append a chunk to the currently open request or open a new one if none exists.
+     *
+     * @return Number of bytes read and written or -1 if the input is exhausted.
+     * @throws IOException       Thrown if an exception occurs while reading from the source or
+     *                           writing to the HTTP request.
+     * @throws ProtocolException Thrown if the server sends an unexpected response
+     */
+    private int uploadChunkToOpenRequest() throws IOException, ProtocolException {
+        if (openRequest == null) {
+            applyAdaptiveSizing();
+            bytesRemainingForOpenRequest = requestPayloadSize;
+            if (upload.getSize() > 0) {
+                bytesRemainingForOpenRequest = Math.min(bytesRemainingForOpenRequest, upload.getSize() - offset);
+            }
+            if (bytesRemainingForOpenRequest <= 0) {
+                return -1;
+            }
+        }
+
+        RequestBody chunk = readChunk((int) Math.min(getChunkSize(), bytesRemainingForOpenRequest));
+        if (chunk == null) {
+            // The input is exhausted, so the current request is complete as well.
+            if (openRequest != null && !finishOpenRequest()) {
+                return uploadChunkToOpenRequest();
+            }
+            return -1;
+        }
+        int bytesRead = (int) chunk.contentLength();
+
+        if (openRequest == null) {
+            requestInProgress = true;
+            long requestLength = upload.getSize() > 0 ? bytesRemainingForOpenRequest : -1;
+            openRequestBytes = 0;
+            openRequestStartNanos = System.nanoTime();
+            requestStartOffset = offset;
+            Request.Builder requestBuilder = getPatchRequestBuilder();
+            if (client.shouldExpectContinue(requestLength)) {
+                requestBuilder.header("Expect", "100-continue");
+            }
+            openRequest = new StreamingPatchRequest(client.getOrCreateOkHttpClient(), client.getStreamingExecutor(),
+                    requestBuilder, requestLength);
+        }
+
+        try {
+            openRequest.write(throttle(chunk));
+        } catch (IOException e) {
+            StreamingPatchRequest failedRequest = openRequest;
+            openRequest = null;
+            requestInProgress = false;
+
+            // If the server has rejected the request, its response explains why.
+            Response response = failedRequest.cancel();
+            if (response != null) {
+                try {
+                    if (!finishConnection(response)) {
+                        // The offset has been retrieved from the server, so a new request is
+                        // opened there.
+                        return uploadChunkToOpenRequest();
+                    }
+                } finally {
+                    response.close();
+                }
+            }
+            throw e;
+        }
+
+        offset += bytesRead;
+        bytesRemainingForOpenRequest -= bytesRead;
+        openRequestBytes += bytesRead;
+
+        if (bytesRemainingForOpenRequest <= 0 && !finishOpenRequest()) {
+            return uploadChunkToOpenRequest();
+        }
+
+        return bytesRead;
+    }
+
+    /**
+     * Complete the body of the open request and check the server's response.
+     *
+     * @return {@code false} if the offset has been retrieved from the server after an offset
+     * conflict, so the request's content must be sent again
+     * @throws IOException       Thrown if the request failed
+     * @throws ProtocolException Thrown if the server sends an unexpected response
+     */
+    private boolean finishOpenRequest() throws IOException, ProtocolException {
+        StreamingPatchRequest request = openRequest;
+        openRequest = null;
+        requestInProgress = false;
+
+        long ackStartNanos = System.nanoTime();
+        Response response = request.finish();
+        long endNanos = System.nanoTime();
+        try {
+            if (!finishConnection(response)) {
+                return false;
+            }
+        } finally {
+            response.close();
+        }
+        source.discardBefore(offset);
+        client.getRoundTripEstimator().transferCompleted(openRequestBytes, endNanos - openRequestStartNanos);
+
+        if (adaptiveSizing != null) {
+            adaptiveSizing.requestCompleted(openRequestBytes, endNanos - openRequestStartNanos,
+                    endNanos - ackStartNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Take the chunk and payload sizes for the next request from the adaptive sizing controller.
+     */
+    private void applyAdaptiveSizing() {
+        if (adaptiveSizing != null) {
+            setChunkSize(adaptiveSizing.getChunkSize());
+            requestPayloadSize = adaptiveSizing.getPayloadSize();
+        }
+    }
+
+    /**
+     * Declare the length of a deferred-length upload whose content ended exactly after the last
+     * chunk, using a PATCH request without a body. The length only counts as declared if the server
+     * has received all bytes up to it.
+     *
+     * @throws IOException       the request failed
+     * @throws ProtocolException the server sent an unexpected response
+     */
+    private void declareLength() throws IOException, ProtocolException {
+        long length = offset;
+        Request.Builder requestBuilder = getPatchRequestBuilder()
+                .header("Upload-Length", Long.toString(length));
+        if (client.shouldExpectContinue(0)) {
+            requestBuilder.header("Expect", "100-continue");
+        }
+        Request request = requestBuilder
+                .patch(new ByteBufferRequestBody(ByteBuffer.allocate(0)))
+                .build();
+
+        requestStartOffset = offset;
+        Response response = client.getOrCreateOkHttpClient().newCall(request).execute();
+        try {
+            if (!finishConnection(response) || offset != length) {
+                return;
+            }
+        } finally {
+            response.close();
+        }
+
+        lengthDeclared = true;
+        upload.setSize(length);
+    }
+
+    /**
+     * Retrieve the upload's offset from the server using a HEAD request after a PATCH request has
+     * been rejected because of an offset conflict.
+     *
+     * @throws IOException       the request failed
+     * @throws ProtocolException the server sent an unexpected response
+     */
+    private void resynchronizeOffset() throws IOException, ProtocolException {
+        Request request = client.getOffsetRequestBuilder(uploadURL).build();
+        Response response = client.getOrCreateOkHttpClient().newCall(request).execute();
+        try {
+            offset = client.getUploadOffset(response);
+            client.roundTripCompleted(response);
+        } finally {
+            response.close();
+        }
+        offsetVerified = true;
+        client.recordOffset(upload, offset);
+    }
+
+    /**
+     * Create the upload again after the server has answered the first PATCH request of an upload
+     * resumed from a stored offset with {@code 404 Not Found} or {@code 410 Gone}. The stored URL
+     * is removed first, so it is not treated as a superseded upload.
+     *
+     * @throws IOException       the request failed
+     * @throws ProtocolException the server sent an unexpected response
+     */
+    private void recreateUpload() throws IOException, ProtocolException {
+        TusURLStore urlStore = client.getURLStore();
+        if (urlStore != null && upload.getFingerprint() != null) {
+            urlStore.remove(upload.getFingerprint());
+        }
+
+        TusUploader created = client.createUpload(upload);
+        uploadURL = created.getUploadURL();
+        offset = created.getOffset();
+        offsetVerified = true;
+    }
+
+    /**
+     * @return builder for a PATCH request at the current offset, without a body or
+     * {@code Expect} header
+     */
+    private Request.Builder getPatchRequestBuilder() {
         Request.Builder requestBuilder = client.getRequestBuilderWithHeaders()
                 .url(uploadURL);
         requestBuilder.header("Upload-Offset", Long.toString(offset));
         requestBuilder.header("Content-Type", "application/offset+octet-stream");
-        requestBuilder.header("Expect", "100-continue");
+        return requestBuilder;
+    }
 
+    /**
+     * Apply the rate limiters of the client and the upload to a body.
+     *
+     * @param body body to send
+     * @return the throttled body or the body itself if no limiter is set
+     */
+    private RequestBody throttle(RequestBody body) {
+        return ThrottledRequestBody.throttle(body, client.getRateLimiter(), upload.getRateLimiter());
+    }
 
-        int bytesToRead = Math.min(getChunkSize(), bytesRemainingForRequest);
-        int bytesRead = input.read(buffer, bytesToRead);
+    /**
+     * Read the next chunk at the current offset.
+     *
+     * @param bytesToRead Maximum number of bytes to read
+     * @return Body containing the chunk or {@code null} if the input is exhausted
+     * @throws IOException Thrown if an exception occurs while reading from the source
+     */
+    private RequestBody readChunk(int bytesToRead) throws IOException {
+        // Streaming and mapping derive the chunk's length from the upload's size, so they are not
+        // used before the length of a deferred-length upload is known.
+        boolean memoryMapped = upload.memoryMappingEnabled() && source instanceof TusFileSource && lengthDeclared;
 
-        if (bytesRead == -1) {
-            // No bytes were read since the input stream is empty
-            return -1;
+        // Checksums are computed from the chunk in memory, so the chunk cannot be streamed.
+        boolean streaming = streamingEnabled && checksumAlgorithm == null && lengthDeclared;
+
+        if (streaming || memoryMapped) {
+            // The body copies the bytes from the source while OkHttp writes the request, so its
+            // length must be known in advance.
+            int bytesToSend = (int) Math.min(bytesToRead, upload.getSize() - offset);
+            if (bytesToSend <= 0) {
+                return null;
+            }
+
+            if (memoryMapped) {
+                return new ByteBufferRequestBody(sliceMappedRegion(bytesToSend));
+            }
+            return new TusSourceRequestBody(source, offset, bytesToSend);
         }
 
-        requestBuilder.patch(RequestBody.create(MediaType.get("application/offset+octet-stream"), buffer));
+        if (prefetchingEnabled && lengthDeclared) {
+            if (prefetcher == null) {
+                prefetcher = new TusPrefetcher(source, client.getBufferPool(), prefetchDepth);
+            }
+            ByteBuffer chunk = prefetcher.read(offset, bytesToRead, chunkSize);
+            return chunk != null ? new ByteBufferRequestBody(chunk) : null;
+        }
 
-        Response response = okHttpClient.newCall(requestBuilder.build()).execute();
+        if (buffer == null) {
+            buffer = client.getBufferPool().acquire(chunkSize);
+        }
 
-        offset += bytesRead;
-        bytesRemainingForRequest -= bytesRead;
+        ByteBuffer chunk = buffer.duplicate();
+        ((Buffer) chunk).clear();
+        retainBufferedBytes(chunk);
+        ((Buffer) chunk).position(Math.min(chunk.position(), bytesToRead));
+        ((Buffer) chunk).limit(bytesToRead);
+        if (chunk.hasRemaining() && source.read(offset + chunk.position(), chunk) == -1 && chunk.position() == 0) {
+            return null;
+        }
 
-        if (bytesRemainingForRequest <= 0) {
-            finishConnection(response);
+        if (!lengthDeclared) {
+            // Fill the chunk, so that reaching the end of the source reveals that it is the last one.
+            // A chunk sent again after rewinding is not necessarily the last one.
+            sourceExhausted = false;
+            while (chunk.hasRemaining()) {
+                if (source.read(offset + chunk.position(), chunk) == -1) {
+                    sourceExhausted = true;
+                    break;
+                }
+            }
         }
 
-        requestInProgress = false;
-        return bytesRead;
+        ((Buffer) chunk).flip();
+        bufferedOffset = offset;
+        bufferedLength = chunk.limit();
+        return new ByteBufferRequestBody(chunk);
+    }
+
+    /**
+     * Stop reading ahead and return the chunks read ahead to the client's {@link TusBufferPool}.
+     */
+    private void closePrefetcher() {
+        if (prefetcher != null) {
+            prefetcher.close();
+            prefetcher = null;
+        }
+    }
+
+    /**
+     * Move the bytes at the current offset which are still held by the buffer from the previous
+     * chunk to its start, so bytes the server has not stored are retransmitted without reading
+     * them from the source again.
+     *
+     * @param chunk duplicate of the buffer, cleared; its position is advanced by the number of
+     *              retained bytes
+     */
+    private void retainBufferedBytes(ByteBuffer chunk) {
+        if (offset < bufferedOffset || offset >= bufferedOffset + bufferedLength) {
+            return;
+        }
+
+        ((Buffer) chunk).limit(bufferedLength);
+        ((Buffer) chunk).position((int) (offset - bufferedOffset));
+        chunk.compact();
+    }
+
+    /**
+     * Return the chunk buffer to the client's {@link TusBufferPool}.
+     */
+    private void releaseBuffer() {
+        if (buffer != null) {
+            client.getBufferPool().release(buffer);
+            buffer = null;
+            bufferedLength = 0;
+        }
     }
 
     /**
@@ -218,41 +918,169 @@ public class TusUploader {
      * @throws IOException Thrown if an exception occurs while cleaning up.
      */
     public void finish(boolean closeInputStream) throws IOException {
+        if (openRequest != null) {
+            // Pausing in the middle of a request. The server keeps the bytes it has received.
+            Response response = openRequest.cancel();
+            if (response != null) {
+                response.close();
+            }
+            openRequest = null;
+            requestInProgress = false;
+        }
+
         if (upload.getSize() == offset) {
             client.uploadFinished(upload);
         }
 
-        // Close the TusInputStream after checking the response and closing the connection to ensure
+        releaseBuffer();
+        closePrefetcher();
+
+        // Close the source after checking the response and closing the connection to ensure
         // that we will not need to read from it again in the future.
         if (closeInputStream) {
-            input.close();
+            if (source != null) {
+                source.close();
+            }
+
+            upload.closeInputStream();
+
+            // A mapping cannot be released explicitly, but dropping the reference allows the
+            // garbage collector to unmap it.
+            mappedRegion = null;
+        }
+    }
+
+    /**
+     * Returns the part of the upload's file starting at the current offset. The file is mapped
+     * into memory for the entire payload of the current request, but at most 2 GiB at a time, so
+     * that following chunks of the same request can reuse the mapping.
+     *
+     * @param length Number of bytes to return
+     * @return Read-only view of the mapped file
+     * @throws IOException Thrown if the file cannot be mapped
+     */
+    private ByteBuffer sliceMappedRegion(int length) throws IOException {
+        if (mappedRegion == null || offset < mappedRegionStart
+                || offset + length > mappedRegionStart + mappedRegion.capacity()) {
+            mappedRegion = ((TusFileSource) source).map(offset,
+                    getMappedRegionSize(length, requestPayloadSize, upload.getSize() - offset));
+            mappedRegionStart = offset;
         }
+
+        // Buffer's methods are used to stay binary compatible with Java 8, where ByteBuffer
+        // does not override them.
+        ByteBuffer slice = mappedRegion.duplicate();
+        int start = (int) (offset - mappedRegionStart);
+        ((Buffer) slice).limit(start + length);
+        ((Buffer) slice).position(start);
+        return slice.slice();
     }
 
     /**
+     * A single mapping cannot exceed {@link Integer#MAX_VALUE} bytes, so larger payloads are mapped
+     * in several regions as the offset moves forward.
+     *
+     * @param length      number of bytes needed at the offset
+     * @param payloadSize maximum payload size of the current request
+     * @param remaining   number of bytes from the offset to the end of the upload
+     * @return number of bytes to map at the offset
+     */
+    static long getMappedRegionSize(int length, long payloadSize, long remaining) {
+        return Math.max(length, Math.min(Integer.MAX_VALUE, Math.min(payloadSize, remaining)));
+    }
+
+    /**
+     * Check the server's response to a PATCH request. If the server's offset differs from the local
+     * one, the upload continues from the server's offset: bytes the server has not received are
+     * read again from the source or the buffer, bytes it already has are skipped.
+     * <br>
+     * In low-latency mode, an offset conflict before the server has confirmed the offset means that
+     * the upload has been resumed from an outdated stored offset. The offset is then retrieved from
+     * the server using a HEAD request and the caller sends the data again from there. Likewise, a
+     * {@code 404 Not Found} or {@code 410 Gone} response means that the stored upload has expired
+     * or been terminated, so it is created again, as it would be after the HEAD request.
+     *
      * @param response - server response for chunk uploading
+     * @return {@code false} if the offset has been retrieved from the server after an offset
+     * conflict or the upload has been created again, so the request's content must be sent again
      * @throws ProtocolException unexpected response code or invalid upload offset
+     * @throws IOException       the offset could not be retrieved or the upload could not be created
      */
-    private void finishConnection(Response response) throws ProtocolException {
+    private boolean finishConnection(Response response) throws ProtocolException, IOException {
 
         int responseCode = response.code();
 
         if (!(responseCode >= 200 && responseCode < 300)) {
-            throw new ProtocolException("unexpected status code (" + responseCode + ") while uploading chunk");
+            // The stored offset may be outdated, so the next resume asks the server. The bytes of
+            // the rejected request are not counted as uploaded.
+            client.recordOffset(upload, -1);
+            client.getRoundTripEstimator().bodyRejected();
+            offset = requestStartOffset;
+            requestInProgress = false;
+
+            if (client.lowLatencyModeEnabled() && !offsetVerified) {
+                if (responseCode == OFFSET_CONFLICT) {
+                    response.close();
+                    resynchronizeOffset();
+                    return false;
+                }
+                if (responseCode == NOT_FOUND || responseCode == GONE) {
+                    response.close();
+                    recreateUpload();
+                    return false;
+                }
+            }
+            throw new ProtocolException("unexpected status code (" + responseCode + ") while uploading chunk",
+                    response);
         }
 
-        // TODO detect changes and seek accordingly
         long serverOffset = getHeaderFieldLong(response, "Upload-Offset");
         if (serverOffset == -1) {
-            throw new ProtocolException("response to PATCH request contains no or invalid Upload-Offset header");
+            throw new ProtocolException("response to PATCH request contains no or invalid Upload-Offset header",
+                    response);
         }
         if (offset != serverOffset) {
-            throw new ProtocolException(
-                    String.format(
-                            "response contains different Upload-Offset value (%d) than expected (%d)",
-                            serverOffset, offset)
-            );
+            reconcileOffset(serverOffset, response);
+        } else {
+            offsetRetransmissions = 0;
         }
+
+        client.recordExpiration(upload, response);
+        client.recordOffset(upload, offset);
+        offsetVerified = true;
+        return true;
+    }
+
+    /**
+     * Continue the upload from the offset reported by the server. An offset behind the local one
+     * means that the server has not stored all bytes, e.g. because a proxy cut the request short or
+     * dropped its body, and they are read again from the source. An offset ahead of the local one,
+     * e.g. after resuming from an outdated offset, is only accepted within the upload's size. If
+     * requests repeatedly fail to advance the server's offset, the upload fails with a retryable
+     * exception instead of sending the same bytes forever.
+     *
+     * @param serverOffset the offset reported by the server
+     * @param response     the server's response
+     * @throws ProtocolException the server's offset is beyond the upload or has not advanced for
+     *                           {@link #MAX_OFFSET_RETRANSMISSIONS} requests
+     */
+    private void reconcileOffset(long serverOffset, Response response) throws ProtocolException {
+        String message = String.format("response contains different Upload-Offset value (%d) than expected (%d)",
+                serverOffset, offset);
+        boolean ahead = serverOffset > offset && (!lengthDeclared || serverOffset > upload.getSize());
+        if (ahead || serverOffset < 0) {
+            throw new ProtocolException(message, response);
+        }
+
+        if (serverOffset > requestStartOffset) {
+            offsetRetransmissions = 0;
+        } else if (++offsetRetransmissions > MAX_OFFSET_RETRANSMISSIONS) {
+            offsetRetransmissions = 0;
+            throw new ProtocolException(message + " after " + MAX_OFFSET_RETRANSMISSIONS + " retransmissions",
+                    response, true);
+        }
+
+        offset = serverOffset;
     }
 
     /**
@@ -272,4 +1100,43 @@ public class TusUploader {
             return -1;
         }
     }
+
+    /**
+     * Body which remembers when it has been written completely, so that the time until the
+     * server's acknowledgement can be measured.
+     */
+    private static class TimedRequestBody extends RequestBody {
+        private final RequestBody body;
+        private volatile long writtenAtNanos;
+
+        TimedRequestBody(RequestBody body) {
+            this.body = body;
+        }
+
+        long getWrittenAtNanos() {
+            return writtenAtNanos;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return body.contentLength();
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return body.isOneShot();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            body.writeTo(sink);
+            sink.flush();
+            writtenAtNanos = System.nanoTime();
+        }
+    }
 }
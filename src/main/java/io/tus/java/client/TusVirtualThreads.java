@@ -0,0 +1,69 @@
+package io.tus.java.client;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class provides executors running each task on a new virtual thread, which are available
+ * since Java 21. Since the library is compiled for Java 7 in order to support older Android
+ * platforms, the executor is looked up at runtime. On older runtimes, {@link #isSupported()}
+ * returns false and {@link #newExecutor()} fails.
+ * <br>
+ * A virtual thread blocked in {@link TusUploader#uploadChunk()} only occupies a small amount of
+ * heap memory, so the blocking API can be used for a large number of concurrent uploads:
+ * <pre>
+ * {@code
+ *  client.setUploadExecutor(TusVirtualThreads.newExecutor());
+ *  TusUploadManager manager = new TusUploadManager(client, 10000);
+ * }
+ * </pre>
+ */
+public final class TusVirtualThreads {
+    private static final Method NEW_EXECUTOR = findNewExecutorMethod();
+
+    private TusVirtualThreads() {
+    }
+
+    /**
+     * Check whether the runtime supports virtual threads.
+     *
+     * @return True if running on Java 21 or later
+     */
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * Create an executor which starts a new virtual thread for each task, as returned by
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}.
+     *
+     * @return A new executor
+     * @throws UnsupportedOperationException The runtime does not support virtual threads
+     */
+    public static ExecutorService newExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new UnsupportedOperationException("virtual threads require Java 21 or later");
+        }
+
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException e) {
+            throw new UnsupportedOperationException("virtual threads are not accessible", e);
+        } catch (InvocationTargetException e) {
+            throw new UnsupportedOperationException("virtual threads are not available", e.getCause());
+        }
+    }
+
+    /**
+     * @return the Java 21 factory method or {@code null} if it does not exist
+     */
+    private static Method findNewExecutorMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package io.tus.java.client;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+import okhttp3.RequestBody;
+import okio.Buffer;
+
+/**
+ * Compares the CPU time and throughput of the request bodies used by {@link TusUploader} when
+ * uploading a local file. The bodies are written into a buffer which discards all bytes, so only
+ * the cost of reading and copying the data is measured.
+ * <br>
+ * Run it using {@code ./gradlew benchmark}. The size of the file in MiB and the number of rounds
+ * can be passed as arguments, e.g. {@code ./gradlew benchmark --args="1024 5"}.
+ */
+public final class RequestBodyBenchmark {
+    private static final int CHUNK_SIZE = 2 * 1024 * 1024;
+
+    /**
+     * Run the benchmark.
+     * @param args Optional file size in MiB and number of rounds
+     * @throws IOException if the temporary file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int sizeInMiB = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        File file = File.createTempFile("tus-benchmark", ".bin");
+        file.deleteOnExit();
+        writeRandomFile(file, sizeInMiB);
+
+        Path[] paths = new Path[]{new BufferedPath(), new StreamingPath(), new FileChannelPath()};
+        for (int round = 0; round < rounds; round++) {
+            for (Path path : paths) {
+                path.measure(file);
+            }
+        }
+
+        if (!file.delete()) {
+            System.err.println("Unable to delete " + file);
+        }
+    }
+
+    private RequestBodyBenchmark() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    private static void writeRandomFile(File file, int sizeInMiB) throws IOException {
+        byte[] block = new byte[1024 * 1024];
+        new Random(42).nextBytes(block);
+        FileOutputStream output = new FileOutputStream(file);
+        try {
+            for (int i = 0; i < sizeInMiB; i++) {
+                output.write(block);
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * A way of turning a file into request bodies.
+     */
+    private abstract static class Path {
+        private final String name;
+
+        Path(String name) {
+            this.name = name;
+        }
+
+        void measure(File file) throws IOException {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long size = file.length();
+            Buffer sink = new Buffer();
+
+            long startCpu = threads.getCurrentThreadCpuTime();
+            long startTime = System.nanoTime();
+            open(file);
+            try {
+                for (long offset = 0; offset < size; offset += CHUNK_SIZE) {
+                    int length = (int) Math.min(CHUNK_SIZE, size - offset);
+                    body(offset, length).writeTo(sink);
+                    sink.skip(sink.size());
+                }
+            } finally {
+                close();
+            }
+            long elapsed = System.nanoTime() - startTime;
+            long cpu = threads.getCurrentThreadCpuTime() - startCpu;
+
+            double gib = (double) size / (1024 * 1024 * 1024);
+            System.out.printf("%-12s %8.1f MiB/s %8.1f ms CPU per GiB%n",
+                    name, size / (1024.0 * 1024.0) / (elapsed / 1e9), cpu / 1e6 / gib);
+        }
+
+        abstract void open(File file) throws IOException;
+
+        abstract RequestBody body(long offset, int length) throws IOException;
+
+        abstract void close() throws IOException;
+    }
+
+    /**
+     * The default path: read each chunk into a buffer and send the buffer.
+     */
+    private static class BufferedPath extends Path {
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private FileInputStream input;
+
+        BufferedPath() {
+            super("buffered");
+        }
+
+        @Override
+        void open(File file) throws IOException {
+            input = new FileInputStream(file);
+        }
+
+        @Override
+        RequestBody body(long offset, int length) throws IOException {
+            int read = 0;
+            while (read < length) {
+                int bytesRead = input.read(buffer, read, length - read);
+                if (bytesRead == -1) {
+                    throw new EOFException("file ended after " + (offset + read) + " bytes");
+                }
+                read += bytesRead;
+            }
+            return RequestBody.create(TusUploader.CONTENT_TYPE, buffer, 0, length);
+        }
+
+        @Override
+        void close() throws IOException {
+            input.close();
+        }
+    }
+
+    /**
+     * The streaming path for input streams using a {@link TusInputStreamSource}.
+     */
+    private static class StreamingPath extends Path {
+        private TusSource source;
+
+        StreamingPath() {
+            super("streaming");
+        }
+
+        @Override
+        void open(File file) throws IOException {
+            source = new TusInputStreamSource(new FileInputStream(file));
+        }
+
+        @Override
+        RequestBody body(long offset, int length) {
+            return new TusSourceRequestBody(source, offset, length);
+        }
+
+        @Override
+        void close() throws IOException {
+            source.close();
+        }
+    }
+
+    /**
+     * The streaming path for files using a {@link TusFileSource}.
+     */
+    private static class FileChannelPath extends Path {
+        private TusSource source;
+
+        FileChannelPath() {
+            super("filechannel");
+        }
+
+        @Override
+        void open(File file) {
+            source = new TusFileSource(file);
+        }
+
+        @Override
+        RequestBody body(long offset, int length) {
+            return new TusSourceRequestBody(source, offset, length);
+        }
+
+        @Override
+        void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.tus.java.client;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link ProtocolException}.
+ */
+public class TestProtocolException {
+
+    /**
+     * Tests if an exception caused by a response can be serialized and still tells whether it should
+     * be retried afterwards.
+     * @throws Exception
+     */
+    @Test
+    public void testSerialization() throws Exception {
+        Response response = new Response.Builder()
+                .request(new Request.Builder().url("http://localhost/files/foo").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(503)
+                .message("Service Unavailable")
+                .build();
+
+        ProtocolException copy = serializeAndDeserialize(new ProtocolException("unavailable", response));
+        assertEquals("unavailable", copy.getMessage());
+        assertNull(copy.getCausingResponse());
+        assertNull(copy.getCausingConnection());
+        assertEquals(503, copy.getResponseCode());
+        assertTrue(copy.shouldRetry());
+
+        copy = serializeAndDeserialize(new ProtocolException("missing header"));
+        assertEquals(-1, copy.getResponseCode());
+        assertFalse(copy.shouldRetry());
+    }
+
+    private static ProtocolException serializeAndDeserialize(ProtocolException e) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(e);
+        output.close();
+
+        ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        try {
+            return (ProtocolException) input.readObject();
+        } finally {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link TusAdaptiveSizing}.
+ */
+public class TestTusAdaptiveSizing {
+    private static final long MILLIS = 1000 * 1000;
+
+    /**
+     * Tests if the size grows while the throughput increases and settles once the gains flatten out.
+     */
+    @Test
+    public void testGrowUntilThroughputFlattens() {
+        TusAdaptiveSizing sizing = new TusAdaptiveSizing(1024, 64 * 1024 * 1024, 64L * 1024 * 1024);
+        assertEquals(1024 * 1024, sizing.getPayloadSize());
+
+        // 1 MiB in 100ms, 2 MiB in 100ms, 4 MiB in 190ms
+        sizing.requestCompleted(1024 * 1024, 100 * MILLIS, 20 * MILLIS);
+        assertEquals(2 * 1024 * 1024, sizing.getPayloadSize());
+        sizing.requestCompleted(2 * 1024 * 1024, 100 * MILLIS, 20 * MILLIS);
+        assertEquals(4 * 1024 * 1024, sizing.getPayloadSize());
+        sizing.requestCompleted(4 * 1024 * 1024, 190 * MILLIS, 20 * MILLIS);
+
+        assertEquals(2 * 1024 * 1024, sizing.getPayloadSize());
+        assertEquals(2 * 1024 * 1024, sizing.getChunkSize());
+        assertEquals(20 * MILLIS, sizing.getRoundTripTime());
+
+        // Stable sizes are kept until growing is attempted again.
+        for (int i = 0; i < 15; i++) {
+            sizing.requestCompleted(2 * 1024 * 1024, 100 * MILLIS, 20 * MILLIS);
+            assertEquals(2 * 1024 * 1024, sizing.getPayloadSize());
+        }
+        sizing.requestCompleted(2 * 1024 * 1024, 100 * MILLIS, 20 * MILLIS);
+        assertEquals(4 * 1024 * 1024, sizing.getPayloadSize());
+    }
+
+    /**
+     * Tests if failures and slow acknowledgements halve the size without leaving the bounds.
+     */
+    @Test
+    public void testShrinkAfterFailuresAndSlowAcks() {
+        TusAdaptiveSizing sizing = new TusAdaptiveSizing(256 * 1024, 512 * 1024, 8L * 1024 * 1024);
+
+        sizing.requestCompleted(1024 * 1024, 100 * MILLIS, 20 * MILLIS);
+        assertEquals(2 * 1024 * 1024, sizing.getPayloadSize());
+        assertEquals(512 * 1024, sizing.getChunkSize());
+
+        sizing.requestCompleted(2 * 1024 * 1024, 200 * MILLIS, 500 * MILLIS);
+        assertEquals(1024 * 1024, sizing.getPayloadSize());
+
+        sizing.requestFailed();
+        sizing.requestFailed();
+        sizing.requestFailed();
+        assertEquals(256 * 1024, sizing.getPayloadSize());
+    }
+
+    /**
+     * Tests if the size stops growing once the requests do not get larger anymore.
+     */
+    @Test
+    public void testStopGrowingAtLimit() {
+        TusAdaptiveSizing sizing = new TusAdaptiveSizing(1024, 1024 * 1024, 2L * 1024 * 1024);
+
+        sizing.requestCompleted(1024 * 1024, 100 * MILLIS, 20 * MILLIS);
+        assertEquals(2 * 1024 * 1024, sizing.getPayloadSize());
+        sizing.requestCompleted(1024 * 1024, 100 * MILLIS, 20 * MILLIS);
+        assertEquals(2 * 1024 * 1024, sizing.getPayloadSize());
+        assertEquals(1024 * 1024, sizing.getChunkSize());
+    }
+
+    /**
+     * Tests if uploaders use the controller configured for their client.
+     * @throws IOException
+     */
+    @Test
+    public void testUploaderUsesClientController() throws IOException {
+        TusClient client = new TusClient();
+        TusAdaptiveSizing sizing = new TusAdaptiveSizing();
+        client.setAdaptiveSizing(sizing);
+
+        TusUpload upload = new TusUpload();
+        upload.setInputStream(new ByteArrayInputStream(new byte[10]));
+        TusUploader uploader = new TusUploader(client, upload, new URL("http://dummy-url/foo"),
+                upload.getSource(), 0);
+        assertSame(sizing, uploader.getAdaptiveSizing());
+
+        uploader.setAdaptiveSizing(null);
+        assertNull(uploader.getAdaptiveSizing());
+    }
+}
@@ -0,0 +1,122 @@
+package io.tus.java.client;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link TusBackoffRetryPolicy}.
+ */
+public class TestTusBackoffRetryPolicy {
+
+    /**
+     * Tests if the delays stay between the base delay and the maximum delay and grow at most by a
+     * factor of three.
+     */
+    @Test
+    public void testDecorrelatedJitter() {
+        TusBackoffRetryPolicy policy = new TusBackoffRetryPolicy(new Random(42));
+        policy.setBaseDelay(100);
+        policy.setMaxDelay(1000);
+        policy.setBudget(TusBackoffRetryPolicy.ErrorClass.NETWORK, 20);
+
+        TusRetryPolicy.Attempts attempts = policy.start();
+        long previous = 100;
+        for (int i = 0; i < 20; i++) {
+            long delay = attempts.nextDelay(new IOException());
+            assertTrue(delay >= 100);
+            assertTrue(delay <= 1000);
+            assertTrue(delay <= previous * 3);
+            previous = delay;
+        }
+        assertEquals(-1, attempts.nextDelay(new IOException()));
+
+        // A new execution starts with a full budget.
+        assertTrue(policy.start().nextDelay(new IOException()) >= 0);
+    }
+
+    /**
+     * Tests if failures are classified by the response carried by the {@link ProtocolException}.
+     */
+    @Test
+    public void testClassify() {
+        TusBackoffRetryPolicy policy = new TusBackoffRetryPolicy();
+
+        assertEquals(TusBackoffRetryPolicy.ErrorClass.NETWORK, policy.classify(new SocketTimeoutException()));
+        assertEquals(TusBackoffRetryPolicy.ErrorClass.SERVER_ERROR, policy.classify(newException(500, null)));
+        assertEquals(TusBackoffRetryPolicy.ErrorClass.SERVER_ERROR, policy.classify(newException(423, null)));
+        assertEquals(TusBackoffRetryPolicy.ErrorClass.THROTTLED, policy.classify(newException(429, null)));
+        assertEquals(TusBackoffRetryPolicy.ErrorClass.THROTTLED, policy.classify(newException(503, null)));
+        assertEquals(TusBackoffRetryPolicy.ErrorClass.NOT_RETRYABLE, policy.classify(newException(404, null)));
+        assertEquals(TusBackoffRetryPolicy.ErrorClass.NOT_RETRYABLE,
+                policy.classify(new ProtocolException("missing header")));
+    }
+
+    /**
+     * Tests if each error class uses up its own budget.
+     */
+    @Test
+    public void testBudgets() {
+        TusBackoffRetryPolicy policy = new TusBackoffRetryPolicy();
+        policy.setBudget(TusBackoffRetryPolicy.ErrorClass.NETWORK, 1);
+        policy.setBudget(TusBackoffRetryPolicy.ErrorClass.SERVER_ERROR, 1);
+        assertEquals(8, policy.getBudget(TusBackoffRetryPolicy.ErrorClass.THROTTLED));
+
+        TusRetryPolicy.Attempts attempts = policy.start();
+        assertTrue(attempts.nextDelay(new IOException()) >= 0);
+        assertTrue(attempts.nextDelay(newException(500, null)) >= 0);
+        assertEquals(-1, attempts.nextDelay(new IOException()));
+        assertEquals(-1, attempts.nextDelay(newException(502, null)));
+        assertEquals(-1, attempts.nextDelay(newException(404, null)));
+    }
+
+    /**
+     * Tests if the Retry-After header of throttling responses is honored.
+     */
+    @Test
+    public void testRetryAfter() {
+        TusBackoffRetryPolicy policy = new TusBackoffRetryPolicy();
+        policy.setMaxDelay(10000);
+
+        TusRetryPolicy.Attempts attempts = policy.start();
+        assertTrue(attempts.nextDelay(newException(429, "5")) >= 5000);
+        assertTrue(attempts.nextDelay(newException(503, "5")) >= 5000);
+        // The server asks to wait longer than the maximum delay.
+        assertEquals(-1, attempts.nextDelay(newException(503, "60")));
+
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        long now = System.currentTimeMillis();
+        String date = format.format(new Date(now + 8000));
+        long retryAfter = TusBackoffRetryPolicy.getRetryAfter(newException(429, date), now);
+        assertTrue(retryAfter > 6000 && retryAfter <= 8000);
+
+        assertEquals(-1, TusBackoffRetryPolicy.getRetryAfter(newException(429, "soon"), now));
+        assertEquals(-1, TusBackoffRetryPolicy.getRetryAfter(new IOException(), now));
+    }
+
+    private static ProtocolException newException(int code, String retryAfter) {
+        Response.Builder builder = new Response.Builder()
+                .request(new Request.Builder().url("http://localhost/files/foo").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("status " + code);
+        if (retryAfter != null) {
+            builder.header("Retry-After", retryAfter);
+        }
+        return new ProtocolException("unexpected status code (" + code + ")", builder.build());
+    }
+}
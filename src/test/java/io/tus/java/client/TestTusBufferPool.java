@@ -0,0 +1,110 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link TusBufferPool}.
+ */
+public class TestTusBufferPool {
+
+    /**
+     * Tests if buffers are rounded up to their size class and reused after being released.
+     */
+    @Test
+    public void testAcquireAndRelease() {
+        TusBufferPool pool = new TusBufferPool();
+        assertFalse(pool.isDirect());
+        assertEquals(16 * 1024 * 1024, pool.getMaxPooledBytes());
+
+        ByteBuffer buffer = pool.acquire(3 * 1024 * 1024);
+        assertEquals(4 * 1024 * 1024, buffer.capacity());
+        assertEquals(3 * 1024 * 1024, buffer.limit());
+        assertEquals(0, buffer.position());
+        assertEquals(0, pool.getPooledBytes());
+
+        pool.release(buffer);
+        assertEquals(4 * 1024 * 1024, pool.getPooledBytes());
+
+        ByteBuffer reused = pool.acquire(4 * 1024 * 1024);
+        assertSame(buffer, reused);
+        assertEquals(4 * 1024 * 1024, reused.limit());
+        assertEquals(0, pool.getPooledBytes());
+
+        ByteBuffer small = pool.acquire(5);
+        assertEquals(4096, small.capacity());
+        assertEquals(5, small.limit());
+    }
+
+    /**
+     * Tests if the pool does not keep more idle buffers than allowed.
+     */
+    @Test
+    public void testMaxPooledBytes() {
+        TusBufferPool pool = new TusBufferPool(8192, false);
+
+        ByteBuffer first = pool.acquire(4096);
+        ByteBuffer second = pool.acquire(4096);
+        ByteBuffer third = pool.acquire(4096);
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+        assertEquals(8192, pool.getPooledBytes());
+
+        // Buffers not obtained from a size class are never pooled.
+        pool.release(ByteBuffer.allocate(5000));
+        assertEquals(8192, pool.getPooledBytes());
+    }
+
+    /**
+     * Tests if direct buffers are handed out and heap buffers are not mixed in.
+     */
+    @Test
+    public void testDirect() {
+        TusBufferPool pool = new TusBufferPool(1024 * 1024, true);
+        assertTrue(pool.isDirect());
+
+        ByteBuffer buffer = pool.acquire(10000);
+        assertTrue(buffer.isDirect());
+
+        pool.release(ByteBuffer.allocate(16384));
+        assertEquals(0, pool.getPooledBytes());
+
+        pool.release(buffer);
+        assertEquals(16384, pool.getPooledBytes());
+        assertNotSame(buffer, pool.acquire(100));
+        assertSame(buffer, pool.acquire(16384));
+    }
+
+    /**
+     * Tests if {@link TusInputStream} can read into direct buffers.
+     * @throws IOException
+     */
+    @Test
+    public void testReadIntoDirectBuffer() throws IOException {
+        byte[] content = new byte[20000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        TusInputStream input = new TusInputStream(new ByteArrayInputStream(content));
+        ByteBuffer buffer = new TusBufferPool(0, true).acquire(15000);
+
+        assertEquals(15000, input.read(buffer));
+        assertEquals(15000, buffer.position());
+        assertEquals(content[14999], buffer.get(14999));
+
+        buffer.clear();
+        assertEquals(5000, input.read(buffer));
+        assertEquals(content[19999], buffer.get(4999));
+        assertEquals(-1, input.read(buffer));
+    }
+}
@@ -0,0 +1,68 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link TusChecksumAlgorithm}.
+ */
+public class TestTusChecksumAlgorithm {
+
+    /**
+     * Tests if the header values match known digests of heap and direct buffers.
+     */
+    @Test
+    public void testHeaderValue() {
+        byte[] content = "hello world".getBytes();
+        ByteBuffer direct = ByteBuffer.allocateDirect(content.length);
+        direct.put(content);
+        ((Buffer) direct).flip();
+
+        String[] expected = new String[]{
+            "sha1 Kq5sNclPz7QV2+lfQIuc6R7oRu0=",
+            "md5 XrY7u+Ae7tCTyyK7j1rNww==",
+            "crc32 DUoRhQ==",
+            "crc32c yZRlqg==",
+        };
+        TusChecksumAlgorithm[] algorithms = TusChecksumAlgorithm.values();
+        for (int i = 0; i < algorithms.length; i++) {
+            assertEquals(expected[i], algorithms[i].headerValue(ByteBuffer.wrap(content)));
+            assertEquals(expected[i], algorithms[i].headerValue(direct));
+            assertEquals(0, direct.position());
+        }
+    }
+
+    /**
+     * Tests if only the bytes between position and limit are digested.
+     */
+    @Test
+    public void testSlice() {
+        ByteBuffer buffer = ByteBuffer.wrap("__hello world__".getBytes());
+        ((Buffer) buffer).position(2);
+        ((Buffer) buffer).limit(13);
+        assertEquals("crc32c yZRlqg==", TusChecksumAlgorithm.CRC32C.headerValue(buffer.slice()));
+        assertEquals("crc32 DUoRhQ==", TusChecksumAlgorithm.CRC32.headerValue(buffer));
+    }
+
+    /**
+     * Tests the CRC-32C implementation using the check value of the standard.
+     */
+    @Test
+    public void testCrc32c() {
+        TusCrc32c crc = new TusCrc32c();
+        byte[] check = "123456789".getBytes();
+        crc.update(check, 0, 4);
+        for (int i = 4; i < check.length; i++) {
+            crc.update(check[i]);
+        }
+        assertEquals(0xE3069283L, crc.getValue());
+
+        crc.reset();
+        crc.update(check, 0, check.length);
+        assertEquals(0xE3069283L, crc.getValue());
+    }
+}
@@ -2,7 +2,10 @@ package io.tus.java.client;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
@@ -10,13 +13,22 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
+import org.mockserver.matchers.Times;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
+import org.mockserver.verify.VerificationTimes;
 
 /**
  * Class to test the tus-Client.
@@ -70,6 +82,21 @@ public class TestTusClient extends MockServerProvider {
         assertEquals(client.resumingEnabled(), false);
     }
 
+    /**
+     * Tests if a default buffer pool is created and can be replaced.
+     */
+    @Test
+    public void testBufferPool() {
+        TusClient client = new TusClient();
+        TusBufferPool defaultPool = client.getBufferPool();
+        assertNotNull(defaultPool);
+        assertSame(defaultPool, client.getBufferPool());
+
+        TusBufferPool pool = new TusBufferPool(1024, true);
+        client.setBufferPool(pool);
+        assertSame(pool, client.getBufferPool());
+    }
+
     /**
      * Verifies if uploads can be created with the tus client.
      * @throws IOException if upload data cannot be read.
@@ -103,6 +130,305 @@ public class TestTusClient extends MockServerProvider {
         assertEquals(uploader.getUploadURL(), new URL(mockServerURL + "/foo"));
     }
 
+    /**
+     * Tests if the first chunk is sent in the POST request if creation with upload is enabled.
+     * @throws IOException if upload data cannot be read.
+     * @throws ProtocolException if the upload cannot be constructed.
+     */
+    @Test
+    public void testCreateUploadWithUpload() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Length", "11")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody("hello".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/foo")
+                        .withHeader("Upload-Offset", "5"));
+
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/foo")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "5")
+                .withBody(" world".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        assertFalse(client.creationWithUploadEnabled());
+        client.enableCreationWithUpload();
+        assertTrue(client.creationWithUploadEnabled());
+        client.setCreationWithUploadSize(5);
+
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("hello world".getBytes()));
+        TusUploader uploader = client.createUpload(upload);
+
+        assertEquals(new URL(mockServerURL + "/foo"), uploader.getUploadURL());
+        assertEquals(5, uploader.getOffset());
+        assertEquals(6, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        uploader.finish();
+    }
+
+    /**
+     * Tests if the rest of the first chunk is sent again from a stream if the server accepts only a
+     * part of the POST request's body.
+     * @throws IOException if upload data cannot be read.
+     * @throws ProtocolException if the upload cannot be constructed.
+     */
+    @Test
+    public void testCreateUploadWithUploadShortOffset() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Upload-Length", "11")
+                .withBody("hello wo".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/foo")
+                        .withHeader("Upload-Offset", "3"));
+
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/foo")
+                .withHeader("Upload-Offset", "3")
+                .withBody("lo world".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        client.enableCreationWithUpload();
+        client.setCreationWithUploadSize(8);
+
+        TusUpload upload = new TusUpload();
+        upload.setSize(11);
+        upload.setInputStream(new ByteArrayInputStream("hello world".getBytes()));
+        TusUploader uploader = client.createUpload(upload);
+
+        assertEquals(3, uploader.getOffset());
+        assertEquals(8, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        uploader.finish();
+    }
+
+    /**
+     * Tests if an upload whose length is deferred is created using the Upload-Defer-Length header.
+     * @throws IOException if upload data cannot be read.
+     * @throws ProtocolException if the upload cannot be constructed.
+     */
+    @Test
+    public void testCreateUploadWithDeferredLength() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Defer-Length", "1"))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/foo"));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        client.enableCreationWithUpload();
+
+        TusUpload upload = new TusUpload();
+        upload.setInputStream(new ByteArrayInputStream("hello world".getBytes()));
+        upload.enableDeferredLength();
+        TusUploader uploader = client.createUpload(upload);
+
+        assertEquals(new URL(mockServerURL + "/foo"), uploader.getUploadURL());
+        assertEquals(0, uploader.getOffset());
+    }
+
+    /**
+     * Tests if an upload is terminated using a DELETE request and if unexpected responses are reported.
+     * @throws IOException if the request fails.
+     * @throws ProtocolException if the upload cannot be terminated.
+     */
+    @Test
+    public void testTerminate() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withMethod("DELETE")
+                .withPath("/files/foo")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION));
+        mockServer.when(new HttpRequest()
+                .withMethod("DELETE")
+                .withPath("/files/locked"))
+                .respond(new HttpResponse()
+                        .withStatusCode(423));
+
+        TusClient client = new TusClient();
+        client.terminate(new URL(mockServerURL + "/foo"));
+
+        boolean exceptionThrown = false;
+        try {
+            client.terminate(new URL(mockServerURL + "/locked"));
+        } catch (ProtocolException e) {
+            exceptionThrown = true;
+        }
+        assertTrue(exceptionThrown);
+    }
+
+    /**
+     * Tests if the expiration sent when creating an upload is stored and if an expired upload is
+     * created again without asking the server for its offset.
+     * @throws IOException if upload data cannot be read.
+     * @throws ProtocolException if the upload cannot be constructed.
+     */
+    @Test
+    public void testResumeOrCreateUploadExpired() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Length", "10"))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/foo")
+                        .withHeader("Upload-Expires", "Wed, 25 Jun 2014 16:00:00 GMT"));
+
+        TusURLMemoryStore store = new TusURLMemoryStore();
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        client.enableResuming(store);
+
+        TusUpload upload = new TusUpload();
+        upload.setSize(10);
+        upload.setInputStream(new ByteArrayInputStream(new byte[10]));
+        upload.setFingerprint("expiring");
+
+        client.createUpload(upload);
+        assertEquals(1403712000000L, store.getExpiration("expiring"));
+
+        TusUploader uploader = client.resumeOrCreateUpload(upload);
+        assertEquals(new URL(mockServerURL + "/foo"), uploader.getUploadURL());
+        mockServer.verify(new HttpRequest().withMethod("HEAD"), VerificationTimes.exactly(0));
+        mockServer.verify(new HttpRequest().withMethod("POST"), VerificationTimes.exactly(2));
+
+        assertEquals(1, client.removeExpiredUploads());
+        assertNull(store.get("expiring"));
+    }
+
+    /**
+     * Tests if the server's capabilities are discovered, cached and used to reject uploads which
+     * are too large.
+     * @throws IOException if upload data cannot be read.
+     * @throws ProtocolException if the capabilities cannot be discovered.
+     */
+    @Test
+    public void testCapabilityDiscovery() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withMethod("OPTIONS")
+                .withPath("/files")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Tus-Version", "1.0.0")
+                        .withHeader("Tus-Extension", "creation,termination")
+                        .withHeader("Tus-Max-Size", "5"));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        client.enableCapabilityDiscovery();
+
+        TusServerCapabilities capabilities = client.getServerCapabilities();
+        assertEquals(Arrays.asList("1.0.0"), capabilities.getVersions());
+        assertTrue(capabilities.supportsExtension("termination"));
+        assertFalse(capabilities.supportsExtension("creation-with-upload"));
+        assertEquals(5, capabilities.getMaxSize());
+        assertSame(capabilities, client.getServerCapabilities());
+        assertSame(capabilities, client.getCapabilitiesStore().get(mockServerURL));
+
+        TusUpload upload = new TusUpload();
+        upload.setSize(10);
+        upload.setInputStream(new ByteArrayInputStream(new byte[10]));
+        try {
+            client.createUpload(upload);
+            throw new AssertionError("expected ProtocolException");
+        } catch (ProtocolException e) {
+            assertFalse(e.shouldRetry());
+        }
+
+        client.setCapabilitiesTTL(0);
+        assertNotSame(capabilities, client.getServerCapabilities());
+    }
+
+    /**
+     * Tests if retrieving the server's capabilities without an upload creation URL is rejected.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testServerCapabilitiesWithoutCreationURL() throws IOException, ProtocolException {
+        new TusClient().getServerCapabilities();
+    }
+
+    /**
+     * Tests if a failed discovery of the server's capabilities is remembered, so the following uploads are created
+     * without another OPTIONS request.
+     * @throws IOException if upload data cannot be read.
+     * @throws ProtocolException if the upload cannot be created.
+     */
+    @Test
+    public void testCapabilityDiscoveryFailure() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withMethod("OPTIONS")
+                .withPath("/files"))
+                .respond(new HttpResponse()
+                        .withStatusCode(405));
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Upload-Length", "10"))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/foo"));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        client.enableCapabilityDiscovery();
+
+        for (int i = 0; i < 2; i++) {
+            TusUpload upload = new TusUpload();
+            upload.setSize(10);
+            upload.setInputStream(new ByteArrayInputStream(new byte[10]));
+            client.createUpload(upload);
+        }
+
+        mockServer.verify(new HttpRequest()
+                .withMethod("OPTIONS")
+                .withPath("/files"), VerificationTimes.once());
+
+        client.setCapabilitiesFailureTTL(0);
+        TusUpload upload = new TusUpload();
+        upload.setSize(10);
+        upload.setInputStream(new ByteArrayInputStream(new byte[10]));
+        client.createUpload(upload);
+        mockServer.verify(new HttpRequest()
+                .withMethod("OPTIONS")
+                .withPath("/files"), VerificationTimes.exactly(2));
+    }
+
     /**
      * Tests if a missing location header causes an exception as expected.
      * @throws Exception if unreachable code has been reached.
@@ -207,6 +533,117 @@ public class TestTusClient extends MockServerProvider {
         assertEquals(uploader.getOffset(), 3);
     }
 
+    /**
+     * Tests if low-latency mode resumes from the stored offset without a HEAD request and
+     * retrieves the offset only after the server has reported a conflict.
+     * @throws IOException if upload data cannot be read.
+     * @throws ProtocolException if the upload cannot be resumed.
+     */
+    @Test
+    public void testResumeUploadLowLatency() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/foo")
+                .withHeader("Upload-Offset", "3"))
+                .respond(new HttpResponse()
+                        .withStatusCode(409)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION));
+        mockServer.when(new HttpRequest()
+                .withMethod("HEAD")
+                .withPath("/files/foo"))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "5"));
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/foo")
+                .withHeader("Upload-Offset", "5")
+                .withBody("world".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "10"));
+
+        TusURLMemoryStore store = new TusURLMemoryStore();
+        store.set("low-latency", new URL(mockServerURL + "/foo"));
+        store.setOffset("low-latency", 3);
+
+        TusClient client = new TusClient();
+        client.enableResuming(store);
+        assertFalse(client.lowLatencyModeEnabled());
+        client.enableLowLatencyMode();
+        assertTrue(client.lowLatencyModeEnabled());
+
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("helloworld".getBytes()));
+        upload.setFingerprint("low-latency");
+
+        TusUploader uploader = client.resumeOrCreateUpload(upload);
+        assertEquals(3, uploader.getOffset());
+        mockServer.verify(new HttpRequest().withMethod("HEAD"), VerificationTimes.exactly(0));
+
+        assertEquals(5, uploader.uploadChunk());
+        assertEquals(10, uploader.getOffset());
+        assertEquals(10, store.getOffset("low-latency"));
+        mockServer.verify(new HttpRequest().withMethod("HEAD"), VerificationTimes.exactly(1));
+    }
+
+    /**
+     * Tests if low-latency mode creates the upload again if the first PATCH request reveals that the stored upload
+     * does not exist anymore.
+     * @throws IOException if upload data cannot be read.
+     * @throws ProtocolException if the upload cannot be resumed.
+     */
+    @Test
+    public void testResumeUploadLowLatencyExpired() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/expired"))
+                .respond(new HttpResponse()
+                        .withStatusCode(410)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION));
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Upload-Length", "10"))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/recreated"));
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/recreated")
+                .withHeader("Upload-Offset", "0")
+                .withBody("helloworld".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "10"));
+
+        TusURLMemoryStore store = new TusURLMemoryStore();
+        store.set("expired", new URL(mockServerURL + "/expired"));
+        store.setOffset("expired", 3);
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        client.enableResuming(store);
+        client.enableLowLatencyMode();
+
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("helloworld".getBytes()));
+        upload.setFingerprint("expired");
+
+        TusUploader uploader = client.resumeOrCreateUpload(upload);
+        assertEquals(3, uploader.getOffset());
+
+        assertEquals(10, uploader.uploadChunk());
+        assertEquals(10, uploader.getOffset());
+        assertEquals(new URL(mockServerURL + "/recreated"), uploader.getUploadURL());
+        assertEquals(new URL(mockServerURL + "/recreated"), store.get("expired"));
+        mockServer.verify(new HttpRequest().withMethod("HEAD"), VerificationTimes.exactly(0));
+    }
+
     /**
      * Test Implementation for a {@link TusURLStore}.
      */
@@ -481,4 +918,362 @@ public class TestTusClient extends MockServerProvider {
         assertTrue(store.get("fingerprint") == null);
 
     }
+
+    /**
+     * Tests if {@link TusClient#uploadInParallel(TusUpload, int)} uploads the ranges as partial uploads, concatenates
+     * them and stores the final upload's URL instead of the partial ones.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test
+    public void testUploadInParallel() throws IOException, ProtocolException {
+        byte[] content = "hello world".getBytes();
+        mockParallelUpload(content);
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        TusURLStore store = new TusURLMemoryStore();
+        client.enableResuming(store);
+
+        Map<String, String> metadata = new LinkedHashMap<String, String>();
+        metadata.put("foo", "hello");
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource(content));
+        upload.setFingerprint("fingerprint");
+        upload.setMetadata(metadata);
+
+        URL uploadURL = client.uploadInParallel(upload, 2);
+
+        assertEquals(new URL(mockServerURL + "/final"), uploadURL);
+        assertEquals(uploadURL, store.get("fingerprint"));
+        assertNull(store.get("fingerprint-partial-0-5"));
+        assertNull(store.get("fingerprint-partial-5-11"));
+    }
+
+    /**
+     * Tests if {@link TusClient#uploadInParallel(TusUpload, int)} completes when it is called from the only thread
+     * of the client's upload executor, whose queue the partial uploads would otherwise wait in forever.
+     * @throws Exception
+     */
+    @Test(timeout = 30000)
+    public void testUploadInParallelFromUploadExecutor() throws Exception {
+        byte[] content = "hello world".getBytes();
+        mockParallelUpload(content);
+
+        final TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        client.setUploadExecutor(executor);
+
+        Map<String, String> metadata = new LinkedHashMap<String, String>();
+        metadata.put("foo", "hello");
+        final TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource(content));
+        upload.setMetadata(metadata);
+
+        try {
+            URL uploadURL = executor.submit(new Callable<URL>() {
+                @Override
+                public URL call() throws Exception {
+                    return client.uploadInParallel(upload, 2);
+                }
+            }).get();
+            assertEquals(new URL(mockServerURL + "/final"), uploadURL);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests if {@link TusClient#uploadInParallel(TusUpload, int)} rejects uploads without a fingerprint if resuming
+     * is enabled, since their partial uploads could not be told apart from those of other uploads.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUploadInParallelRequiresFingerprint() throws IOException, ProtocolException {
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        client.enableResuming(new TusURLMemoryStore());
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource(new byte[10]));
+
+        client.uploadInParallel(upload, 2);
+    }
+
+    /**
+     * Expect the requests of uploading the content in two partial uploads and concatenating them.
+     * @param content content of the upload
+     */
+    private void mockParallelUpload(byte[] content) {
+        String[] ranges = new String[]{"0-5", "5-11"};
+        for (int i = 0; i < ranges.length; i++) {
+            String[] range = ranges[i].split("-");
+            int start = Integer.parseInt(range[0]);
+            int end = Integer.parseInt(range[1]);
+
+            mockServer.when(new HttpRequest()
+                    .withMethod("POST")
+                    .withPath("/files")
+                    .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                    .withHeader("Upload-Concat", "partial")
+                    .withHeader("Upload-Length", Integer.toString(end - start)))
+                    .respond(new HttpResponse()
+                            .withStatusCode(201)
+                            .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                            .withHeader("Location", mockServerURL + "/part" + i));
+
+            mockServer.when(new HttpRequest()
+                    .withMethod("PATCH")
+                    .withPath("/files/part" + i)
+                    .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                    .withHeader("Upload-Offset", "0")
+                    .withBody(Arrays.copyOfRange(content, start, end)))
+                    .respond(new HttpResponse()
+                            .withStatusCode(204)
+                            .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                            .withHeader("Upload-Offset", Integer.toString(end - start)));
+        }
+
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Metadata", "foo aGVsbG8=")
+                .withHeader("Upload-Concat", "final;" + mockServerURL + "/part0 " + mockServerURL + "/part1"))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/final"));
+    }
+
+    /**
+     * Tests if the upload executor can be set and if virtual threads are only offered if supported.
+     */
+    @Test
+    public void testUploadExecutor() {
+        TusClient client = new TusClient();
+        assertNull(client.getUploadExecutor());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        client.setUploadExecutor(executor);
+        assertSame(executor, client.getUploadExecutor());
+        client.setUploadExecutor(null);
+        assertNull(client.getUploadExecutor());
+        executor.shutdown();
+
+        if (TusVirtualThreads.isSupported()) {
+            ExecutorService virtualThreads = TusVirtualThreads.newExecutor();
+            assertNotNull(virtualThreads);
+            virtualThreads.shutdown();
+        } else {
+            try {
+                TusVirtualThreads.newExecutor();
+                throw new AssertionError("expected UnsupportedOperationException");
+            } catch (UnsupportedOperationException e) {
+                // Expected on runtimes before Java 21.
+            }
+        }
+    }
+
+    /**
+     * Tests if {@link TusClient#uploadInParallel(TusUpload, int)} rejects sources which cannot be read concurrently.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUploadInParallelRequiresRandomAccess() throws IOException, ProtocolException {
+        TusClient client = new TusClient();
+        TusUpload upload = new TusUpload();
+        upload.setSize(10);
+        upload.setInputStream(new ByteArrayInputStream(new byte[10]));
+
+        client.uploadInParallel(upload, 2);
+    }
+
+    /**
+     * Tests if {@link TusClient#uploadAsync(TusUpload, TusUploadCallback)} creates the upload, sends its content
+     * and notifies the callback.
+     * @throws Exception
+     */
+    @Test
+    public void testUploadAsync() throws Exception {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Length", "11"))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/async"));
+
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/async")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "0")
+                .withBody("hello world".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        TusURLStore store = new TusURLMemoryStore();
+        client.enableResuming(store);
+        client.disableRemoveFingerprintOnSuccess();
+
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("hello world".getBytes()));
+        upload.setFingerprint("fingerprint");
+
+        final long[] progress = new long[1];
+        final URL[] succeeded = new URL[1];
+        TusAsyncUpload asyncUpload = client.uploadAsync(upload, new TusUploadCallback() {
+            @Override
+            public void onProgress(TusUpload upload, long bytesUploaded, long bytesTotal) {
+                progress[0] = bytesUploaded;
+            }
+
+            @Override
+            public void onSuccess(TusUpload upload, URL uploadURL) {
+                succeeded[0] = uploadURL;
+            }
+
+            @Override
+            public void onFailure(TusUpload upload, Exception e) {
+            }
+        });
+
+        URL uploadURL = asyncUpload.get(10, TimeUnit.SECONDS);
+        assertEquals(new URL(mockServerURL + "/async"), uploadURL);
+        assertEquals(uploadURL, store.get("fingerprint"));
+        assertTrue(asyncUpload.isDone());
+        assertFalse(asyncUpload.isCancelled());
+        assertEquals(11, asyncUpload.getOffset());
+        assertEquals(11, progress[0]);
+        assertEquals(uploadURL, succeeded[0]);
+    }
+
+    /**
+     * Tests if {@link TusClient#uploadAsync(TusUpload, TusUploadCallback)} sends the checksum of the content and
+     * retransmits it after a checksum mismatch.
+     * @throws Exception
+     */
+    @Test
+    public void testUploadAsyncChecksum() throws Exception {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files"))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/async-checksum"));
+
+        HttpRequest patch = new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/async-checksum")
+                .withHeader("Upload-Offset", "0")
+                .withHeader("Upload-Checksum",
+                        TusChecksumAlgorithm.SHA1.headerValue(ByteBuffer.wrap("hello world".getBytes())))
+                .withBody("hello world".getBytes());
+        mockServer.when(patch, Times.once())
+                .respond(new HttpResponse()
+                        .withStatusCode(460)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION));
+        mockServer.when(patch)
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        client.setChecksumAlgorithm(TusChecksumAlgorithm.SHA1);
+
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("hello world".getBytes()));
+
+        TusAsyncUpload asyncUpload = client.uploadAsync(upload, null);
+        assertEquals(new URL(mockServerURL + "/async-checksum"), asyncUpload.get(10, TimeUnit.SECONDS));
+        mockServer.verify(patch, VerificationTimes.exactly(2));
+    }
+
+    /**
+     * Tests if a failed request completes the future returned by
+     * {@link TusClient#uploadAsync(TusUpload, TusUploadCallback)} exceptionally.
+     * @throws Exception
+     */
+    @Test
+    public void testUploadAsyncFailure() throws Exception {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files"))
+                .respond(new HttpResponse()
+                        .withStatusCode(500)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource(new byte[10]));
+
+        TusAsyncUpload asyncUpload = client.uploadAsync(upload, null);
+        try {
+            asyncUpload.get(10, TimeUnit.SECONDS);
+            throw new AssertionError("expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ProtocolException);
+        }
+        assertTrue(asyncUpload.isDone());
+        assertFalse(asyncUpload.cancel(true));
+    }
+
+    /**
+     * Tests if failing to close the source completes the future returned by
+     * {@link TusClient#uploadAsync(TusUpload, TusUploadCallback)} exceptionally.
+     * @throws Exception
+     */
+    @Test
+    public void testUploadAsyncCloseFailure() throws Exception {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files"))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/async"));
+
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/async"))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+
+        TusUpload upload = new TusUpload();
+        upload.setInputStream(new ByteArrayInputStream("hello world".getBytes()) {
+            @Override
+            public void close() throws IOException {
+                throw new IOException("close failed");
+            }
+        });
+        upload.setSize(11);
+
+        TusAsyncUpload asyncUpload = client.uploadAsync(upload, null);
+        try {
+            asyncUpload.get(10, TimeUnit.SECONDS);
+            throw new AssertionError("expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertEquals("close failed", e.getCause().getMessage());
+        }
+        assertTrue(asyncUpload.isDone());
+    }
 }
@@ -6,10 +6,18 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -143,6 +151,147 @@ public class TestTusExecutor {
         }
     }
 
+    /**
+     * Tests if a {@link TusRetryPolicy} replaces the delays.
+     * @throws Exception
+     */
+    @Test(expected = ProtocolException.class)
+    public void testRetryPolicy() throws Exception {
+        CountingExecutor exec = new CountingExecutor() {
+            @Override
+            protected void makeAttempt() throws ProtocolException, IOException {
+                super.makeAttempt();
+                if (getCalls() < 3) {
+                    throw new IOException();
+                }
+                throw new ProtocolException("something happened", new MockHttpURLConnection(503));
+            }
+        };
+
+        TusBackoffRetryPolicy policy = new TusBackoffRetryPolicy();
+        policy.setBaseDelay(1);
+        policy.setMaxDelay(2);
+        policy.setBudget(TusBackoffRetryPolicy.ErrorClass.NETWORK, 2);
+        policy.setBudget(TusBackoffRetryPolicy.ErrorClass.THROTTLED, 1);
+        exec.setDelays(new int[0]);
+        exec.setRetryPolicy(policy);
+        try {
+            exec.makeAttempts();
+        } finally {
+            assertEquals(exec.getCalls(), 4);
+        }
+    }
+
+    /**
+     * Tests if {@link TusExecutor#makeAttemptsAsync(ScheduledExecutorService)} retries failed
+     * attempts on the scheduler.
+     * @throws Exception
+     */
+    @Test
+    public void testMakeAttemptsAsync() throws Exception {
+        CountingExecutor exec = new CountingExecutor() {
+            @Override
+            protected void makeAttempt() throws ProtocolException, IOException {
+                super.makeAttempt();
+                if (getCalls() < 3) {
+                    throw new IOException();
+                }
+            }
+        };
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            exec.setDelays(new int[]{1, 2, 3});
+            Future<Void> future = exec.makeAttemptsAsync(scheduler);
+            assertNull(future.get(5, TimeUnit.SECONDS));
+            assertEquals(exec.getCalls(), 3);
+
+            exec = new CountingExecutor() {
+                @Override
+                protected void makeAttempt() throws ProtocolException, IOException {
+                    super.makeAttempt();
+                    throw new ProtocolException("something happened", new MockHttpURLConnection(404));
+                }
+            };
+            future = exec.makeAttemptsAsync(scheduler);
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                throw new AssertionError("expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ProtocolException);
+            }
+            assertEquals(exec.getCalls(), 1);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests if an error thrown by an attempt completes the future returned by
+     * {@link TusExecutor#makeAttemptsAsync(ScheduledExecutorService)}.
+     * @throws Exception
+     */
+    @Test
+    public void testMakeAttemptsAsyncError() throws Exception {
+        CountingExecutor exec = new CountingExecutor() {
+            @Override
+            protected void makeAttempt() throws ProtocolException, IOException {
+                super.makeAttempt();
+                throw new StackOverflowError();
+            }
+        };
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Future<Void> future = exec.makeAttemptsAsync(scheduler);
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                throw new AssertionError("expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof StackOverflowError);
+            }
+            assertEquals(exec.getCalls(), 1);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests if cancelling stops an execution which waits for its next attempt.
+     * @throws Exception
+     */
+    @Test
+    public void testCancelAsync() throws Exception {
+        final CountDownLatch failed = new CountDownLatch(1);
+        CountingExecutor exec = new CountingExecutor() {
+            @Override
+            protected void makeAttempt() throws ProtocolException, IOException {
+                super.makeAttempt();
+                failed.countDown();
+                throw new IOException();
+            }
+        };
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            exec.setDelays(new int[]{100000});
+            Future<Void> future = exec.makeAttemptsAsync(scheduler);
+            assertTrue(failed.await(5, TimeUnit.SECONDS));
+            assertTrue(future.cancel(false));
+            assertTrue(future.isDone());
+            assertTrue(future.isCancelled());
+            try {
+                future.get();
+                throw new AssertionError("expected CancellationException");
+            } catch (CancellationException e) {
+                // expected
+            }
+            assertEquals(exec.getCalls(), 1);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
     /**
      * A mocked HttpURLConnection which always returns the specified response code.
      */
@@ -0,0 +1,178 @@
+package io.tus.java.client;
+
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link TusHostBackpressure}.
+ */
+public class TestTusHostBackpressure {
+    private static final String HOST = "tus.example.com:443";
+
+    /**
+     * Tests if an overload signal halves the number of running requests and if successful requests
+     * raise the limit again until the host is not limited anymore.
+     * @throws Exception
+     */
+    @Test
+    public void testAdditiveIncreaseMultiplicativeDecrease() throws Exception {
+        TusHostBackpressure backpressure = new TusHostBackpressure(new TusClient());
+        assertEquals(Integer.MAX_VALUE, backpressure.getLimit(HOST));
+
+        long[] starts = new long[8];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = backpressure.acquire(HOST);
+        }
+        backpressure.release(HOST, true, starts[0], newResponse(503, "0"));
+        assertEquals(4, backpressure.getLimit(HOST));
+
+        // Responses to requests started before the decrease do not decrease the limit again.
+        backpressure.release(HOST, true, starts[1], newResponse(429, "0"));
+        assertEquals(4, backpressure.getLimit(HOST));
+
+        for (int i = 2; i < starts.length; i++) {
+            backpressure.release(HOST, true, starts[i], newResponse(204, null));
+        }
+        assertTrue(backpressure.getLimit(HOST) >= 5);
+
+        while (backpressure.getLimit(HOST) != Integer.MAX_VALUE) {
+            backpressure.release(HOST, true, backpressure.acquire(HOST), newResponse(204, null));
+        }
+
+        // A signal caused by a request started after the decrease decreases the limit again.
+        long start = backpressure.acquire(HOST);
+        backpressure.release(HOST, true, start, newResponse(503, "0"));
+        assertEquals(1, backpressure.getLimit(HOST));
+    }
+
+    /**
+     * Tests if an overload signal pauses the host for the time requested by the server.
+     * @throws Exception
+     */
+    @Test
+    public void testPause() throws Exception {
+        TusHostBackpressure backpressure = new TusHostBackpressure(new TusClient());
+
+        backpressure.release(HOST, false, System.nanoTime(), newResponse(429, "30"));
+        long pause = backpressure.getRemainingPause(HOST);
+        assertTrue(pause > 29000 && pause <= 30000);
+        assertEquals(0, backpressure.getRemainingPause("other.example.com:443"));
+
+        backpressure.release(HOST, false, System.nanoTime(), newResponse(503, "3600"));
+        assertTrue(backpressure.getRemainingPause(HOST) <= TusHostBackpressure.MAX_PAUSE);
+
+        TusHostBackpressure other = new TusHostBackpressure(new TusClient());
+        other.release(HOST, false, System.nanoTime(), newResponse(503, null));
+        assertTrue(other.getRemainingPause(HOST) <= TusHostBackpressure.DEFAULT_PAUSE);
+        assertTrue(other.getRemainingPause(HOST) > 0);
+
+        long start = System.nanoTime();
+        other.release(HOST, false, start, newResponse(503, "1"));
+        other.release(HOST, true, other.acquire(HOST), newResponse(204, null));
+        assertTrue(System.nanoTime() - start >= 900 * 1000 * 1000L);
+    }
+
+    /**
+     * Tests if asynchronous requests are not started while their host is paused or at its limit, but
+     * are retried once the pause is over or a running request has completed.
+     * @throws Exception
+     */
+    @Test
+    public void testTryAcquire() throws Exception {
+        TusClient client = new TusClient();
+        client.enableBackpressure();
+        TusHostBackpressure backpressure = new TusHostBackpressure(client);
+        Request request = new Request.Builder()
+                .url("https://tus.example.com/files/")
+                .post(RequestBody.create(null, new byte[0]))
+                .build();
+        final Semaphore retries = new Semaphore(0);
+        Runnable retry = new Runnable() {
+            @Override
+            public void run() {
+                retries.release();
+            }
+        };
+
+        // Requests which are not delayed are started without a permit.
+        Request head = new Request.Builder().url("https://tus.example.com/files/").head().build();
+        assertSame(head, backpressure.tryAcquire(head, retry));
+
+        Request first = backpressure.tryAcquire(request, retry);
+        assertNotNull(first);
+        backpressure.release(HOST, false, System.nanoTime(), newResponse(503, "1"));
+        assertEquals(1, backpressure.getLimit(HOST));
+
+        long start = System.nanoTime();
+        assertNull(backpressure.tryAcquire(request, retry));
+        assertTrue(retries.tryAcquire(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= 900 * 1000 * 1000L);
+
+        // The first request is still running, so the limit has been reached.
+        assertNull(backpressure.tryAcquire(request, retry));
+        assertFalse(retries.tryAcquire(100, TimeUnit.MILLISECONDS));
+        backpressure.abandon(first);
+        assertTrue(retries.tryAcquire(5, TimeUnit.SECONDS));
+        assertNotNull(backpressure.tryAcquire(request, retry));
+    }
+
+    /**
+     * Tests if a thread blocked at the host's limit is woken up once a request to the host has completed.
+     * @throws Exception
+     */
+    @Test
+    public void testBlockingAcquire() throws Exception {
+        final TusHostBackpressure backpressure = new TusHostBackpressure(new TusClient());
+        long first = backpressure.acquire(HOST);
+        backpressure.release(HOST, true, backpressure.acquire(HOST), newResponse(503, "0"));
+        assertEquals(1, backpressure.getLimit(HOST));
+
+        final Semaphore acquired = new Semaphore(0);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    backpressure.acquire(HOST);
+                    acquired.release();
+                } catch (InterruptedIOException e) {
+                    // The test fails since the semaphore is not released.
+                }
+            }
+        });
+        thread.start();
+
+        assertFalse(acquired.tryAcquire(100, TimeUnit.MILLISECONDS));
+        backpressure.release("other.example.com:443", true, System.nanoTime(), newResponse(204, null));
+        assertFalse(acquired.tryAcquire(100, TimeUnit.MILLISECONDS));
+        backpressure.release(HOST, true, first, newResponse(204, null));
+        assertTrue(acquired.tryAcquire(5, TimeUnit.SECONDS));
+        thread.join();
+    }
+
+    private static Response newResponse(int code, String retryAfter) {
+        Response.Builder builder = new Response.Builder()
+                .request(new Request.Builder().url("https://tus.example.com/files/").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("status " + code);
+        if (retryAfter != null) {
+            builder.header("Retry-After", retryAfter);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,94 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link TusPrefetcher}.
+ */
+public class TestTusPrefetcher {
+    private final byte[] content = "hello world, hello tus".getBytes();
+
+    /**
+     * Tests if chunks are returned in order, possibly split into smaller parts, until the source ends.
+     * @throws IOException
+     */
+    @Test
+    public void testSequentialReads() throws IOException {
+        TusPrefetcher prefetcher = new TusPrefetcher(new TusInputStreamSource(new ByteArrayInputStream(content)),
+                new TusBufferPool(), 2);
+
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 8), toArray(prefetcher.read(0, 8, 8)));
+        assertArrayEquals(Arrays.copyOfRange(content, 8, 11), toArray(prefetcher.read(8, 3, 8)));
+        assertArrayEquals(Arrays.copyOfRange(content, 11, 16), toArray(prefetcher.read(11, 8, 8)));
+        assertArrayEquals(Arrays.copyOfRange(content, 16, 22), toArray(prefetcher.read(16, 8, 8)));
+        assertNull(prefetcher.read(22, 8, 8));
+        prefetcher.close();
+    }
+
+    /**
+     * Tests if reading at an earlier or later position discards the chunks read ahead.
+     * @throws IOException
+     */
+    @Test
+    public void testJumps() throws IOException {
+        TusPrefetcher prefetcher = new TusPrefetcher(new TusByteBufferSource(content), new TusBufferPool(), 3);
+
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 4), toArray(prefetcher.read(0, 4, 4)));
+        assertArrayEquals(Arrays.copyOfRange(content, 4, 8), toArray(prefetcher.read(4, 4, 4)));
+        assertArrayEquals(Arrays.copyOfRange(content, 2, 6), toArray(prefetcher.read(2, 4, 4)));
+        assertArrayEquals(Arrays.copyOfRange(content, 17, 21), toArray(prefetcher.read(17, 4, 4)));
+        assertArrayEquals(Arrays.copyOfRange(content, 21, 22), toArray(prefetcher.read(21, 4, 4)));
+        prefetcher.close();
+    }
+
+    /**
+     * Tests if jumping waits for the read running in the background and returns its buffer to the
+     * pool, even if the source cannot be interrupted.
+     * @throws Exception
+     */
+    @Test
+    public void testJumpDuringRead() throws Exception {
+        final CountDownLatch readStarted = new CountDownLatch(1);
+        TusSource source = new TusByteBufferSource(content) {
+            @Override
+            public int read(long position, ByteBuffer dst) {
+                if (position == 4) {
+                    readStarted.countDown();
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+                    while (System.nanoTime() < deadline) {
+                        // Ignore interrupts like a blocking stream would.
+                        Thread.interrupted();
+                    }
+                }
+                return super.read(position, dst);
+            }
+        };
+        TusBufferPool pool = new TusBufferPool();
+        TusPrefetcher prefetcher = new TusPrefetcher(source, pool, 2);
+
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 4), toArray(prefetcher.read(0, 4, 4)));
+        readStarted.await();
+        assertArrayEquals(Arrays.copyOfRange(content, 16, 20), toArray(prefetcher.read(16, 4, 4)));
+        prefetcher.close();
+
+        // Both buffers, including the one of the discarded read at 4, are back in the pool.
+        assertEquals(2 * 4096, pool.getPooledBytes());
+    }
+
+    private byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
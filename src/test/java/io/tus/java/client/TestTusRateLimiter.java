@@ -0,0 +1,79 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import okhttp3.RequestBody;
+
+/**
+ * Test class for {@link TusRateLimiter}.
+ */
+public class TestTusRateLimiter {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Tests if bytes within the burst size are not delayed and further bytes are delayed according
+     * to the rate.
+     */
+    @Test
+    public void testReserve() {
+        TusRateLimiter limiter = new TusRateLimiter(1000, 100);
+        long now = System.nanoTime() + SECOND;
+
+        // The bucket is full, so the burst can be written immediately.
+        assertTrue(limiter.reserve(100, now) <= 0);
+        // The bucket is empty, the next 100 bytes need a tenth of a second.
+        assertEquals(SECOND / 10, limiter.reserve(100, now));
+        assertEquals(SECOND / 5, limiter.reserve(100, now));
+
+        // After waiting, the bucket has been refilled.
+        now += SECOND;
+        assertTrue(limiter.reserve(100, now) <= 0);
+    }
+
+    /**
+     * Tests if the rate can be changed at runtime and if a rate of zero disables the limit.
+     */
+    @Test
+    public void testSetBytesPerSecond() {
+        TusRateLimiter limiter = new TusRateLimiter(1000, 100);
+        long now = System.nanoTime() + SECOND;
+        limiter.reserve(100, now);
+
+        limiter.setBytesPerSecond(2000);
+        assertEquals(2000, limiter.getBytesPerSecond());
+        long delay = limiter.reserve(100, now);
+        assertEquals(SECOND / 20, limiter.reserve(100, now) - delay);
+
+        limiter.setBytesPerSecond(0);
+        assertEquals(0, limiter.reserve(1000000, now));
+    }
+
+    /**
+     * Tests if the default burst size is a tenth of the rate, but at least 16 KiB.
+     */
+    @Test
+    public void testDefaultBurstBytes() {
+        assertEquals(1024 * 1024, new TusRateLimiter(10 * 1024 * 1024).getBurstBytes());
+        assertEquals(16 * 1024, new TusRateLimiter(1024).getBurstBytes());
+    }
+
+    /**
+     * Tests if bodies are only wrapped if a limiter is set.
+     */
+    @Test
+    public void testThrottle() {
+        RequestBody body = new ByteBufferRequestBody(ByteBuffer.allocate(10));
+        TusRateLimiter limiter = new TusRateLimiter(1000);
+
+        assertSame(body, ThrottledRequestBody.throttle(body, null, null));
+        assertTrue(ThrottledRequestBody.throttle(body, limiter, null) instanceof ThrottledRequestBody);
+        assertTrue(ThrottledRequestBody.throttle(body, null, limiter) instanceof ThrottledRequestBody);
+    }
+}
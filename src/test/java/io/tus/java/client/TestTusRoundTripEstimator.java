@@ -0,0 +1,56 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link TusRoundTripEstimator}.
+ */
+public class TestTusRoundTripEstimator {
+
+    /**
+     * Tests if only bodies of unknown size or above the default threshold wait for
+     * {@code 100 Continue} before anything has been measured.
+     */
+    @Test
+    public void testUnmeasured() {
+        TusRoundTripEstimator estimator = new TusRoundTripEstimator();
+        assertFalse(estimator.shouldExpectContinue(1024));
+        assertTrue(estimator.shouldExpectContinue(TusRoundTripEstimator.DEFAULT_EXPECT_THRESHOLD));
+        assertTrue(estimator.shouldExpectContinue(-1));
+    }
+
+    /**
+     * Tests if bodies wait for {@code 100 Continue} only if their transfer takes longer than a few
+     * round trips.
+     */
+    @Test
+    public void testMeasured() {
+        TusRoundTripEstimator estimator = new TusRoundTripEstimator();
+        // 200 ms round trips and 1 MB/s, so a round trip is worth 200 KB.
+        estimator.roundTripCompleted(TimeUnit.MILLISECONDS.toNanos(200));
+        estimator.transferCompleted(1000 * 1000, TimeUnit.SECONDS.toNanos(1));
+
+        assertFalse(estimator.shouldExpectContinue(10 * 1000));
+        assertFalse(estimator.shouldExpectContinue(700 * 1000));
+        assertTrue(estimator.shouldExpectContinue(900 * 1000));
+    }
+
+    /**
+     * Tests if the following requests wait for {@code 100 Continue} after a body has been rejected.
+     */
+    @Test
+    public void testBodyRejected() {
+        TusRoundTripEstimator estimator = new TusRoundTripEstimator();
+        estimator.bodyRejected();
+
+        for (int i = 0; i < TusRoundTripEstimator.REJECTION_PENALTY; i++) {
+            assertTrue(estimator.shouldExpectContinue(1));
+        }
+        assertFalse(estimator.shouldExpectContinue(1));
+    }
+}
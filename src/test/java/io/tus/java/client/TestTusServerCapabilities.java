@@ -0,0 +1,83 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link TusServerCapabilities} and {@link TusCapabilitiesMemoryStore}.
+ */
+public class TestTusServerCapabilities {
+
+    /**
+     * Tests if capabilities survive encoding and decoding.
+     */
+    @Test
+    public void testEncodeDecode() {
+        TusServerCapabilities capabilities = new TusServerCapabilities(
+                Arrays.asList("1.0.0", "0.2.2"),
+                new LinkedHashSet<String>(Arrays.asList("creation", "concatenation")),
+                1024,
+                Arrays.asList("sha1", "md5"),
+                1234567890L);
+
+        TusServerCapabilities decoded = TusServerCapabilities.decode(capabilities.encode());
+        assertEquals(Arrays.asList("1.0.0", "0.2.2"), decoded.getVersions());
+        assertTrue(decoded.supportsExtension("creation"));
+        assertTrue(decoded.supportsExtension("concatenation"));
+        assertFalse(decoded.supportsExtension("termination"));
+        assertEquals(1024, decoded.getMaxSize());
+        assertTrue(decoded.supportsChecksumAlgorithm("SHA1"));
+        assertFalse(decoded.supportsChecksumAlgorithm("crc32"));
+        assertEquals(1234567890L, decoded.getDiscoveredAt());
+    }
+
+    /**
+     * Tests if an unlimited size and empty lists are encoded.
+     */
+    @Test
+    public void testEncodeDecodeEmpty() {
+        TusServerCapabilities capabilities = new TusServerCapabilities(
+                Collections.<String>emptyList(), Collections.<String>emptySet(), -1,
+                Collections.<String>emptyList(), 0);
+
+        TusServerCapabilities decoded = TusServerCapabilities.decode(capabilities.encode());
+        assertEquals(-1, decoded.getMaxSize());
+        assertTrue(decoded.getVersions().isEmpty());
+        assertTrue(decoded.getExtensions().isEmpty());
+        assertTrue(decoded.getChecksumAlgorithms().isEmpty());
+    }
+
+    /**
+     * Tests if a string without discovery time is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeInvalid() {
+        TusServerCapabilities.decode("Tus-Version: 1.0.0\n");
+    }
+
+    /**
+     * Tests if the memory store keeps entries per URL.
+     * @throws Exception
+     */
+    @Test
+    public void testMemoryStore() throws Exception {
+        TusCapabilitiesStore store = new TusCapabilitiesMemoryStore();
+        URL url = new URL("https://tusd.tusdemo.net/files/");
+        TusServerCapabilities capabilities = TusServerCapabilities.decode("Discovered-At: 1\n");
+
+        store.set(url, capabilities);
+        assertSame(capabilities, store.get(new URL("https://tusd.tusdemo.net/files/")));
+        store.remove(url);
+        assertNull(store.get(url));
+    }
+}
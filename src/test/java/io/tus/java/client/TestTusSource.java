@@ -0,0 +1,187 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import okio.Buffer;
+
+/**
+ * Test class for the {@link TusSource} implementations.
+ */
+public class TestTusSource {
+    private final byte[] content = "hello world".getBytes();
+
+    /**
+     * Tests if {@link TusFileSource} reads at arbitrary positions and can be used again after closing it.
+     * @throws IOException
+     */
+    @Test
+    public void testFileSource() throws IOException {
+        File file = createTempFile();
+        TusFileSource source = new TusFileSource(file);
+        assertEquals(11, source.getSize());
+
+        assertRandomAccess(source);
+        source.close();
+        assertRandomAccess(source);
+        source.close();
+    }
+
+    /**
+     * Tests if {@link TusChannelSource} reads at arbitrary positions.
+     * @throws IOException
+     */
+    @Test
+    public void testChannelSource() throws IOException {
+        File file = createTempFile();
+        TusChannelSource source = new TusChannelSource(Files.newByteChannel(file.toPath()));
+        assertEquals(11, source.getSize());
+
+        assertRandomAccess(source);
+        source.close();
+    }
+
+    /**
+     * Tests if {@link TusByteBufferSource} reads at arbitrary positions and respects the buffer's position.
+     * @throws IOException
+     */
+    @Test
+    public void testByteBufferSource() throws IOException {
+        TusByteBufferSource source = new TusByteBufferSource(content);
+        assertEquals(11, source.getSize());
+        assertRandomAccess(source);
+
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        buffer.position(6);
+        source = new TusByteBufferSource(buffer);
+        buffer.position(0);
+        assertEquals(5, source.getSize());
+        assertArrayEquals("world".getBytes(), read(source, 0, 5));
+    }
+
+    /**
+     * Tests if {@link TusInputStreamSource} skips forward and rewinds to the position passed to
+     * {@link TusSource#discardBefore(long)}.
+     * @throws IOException
+     */
+    @Test
+    public void testInputStreamSource() throws IOException {
+        TusInputStreamSource source = new TusInputStreamSource(new ByteArrayInputStream(content));
+        assertEquals(-1, source.getSize());
+
+        source.discardBefore(2);
+        assertArrayEquals(Arrays.copyOfRange(content, 6, 9), read(source, 6, 3));
+        assertArrayEquals(Arrays.copyOfRange(content, 2, 6), read(source, 2, 4));
+
+        Buffer sink = new Buffer();
+        assertEquals(5, source.transferTo(3, 5, sink));
+        assertArrayEquals(Arrays.copyOfRange(content, 3, 8), sink.readByteArray());
+
+        source.discardBefore(8);
+        try {
+            read(source, 7, 1);
+            fail("expected reading before the mark to fail");
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertEquals(3, source.transferTo(8, 10, sink));
+        assertArrayEquals(Arrays.copyOfRange(content, 8, 11), sink.readByteArray());
+        assertEquals(-1, source.read(11, ByteBuffer.allocate(1)));
+        source.close();
+    }
+
+    /**
+     * Tests if {@link TusInputStreamSource} rewinds streams which do not support marks.
+     * @throws IOException
+     */
+    @Test
+    public void testInputStreamSourceWithoutMarkSupport() throws IOException {
+        InputStream stream = new ByteArrayInputStream(content) {
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        };
+        TusInputStreamSource source = new TusInputStreamSource(stream, 16);
+
+        source.discardBefore(4);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(7, source.transferTo(4, 7, Channels.newChannel(output)));
+        assertArrayEquals(Arrays.copyOfRange(content, 4, 11), output.toByteArray());
+        assertArrayEquals(Arrays.copyOfRange(content, 5, 7), read(source, 5, 2));
+    }
+
+    /**
+     * Tests if {@link TusSourceRegion} limits reads to its region and translates positions.
+     * @throws IOException
+     */
+    @Test
+    public void testSourceRegion() throws IOException {
+        TusSourceRegion region = new TusSourceRegion(new TusByteBufferSource(content), 2, 5);
+        assertEquals(5, region.getSize());
+
+        assertArrayEquals(Arrays.copyOfRange(content, 3, 7), read(region, 1, 10));
+        assertEquals(-1, region.read(5, ByteBuffer.allocate(1)));
+
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        assertEquals(5, region.read(0, buffer));
+        assertEquals(8, buffer.limit());
+
+        Buffer sink = new Buffer();
+        assertEquals(3, region.transferTo(2, 10, sink));
+        assertArrayEquals(Arrays.copyOfRange(content, 4, 7), sink.readByteArray());
+    }
+
+    private void assertRandomAccess(TusSource source) throws IOException {
+        assertArrayEquals(Arrays.copyOfRange(content, 6, 11), read(source, 6, 5));
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 5), read(source, 0, 5));
+        assertEquals(-1, source.read(11, ByteBuffer.allocate(4)));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(4);
+        direct.position(1);
+        assertEquals(3, source.read(8, direct));
+        assertEquals(4, direct.position());
+        assertEquals('r', direct.get(1));
+
+        Buffer sink = new Buffer();
+        assertEquals(4, source.transferTo(7, 10, sink));
+        assertArrayEquals(Arrays.copyOfRange(content, 7, 11), sink.readByteArray());
+    }
+
+    private byte[] read(TusSource source, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (source.read(position + buffer.position(), buffer) == -1) {
+                break;
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private File createTempFile() throws IOException {
+        File file = File.createTempFile("tus-test", ".bin");
+        file.deleteOnExit();
+        FileOutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content);
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+}
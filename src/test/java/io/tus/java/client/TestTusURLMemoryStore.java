@@ -2,10 +2,13 @@ package io.tus.java.client;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Test class for {@link TusURLMemoryStore}.
@@ -29,4 +32,79 @@ public class TestTusURLMemoryStore {
 
         assertEquals(store.get(fingerprint), null);
     }
+
+    /**
+     * Tests if abandoned uploads are kept in order and can be removed.
+     * @throws MalformedURLException
+     */
+    @Test
+    public void testAbandoned() throws MalformedURLException {
+        TusURLCleanupStore store = new TusURLMemoryStore();
+        URL first = new URL("https://tusd.tusdemo.net/files/first");
+        URL second = new URL("https://tusd.tusdemo.net/files/second");
+        store.addAbandoned(first);
+        store.addAbandoned(second);
+        store.addAbandoned(first);
+
+        assertEquals(Arrays.asList(first, second), store.getAbandoned());
+
+        store.removeAbandoned(first);
+        store.removeAbandoned(second);
+
+        assertEquals(Collections.<URL>emptyList(), store.getAbandoned());
+    }
+
+    /**
+     * Tests if expirations are stored with their entries and expired entries are removed.
+     * @throws MalformedURLException
+     */
+    @Test
+    public void testExpiration() throws MalformedURLException {
+        TusURLExpirationStore store = new TusURLMemoryStore();
+        URL url = new URL("https://tusd.tusdemo.net/files/hello");
+        long now = System.currentTimeMillis();
+
+        store.setExpiration("missing", now);
+        assertEquals(-1, store.getExpiration("missing"));
+
+        store.set("expired", url);
+        store.setExpiration("expired", now - 1000);
+        store.set("valid", url);
+        store.setExpiration("valid", now + 60000);
+        store.set("unknown", url);
+        assertEquals(now + 60000, store.getExpiration("valid"));
+        assertEquals(-1, store.getExpiration("unknown"));
+
+        assertEquals(1, store.removeExpired(now));
+        assertNull(store.get("expired"));
+        assertEquals(url, store.get("valid"));
+        assertEquals(url, store.get("unknown"));
+
+        store.set("valid", url);
+        assertEquals(-1, store.getExpiration("valid"));
+    }
+
+    /**
+     * Tests if offsets are stored with their entries and discarded when the entry is replaced.
+     * @throws MalformedURLException
+     */
+    @Test
+    public void testOffset() throws MalformedURLException {
+        TusURLOffsetStore store = new TusURLMemoryStore();
+        URL url = new URL("https://tusd.tusdemo.net/files/hello");
+
+        store.setOffset("foo", 10);
+        assertEquals(-1, store.getOffset("foo"));
+
+        store.set("foo", url);
+        store.setOffset("foo", 10);
+        assertEquals(10, store.getOffset("foo"));
+
+        store.setOffset("foo", -1);
+        assertEquals(-1, store.getOffset("foo"));
+
+        store.setOffset("foo", 20);
+        store.set("foo", url);
+        assertEquals(-1, store.getOffset("foo"));
+    }
 }
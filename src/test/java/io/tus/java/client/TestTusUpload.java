@@ -3,9 +3,15 @@ package io.tus.java.client;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -50,4 +56,76 @@ public class TestTusUpload {
         assertEquals(upload.getInputStream().read(readContent), content.length());
         assertEquals(new String(readContent), content);
     }
+
+    /**
+     * Tests if a file upload only opens its input stream once requested and rejects missing files.
+     * @throws IOException
+     */
+    @Test
+    public void testTusUploadFileOpensStreamLazily() throws IOException {
+        File file = File.createTempFile("tus-upload-test", ".tmp");
+        TusUpload upload = new TusUpload(file);
+        upload.closeInputStream();
+        assertTrue(file.delete());
+
+        // The file has not been opened before it was deleted.
+        try {
+            upload.getInputStream();
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof FileNotFoundException);
+        }
+
+        try {
+            new TusUpload(file);
+            fail("expected FileNotFoundException");
+        } catch (FileNotFoundException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests if memory mapping can be turned off and on.
+     */
+    @Test
+    public void testEnableMemoryMapping() {
+        TusUpload upload = new TusUpload();
+        assertFalse(upload.memoryMappingEnabled());
+
+        upload.enableMemoryMapping();
+        assertTrue(upload.memoryMappingEnabled());
+
+        upload.disableMemoryMapping();
+        assertFalse(upload.memoryMappingEnabled());
+    }
+
+    /**
+     * Tests if deferring the upload's length can be turned off and on.
+     */
+    @Test
+    public void testEnableDeferredLength() {
+        TusUpload upload = new TusUpload();
+        assertFalse(upload.deferredLengthEnabled());
+
+        upload.enableDeferredLength();
+        assertTrue(upload.deferredLengthEnabled());
+
+        upload.disableDeferredLength();
+        assertFalse(upload.deferredLengthEnabled());
+    }
+
+    /**
+     * Tests if setting a source replaces the input stream and adopts the source's size.
+     */
+    @Test
+    public void testSetSource() {
+        TusUpload upload = new TusUpload();
+        upload.setInputStream(new ByteArrayInputStream(new byte[3]));
+        assertTrue(upload.getSource() instanceof TusInputStreamSource);
+
+        upload.setSource(new TusByteBufferSource(new byte[5]));
+        assertNull(upload.getInputStream());
+        assertTrue(upload.getSource() instanceof TusByteBufferSource);
+        assertEquals(5, upload.getSize());
+    }
 }
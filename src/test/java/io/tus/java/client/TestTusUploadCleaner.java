@@ -0,0 +1,83 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URL;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+
+/**
+ * Test class for {@link TusUploadCleaner}.
+ */
+public class TestTusUploadCleaner extends MockServerProvider {
+
+    /**
+     * Tests if abandoned and superseded uploads are terminated in batches and removed from the
+     * store, while failed terminations are kept for the next run.
+     * @throws Exception
+     */
+    @Test
+    public void testClean() throws Exception {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/new"));
+        for (String path : new String[]{"/files/abandoned", "/files/superseded"}) {
+            mockServer.when(new HttpRequest()
+                    .withMethod("DELETE")
+                    .withPath(path)
+                    .withHeader("Tus-Resumable", TusClient.TUS_VERSION))
+                    .respond(new HttpResponse()
+                            .withStatusCode(204)
+                            .withHeader("Tus-Resumable", TusClient.TUS_VERSION));
+        }
+        mockServer.when(new HttpRequest()
+                .withMethod("DELETE")
+                .withPath("/files/gone")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION))
+                .respond(new HttpResponse()
+                        .withStatusCode(404));
+        mockServer.when(new HttpRequest()
+                .withMethod("DELETE")
+                .withPath("/files/failing")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION))
+                .respond(new HttpResponse()
+                        .withStatusCode(500));
+
+        TusURLMemoryStore store = new TusURLMemoryStore();
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        client.enableResuming(store);
+
+        TusUpload abandoned = new TusUpload();
+        abandoned.setFingerprint("abandoned");
+        store.set("abandoned", new URL(mockServerURL + "/abandoned"));
+        client.abandonUpload(abandoned);
+        assertEquals(null, store.get("abandoned"));
+
+        TusUpload superseded = new TusUpload();
+        superseded.setFingerprint("superseded");
+        superseded.setSize(10);
+        store.set("superseded", new URL(mockServerURL + "/superseded"));
+        client.createUpload(superseded);
+        assertEquals(new URL(mockServerURL + "/new"), store.get("superseded"));
+
+        URL failing = new URL(mockServerURL + "/failing");
+        store.addAbandoned(new URL(mockServerURL + "/gone"));
+        store.addAbandoned(failing);
+
+        TusUploadCleaner cleaner = new TusUploadCleaner(client, store);
+        cleaner.setBatchSize(2);
+        cleaner.setBatchDelay(0);
+
+        assertEquals(3, cleaner.clean());
+        assertEquals(Collections.singletonList(failing), store.getAbandoned());
+    }
+}
@@ -0,0 +1,209 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+
+/**
+ * Test class for {@link TusUploadManager}.
+ */
+public class TestTusUploadManager extends MockServerProvider {
+
+    /**
+     * Executor which only records the jobs handed to it.
+     */
+    private static class RecordingExecutor implements Executor {
+        private final List<Runnable> jobs = new ArrayList<Runnable>();
+
+        @Override
+        public void execute(Runnable runnable) {
+            jobs.add(runnable);
+        }
+
+        /**
+         * Complete the oldest recorded job without uploading anything.
+         * @return the upload of the completed job
+         */
+        TusUpload completeNext() {
+            TusUploadManager.Job job = (TusUploadManager.Job) jobs.remove(0);
+            job.cancel(false);
+            job.run();
+            return job.getUpload();
+        }
+    }
+
+    /**
+     * Tests if queued jobs are started by priority and take turns between tenants.
+     * @throws Exception
+     */
+    @Test
+    public void testPrioritiesAndTenants() throws Exception {
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        RecordingExecutor executor = new RecordingExecutor();
+        TusUploadManager manager = new TusUploadManager(client, 1, executor);
+
+        TusUpload a = new TusUpload();
+        TusUpload b = new TusUpload();
+        TusUpload c = new TusUpload();
+        TusUpload d = new TusUpload();
+        TusUpload e = new TusUpload();
+
+        manager.submit(a, TusUploadManager.Priority.NORMAL, "first");
+        manager.submit(b, TusUploadManager.Priority.NORMAL, "first");
+        manager.submit(c, TusUploadManager.Priority.NORMAL, "second");
+        manager.submit(d, TusUploadManager.Priority.HIGH, "first");
+        manager.submit(e, TusUploadManager.Priority.LOW, "second");
+
+        assertEquals(1, executor.jobs.size());
+        assertEquals(1, manager.getRunningUploads());
+        assertEquals(4, manager.getQueuedUploads());
+
+        assertSame(a, executor.completeNext());
+        assertSame(d, executor.completeNext());
+        assertSame(b, executor.completeNext());
+        assertSame(c, executor.completeNext());
+        assertSame(e, executor.completeNext());
+
+        assertEquals(0, executor.jobs.size());
+        assertEquals(0, manager.getRunningUploads());
+        assertEquals(0, manager.getQueuedUploads());
+    }
+
+    /**
+     * Tests if the number of uploads to the same host is limited.
+     * @throws Exception
+     */
+    @Test
+    public void testMaxUploadsPerHost() throws Exception {
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(new URL("http://first.example.com/files"));
+        TusURLStore store = new TusURLMemoryStore();
+        client.enableResuming(store);
+        store.set("second", new URL("http://second.example.com/files/upload"));
+
+        RecordingExecutor executor = new RecordingExecutor();
+        TusUploadManager manager = new TusUploadManager(client, 2, executor);
+        manager.setMaxUploadsPerHost(1);
+
+        TusUpload first = new TusUpload();
+        first.setFingerprint("first");
+        TusUpload firstAgain = new TusUpload();
+        firstAgain.setFingerprint("first-again");
+        TusUpload second = new TusUpload();
+        second.setFingerprint("second");
+
+        manager.submit(first);
+        manager.submit(firstAgain);
+        manager.submit(second);
+
+        assertEquals(2, executor.jobs.size());
+        assertEquals(1, manager.getQueuedUploads());
+
+        assertSame(first, executor.completeNext());
+        assertSame(second, executor.completeNext());
+        assertSame(firstAgain, executor.completeNext());
+    }
+
+    /**
+     * Tests if a cancelled job is not started.
+     * @throws Exception
+     */
+    @Test
+    public void testCancelQueuedJob() throws Exception {
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        RecordingExecutor executor = new RecordingExecutor();
+        TusUploadManager manager = new TusUploadManager(client, 1, executor);
+
+        TusUpload first = new TusUpload();
+        TusUpload cancelled = new TusUpload();
+        TusUpload last = new TusUpload();
+        manager.submit(first);
+        manager.submit(cancelled).cancel(false);
+        manager.submit(last);
+
+        assertSame(first, executor.completeNext());
+        assertSame(last, executor.completeNext());
+        assertEquals(0, manager.getQueuedUploads());
+    }
+
+    /**
+     * Tests if closing the manager cancels the queued jobs and the jobs handed to a supplied executor.
+     * @throws Exception
+     */
+    @Test
+    public void testClose() throws Exception {
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        RecordingExecutor executor = new RecordingExecutor();
+        TusUploadManager manager = new TusUploadManager(client, 1, executor);
+
+        Future<URL> running = manager.submit(new TusUpload());
+        Future<URL> queued = manager.submit(new TusUpload());
+        manager.close();
+
+        assertTrue(running.isCancelled());
+        assertTrue(queued.isCancelled());
+        assertEquals(0, manager.getQueuedUploads());
+    }
+
+    /**
+     * Tests if submitted uploads are created and sent.
+     * @throws Exception
+     */
+    @Test
+    public void testSubmit() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockServer.when(new HttpRequest()
+                    .withMethod("POST")
+                    .withPath("/files")
+                    .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                    .withHeader("Upload-Metadata", "index " + TusUpload.base64Encode(Integer.toString(i).getBytes())))
+                    .respond(new HttpResponse()
+                            .withStatusCode(201)
+                            .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                            .withHeader("Location", mockServerURL + "/managed" + i));
+
+            mockServer.when(new HttpRequest()
+                    .withMethod("PATCH")
+                    .withPath("/files/managed" + i)
+                    .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                    .withHeader("Upload-Offset", "0"))
+                    .respond(new HttpResponse()
+                            .withStatusCode(204)
+                            .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                            .withHeader("Upload-Offset", "5"));
+        }
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        TusUploadManager manager = new TusUploadManager(client, 2);
+
+        List<Future<URL>> futures = new ArrayList<Future<URL>>();
+        for (int i = 0; i < 2; i++) {
+            TusUpload upload = new TusUpload();
+            upload.setSource(new TusByteBufferSource("hello".getBytes()));
+            upload.setMetadata(Collections.singletonMap("index", Integer.toString(i)));
+            futures.add(manager.submit(upload));
+        }
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(new URL(mockServerURL + "/managed" + i), futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+        manager.close();
+        assertTrue(futures.get(0).isDone());
+    }
+}
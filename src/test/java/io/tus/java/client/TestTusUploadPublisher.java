@@ -0,0 +1,163 @@
+package io.tus.java.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Test class for {@link TusUploadPublisher}.
+ */
+public class TestTusUploadPublisher extends MockServerProvider {
+
+    /**
+     * Subscriber which requests one event at a time and records the signals.
+     */
+    private static class RecordingSubscriber implements Subscriber<TusUploadEvent> {
+        private final List<TusUploadEvent> events = new ArrayList<TusUploadEvent>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private final long initialRequest;
+        private Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        /**
+         * @param initialRequest number of events requested when subscribing
+         */
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            s.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(TusUploadEvent event) {
+            events.add(event);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        /**
+         * @throws InterruptedException interrupted while waiting
+         */
+        void await() throws InterruptedException {
+            assertTrue(terminated.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Tests if the events of a new upload are published.
+     * @throws Exception
+     */
+    @Test
+    public void testPublishUpload() throws Exception {
+        mockServer.when(new HttpRequest()
+                .withMethod("POST")
+                .withPath("/files")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Length", "11"))
+                .respond(new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Location", mockServerURL + "/published"));
+
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/published")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "0")
+                .withBody("hello world".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("hello world".getBytes()));
+
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        new TusUploadPublisher(client, upload).subscribe(subscriber);
+        subscriber.await();
+
+        assertNull(subscriber.error);
+        assertTrue(subscriber.completed);
+        assertEquals(3, subscriber.events.size());
+
+        URL uploadURL = new URL(mockServerURL + "/published");
+        assertEquals(TusUploadEvent.Type.CREATED, subscriber.events.get(0).getType());
+        assertEquals(uploadURL, subscriber.events.get(0).getUploadURL());
+        assertEquals(0, subscriber.events.get(0).getOffset());
+        assertEquals(TusUploadEvent.Type.CHUNK_ACKNOWLEDGED, subscriber.events.get(1).getType());
+        assertEquals(11, subscriber.events.get(1).getOffset());
+        assertEquals(TusUploadEvent.Type.COMPLETED, subscriber.events.get(2).getType());
+        assertEquals(11, subscriber.events.get(2).getOffset());
+    }
+
+    /**
+     * Tests if a request for a non-positive number of events is signalled as an error without
+     * starting the upload.
+     * @throws Exception
+     */
+    @Test
+    public void testInvalidRequest() throws Exception {
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource(new byte[10]));
+
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        new TusUploadPublisher(client, upload).subscribe(subscriber);
+        subscriber.await();
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, subscriber.events.size());
+    }
+
+    /**
+     * Tests if a publisher rejects a second subscriber.
+     * @throws Exception
+     */
+    @Test
+    public void testSingleSubscriber() throws Exception {
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(mockServerURL);
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource(new byte[10]));
+        TusUploadPublisher publisher = new TusUploadPublisher(client, upload);
+
+        publisher.subscribe(new RecordingSubscriber(0));
+        RecordingSubscriber second = new RecordingSubscriber(1);
+        publisher.subscribe(second);
+        second.await();
+
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+}
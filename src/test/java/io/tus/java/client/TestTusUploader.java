@@ -1,6 +1,8 @@
 package io.tus.java.client;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -8,6 +10,8 @@ import static org.mockito.Mockito.times;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
@@ -15,13 +19,20 @@ import java.net.MalformedURLException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Assume;
 import org.junit.Test;
+import org.mockserver.matchers.Times;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
 import org.mockserver.socket.PortFactory;
+import org.mockserver.verify.VerificationTimes;
+
+import okio.Buffer;
 
 /**
  * Test class for {@link TusUploader}.
@@ -44,7 +55,18 @@ public class TestTusUploader extends MockServerProvider {
                 .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
                 .withHeader("Upload-Offset", "3")
                 .withHeader("Content-Type", "application/offset+octet-stream")
-                .withBody(Arrays.copyOfRange(content, 3, 11)))
+                .withBody(Arrays.copyOfRange(content, 3, 8)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "8"));
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/foo")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "8")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody(Arrays.copyOfRange(content, 8, 11)))
                 .respond(new HttpResponse()
                         .withStatusCode(204)
                         .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
@@ -63,11 +85,444 @@ public class TestTusUploader extends MockServerProvider {
         assertEquals(uploader.getChunkSize(), 5);
 
         assertEquals(5, uploader.uploadChunk());
+        assertEquals(3, uploader.uploadChunk());
+        assertEquals(-1, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        uploader.finish();
+    }
+
+    /**
+     * Tests if the {@link TusUploader} sends checksums and retransmits a request whose checksum did not match.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test
+    public void testTusUploaderChecksum() throws IOException, ProtocolException {
+        HttpRequest request = new HttpRequest()
+                .withPath("/files/checksum")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "0")
+                .withHeader("Upload-Checksum", "sha1 Kq5sNclPz7QV2+lfQIuc6R7oRu0=")
+                .withBody("hello world".getBytes());
+
+        mockServer.when(request, Times.once())
+                .respond(new HttpResponse()
+                        .withStatusCode(460)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION));
+        mockServer.when(request)
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        client.setChecksumAlgorithm(TusChecksumAlgorithm.SHA1);
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("hello world".getBytes()));
+
+        TusUploader uploader = new TusUploader(client, upload, new URL(mockServerURL + "/checksum"),
+                upload.getSource(), 0);
+        assertEquals(TusChecksumAlgorithm.SHA1, uploader.getChecksumAlgorithm());
+        uploader.enableStreaming();
+        uploader.setRequestPayloadSize(11);
+
+        assertEquals(11, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        uploader.finish();
+
+        mockServer.verify(request, VerificationTimes.exactly(2));
+    }
+
+    /**
+     * Tests if the {@link TusUploader} declares the length of a deferred-length upload in the last PATCH request.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test
+    public void testTusUploaderDeferredLength() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withPath("/files/deferred")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "0")
+                .withBody("hello ".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "6"));
+        mockServer.when(new HttpRequest()
+                .withPath("/files/deferred")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "6")
+                .withHeader("Upload-Length", "11")
+                .withBody("world".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        TusUpload upload = new TusUpload();
+        upload.setInputStream(new ByteArrayInputStream("hello world".getBytes()));
+        upload.enableDeferredLength();
+
+        TusUploader uploader = new TusUploader(client, upload, new URL(mockServerURL + "/deferred"),
+                upload.getSource(), 0);
+        uploader.enableStreaming();
+        uploader.setRequestPayloadSize(6);
+
+        assertEquals(6, uploader.uploadChunk());
+        assertEquals(5, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        assertEquals(11, upload.getSize());
+        assertEquals(-1, uploader.uploadChunk());
+        uploader.finish();
+    }
+
+    /**
+     * Tests if the {@link TusUploader} sends the missing bytes again if the server has not received all of them
+     * when the length of a deferred-length upload is declared without a body.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test
+    public void testTusUploaderDeferredLengthWithMissingBytes() throws IOException, ProtocolException {
+        mockServer.when(new HttpRequest()
+                .withPath("/files/deferred-missing")
+                .withHeader("Upload-Offset", "0")
+                .withBody("hello ".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "6"));
+        mockServer.when(new HttpRequest()
+                .withPath("/files/deferred-missing")
+                .withHeader("Upload-Offset", "6")
+                .withHeader("Upload-Length", "6"))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "3"));
+        mockServer.when(new HttpRequest()
+                .withPath("/files/deferred-missing")
+                .withHeader("Upload-Offset", "3")
+                .withHeader("Upload-Length", "6")
+                .withBody("lo ".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "6"));
+
+        TusClient client = new TusClient();
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("hello ".getBytes()));
+        upload.enableDeferredLength();
+
+        TusUploader uploader = new TusUploader(client, upload, new URL(mockServerURL + "/deferred-missing"),
+                upload.getSource(), 0);
+        uploader.setChunkSize(6);
+
+        assertEquals(6, uploader.uploadChunk());
+        assertEquals(3, uploader.uploadChunk());
+        assertEquals(6, uploader.getOffset());
+        assertEquals(6, upload.getSize());
+        assertEquals(-1, uploader.uploadChunk());
+        uploader.finish();
+    }
+
+    /**
+     * Tests if an uploader for an upload without a source, e.g. one only created for its URL, can be finished.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test
+    public void testTusUploaderWithoutSource() throws IOException, ProtocolException {
+        TusUploader uploader = new TusUploader(new TusClient(), new TusUpload(), new URL(mockServerURL + "/nosource"),
+                (TusSource) null, 0);
+        uploader.finish(false);
+        uploader.finish();
+    }
+
+    /**
+     * Tests if the {@link TusUploader} streams chunks directly from the input if streaming is enabled.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test
+    public void testTusUploaderStreaming() throws IOException, ProtocolException {
+        byte[] content = "hello world".getBytes();
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/streaming")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "3")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody(Arrays.copyOfRange(content, 3, 8)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "8"));
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/streaming")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "8")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody(Arrays.copyOfRange(content, 8, 11)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        URL uploadUrl = new URL(mockServerURL + "/streaming");
+        TusInputStream input = new TusInputStream(new ByteArrayInputStream(content));
+
+        TusUpload upload = new TusUpload();
+        upload.setSize(content.length);
+
+        TusUploader uploader = new TusUploader(client, upload, uploadUrl, input, 3);
+        assertFalse(uploader.streamingEnabled());
+        uploader.enableStreaming();
+        assertTrue(uploader.streamingEnabled());
+
+        uploader.setChunkSize(5);
+        assertEquals(5, uploader.uploadChunk());
+        assertEquals(8, uploader.getOffset());
+        assertEquals(3, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        assertEquals(-1, uploader.uploadChunk());
+        uploader.finish();
+    }
+
+    /**
+     * Tests if the {@link TusUploader} sends chunks read ahead in the background if prefetching is enabled.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test
+    public void testTusUploaderPrefetching() throws IOException, ProtocolException {
+        byte[] content = "hello world".getBytes();
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/prefetch")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "3")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody(Arrays.copyOfRange(content, 3, 8)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "8"));
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/prefetch")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "8")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody(Arrays.copyOfRange(content, 8, 11)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        URL uploadUrl = new URL(mockServerURL + "/prefetch");
+        TusInputStream input = new TusInputStream(new ByteArrayInputStream(content));
+
+        TusUploader uploader = new TusUploader(client, new TusUpload(), uploadUrl, input, 3);
+        assertFalse(uploader.prefetchingEnabled());
+        uploader.enablePrefetching();
+        assertTrue(uploader.prefetchingEnabled());
+        uploader.setPrefetchDepth(3);
+        assertEquals(3, uploader.getPrefetchDepth());
+
+        uploader.setChunkSize(5);
+        assertEquals(5, uploader.uploadChunk());
+        assertEquals(3, uploader.uploadChunk());
+        assertEquals(-1, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        uploader.finish();
+    }
+
+    /**
+     * Verifies, that {@link TusSourceRequestBody} writes exactly the requested bytes from a stream.
+     * @throws IOException
+     */
+    @Test
+    public void testSourceRequestBodyFromStream() throws IOException {
+        byte[] content = "hello world".getBytes();
+        TusSource source = new TusInputStreamSource(new ByteArrayInputStream(content));
+
+        TusSourceRequestBody body = new TusSourceRequestBody(source, 2, 7);
+        assertEquals(7, body.contentLength());
+
+        Buffer sink = new Buffer();
+        body.writeTo(sink);
+        assertArrayEquals(Arrays.copyOfRange(content, 2, 9), sink.readByteArray());
+    }
+
+    /**
+     * Tests if the {@link TusUploader} reads files created using {@link TusUpload#TusUpload(File)} at the
+     * current offset if streaming is enabled.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test
+    public void testTusUploaderStreamingFile() throws IOException, ProtocolException {
+        byte[] content = "hello world".getBytes();
+        File file = createTempFile(content);
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/streamingFile")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "6")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody(Arrays.copyOfRange(content, 6, 11)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        URL uploadUrl = new URL(mockServerURL + "/streamingFile");
+        TusUpload upload = new TusUpload(file);
+
+        TusUploader uploader = new TusUploader(client, upload, uploadUrl, upload.getSource(), 6);
+        uploader.enableStreaming();
+
+        assertEquals(5, uploader.uploadChunk());
+        assertEquals(-1, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        uploader.finish();
+    }
+
+    /**
+     * Verifies, that {@link TusSourceRequestBody} writes the requested region of a file and can be written
+     * multiple times.
+     * @throws IOException
+     */
+    @Test
+    public void testSourceRequestBodyFromFile() throws IOException {
+        byte[] content = "hello world".getBytes();
+        File file = createTempFile(content);
+
+        TusSource source = new TusFileSource(file);
+        try {
+            TusSourceRequestBody body = new TusSourceRequestBody(source, 4, 5);
+            assertEquals(5, body.contentLength());
+
+            for (int i = 0; i < 2; i++) {
+                Buffer sink = new Buffer();
+                body.writeTo(sink);
+                assertArrayEquals(Arrays.copyOfRange(content, 4, 9), sink.readByteArray());
+            }
+        } finally {
+            source.close();
+        }
+    }
+
+    /**
+     * Tests if the {@link TusUploader} sends chunks from a mapping of the file if memory mapping is enabled.
+     * @throws IOException
+     * @throws ProtocolException
+     */
+    @Test
+    public void testTusUploaderMemoryMapped() throws IOException, ProtocolException {
+        byte[] content = "hello world".getBytes();
+        File file = createTempFile(content);
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/mapped")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "2")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody(Arrays.copyOfRange(content, 2, 6)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "6"));
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/mapped")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "6")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody(Arrays.copyOfRange(content, 6, 10)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "10"));
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/mapped")
+                .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                .withHeader("Upload-Offset", "10")
+                .withHeader("Content-Type", "application/offset+octet-stream")
+                .withBody(Arrays.copyOfRange(content, 10, 11)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        URL uploadUrl = new URL(mockServerURL + "/mapped");
+        TusUpload upload = new TusUpload(file);
+        upload.enableMemoryMapping();
+
+        TusUploader uploader = new TusUploader(client, upload, uploadUrl, upload.getSource(), 2);
+        uploader.setChunkSize(4);
+
+        assertEquals(4, uploader.uploadChunk());
+        assertEquals(4, uploader.uploadChunk());
+        assertEquals(1, uploader.uploadChunk());
         assertEquals(-1, uploader.uploadChunk());
         assertEquals(11, uploader.getOffset());
         uploader.finish();
     }
 
+    /**
+     * Verifies, that memory mappings never exceed the size of a single mapping, even for payloads of 2 GiB and
+     * more.
+     */
+    @Test
+    public void testMappedRegionSize() {
+        assertEquals(6, TusUploader.getMappedRegionSize(4, 10, 6));
+        assertEquals(4, TusUploader.getMappedRegionSize(4, 2, 6));
+        assertEquals(Integer.MAX_VALUE, TusUploader.getMappedRegionSize(4, Long.MAX_VALUE, 3L * Integer.MAX_VALUE));
+    }
+
+    /**
+     * Verifies, that {@link ByteBufferRequestBody} writes the buffer's remaining bytes without consuming them.
+     * @throws IOException
+     */
+    @Test
+    public void testByteBufferRequestBody() throws IOException {
+        byte[] content = "hello world".getBytes();
+        ByteBuffer buffer = ByteBuffer.wrap(content, 6, 5);
+
+        ByteBufferRequestBody body = new ByteBufferRequestBody(buffer);
+        assertEquals(5, body.contentLength());
+
+        for (int i = 0; i < 2; i++) {
+            Buffer sink = new Buffer();
+            body.writeTo(sink);
+            assertArrayEquals(Arrays.copyOfRange(content, 6, 11), sink.readByteArray());
+        }
+        assertEquals(5, buffer.remaining());
+    }
+
+    private File createTempFile(byte[] content) throws IOException {
+        File file = File.createTempFile("tus-test", ".bin");
+        file.deleteOnExit();
+        FileOutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content);
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+
     /**
      * Verifies, that {@link TusClient#uploadFinished(TusUpload)} gets called after a proper upload has been finished.
      * @throws IOException
@@ -245,6 +700,9 @@ public class TestTusUploader extends MockServerProvider {
         TusUploader uploader = new TusUploader(client, upload, uploadUrl, input, 0);
 
         assertEquals(uploader.getRequestPayloadSize(), 10 * 1024 * 1024);
+        // Chunks are only combined into a payload if multi-chunk requests are enabled, otherwise
+        // every chunk is sent in its own request.
+        uploader.enableMultiChunkRequests();
         uploader.setRequestPayloadSize(5);
         assertEquals(uploader.getRequestPayloadSize(), 5);
 
@@ -279,6 +737,7 @@ public class TestTusUploader extends MockServerProvider {
         TusUpload upload = new TusUpload();
 
         TusUploader uploader = new TusUploader(client, upload, uploadUrl, input, 0);
+        uploader.enableMultiChunkRequests();
 
         uploader.setChunkSize(4);
         uploader.uploadChunk();
@@ -287,6 +746,224 @@ public class TestTusUploader extends MockServerProvider {
         uploader.setRequestPayloadSize(100);
     }
 
+    /**
+     * Verifies, that multiple chunks are sent in a single request if {@link TusUploader#enableMultiChunkRequests()}
+     * is used.
+     * @throws Exception
+     */
+    @Test
+    public void testMultiChunkRequests() throws Exception {
+        byte[] content = "hello world".getBytes();
+
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/multiChunk")
+                .withHeader("Upload-Offset", "0")
+                .withHeader("Content-Length", "5")
+                .withBody(Arrays.copyOfRange(content, 0, 5)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "5"));
+
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/multiChunk")
+                .withHeader("Upload-Offset", "5")
+                .withHeader("Content-Length", "6")
+                .withBody(Arrays.copyOfRange(content, 5, 11)))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        TusClient client = new TusClient();
+        URL uploadUrl = new URL(mockServerURL + "/multiChunk");
+        TusInputStream input = new TusInputStream(new ByteArrayInputStream(content));
+        TusUpload upload = new TusUpload();
+        upload.setSize(content.length);
+
+        TusUploader uploader = new TusUploader(client, upload, uploadUrl, input, 0);
+        assertFalse(uploader.multiChunkRequestsEnabled());
+        uploader.enableMultiChunkRequests();
+        assertTrue(uploader.multiChunkRequestsEnabled());
+        uploader.setRequestPayloadSize(5);
+        uploader.setChunkSize(2);
+
+        // First request
+        assertEquals(2, uploader.uploadChunk());
+        assertEquals(2, uploader.uploadChunk());
+        assertEquals(1, uploader.uploadChunk());
+
+        // Second request, which contains the entire remaining upload
+        uploader.setRequestPayloadSize(Long.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, uploader.getRequestPayloadSize());
+        uploader.setChunkSize(4);
+        assertEquals(4, uploader.uploadChunk());
+        assertEquals(2, uploader.uploadChunk());
+        assertEquals(-1, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        uploader.finish();
+    }
+
+    /**
+     * Verifies, that more multi-chunk requests than OkHttp's dispatcher runs per host can be open at the
+     * same time without blocking the writes into them.
+     * @throws Exception
+     */
+    @Test(timeout = 30000)
+    public void testMultiChunkRequestsBeyondDispatcherLimit() throws Exception {
+        byte[] content = new byte[256 * 1024];
+
+        mockServer.when(new HttpRequest()
+                .withMethod("PATCH")
+                .withPath("/files/multiChunkParallel")
+                .withHeader("Upload-Offset", "0"))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", Integer.toString(content.length)));
+
+        TusClient client = new TusClient();
+        URL uploadUrl = new URL(mockServerURL + "/multiChunkParallel");
+        int uploads = client.getOrCreateOkHttpClient().dispatcher().getMaxRequestsPerHost() + 1;
+        List<TusUploader> uploaders = new ArrayList<TusUploader>();
+        for (int i = 0; i < uploads; i++) {
+            TusUpload upload = new TusUpload();
+            upload.setSize(content.length);
+            TusUploader uploader = new TusUploader(client, upload, uploadUrl, new TusByteBufferSource(content), 0);
+            uploader.enableMultiChunkRequests();
+            uploader.setChunkSize(content.length / 2);
+            uploaders.add(uploader);
+        }
+
+        // Every request is opened and half of its body, which exceeds the pipe's capacity, is written
+        // before any of them is completed.
+        for (TusUploader uploader : uploaders) {
+            assertEquals(content.length / 2, uploader.uploadChunk());
+        }
+        for (TusUploader uploader : uploaders) {
+            assertEquals(content.length / 2, uploader.uploadChunk());
+            assertEquals(content.length, uploader.getOffset());
+            uploader.finish();
+        }
+    }
+
+    /**
+     * Verifies, that the payload size cannot be changed while a multi-chunk request is open.
+     * @throws Exception
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testMultiChunkRequestsSetRequestPayloadSizeThrows() throws Exception {
+        byte[] content = "hello world".getBytes();
+
+        TusClient client = new TusClient();
+        URL uploadUrl = new URL(mockServerURL + "/multiChunkException");
+        TusInputStream input = new TusInputStream(new ByteArrayInputStream(content));
+        TusUpload upload = new TusUpload();
+        upload.setSize(content.length);
+
+        TusUploader uploader = new TusUploader(client, upload, uploadUrl, input, 0);
+        uploader.enableMultiChunkRequests();
+        uploader.setChunkSize(4);
+        assertEquals(4, uploader.uploadChunk());
+
+        try {
+            // Throws IllegalStateException
+            uploader.setRequestPayloadSize(100);
+        } finally {
+            uploader.finish();
+        }
+    }
+
+    /**
+     * Verifies, that the response to a chunk sent in its own request is checked with the default chunk and
+     * payload sizes, and that a rejected chunk does not advance the offset.
+     * @throws Exception
+     */
+    @Test
+    public void testRejectedChunk() throws Exception {
+        byte[] content = "hello world".getBytes();
+
+        mockServer.when(new HttpRequest()
+                .withPath("/files/rejected"))
+                .respond(new HttpResponse()
+                        .withStatusCode(500)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION));
+
+        TusClient client = new TusClient();
+        URL uploadUrl = new URL(mockServerURL + "/rejected");
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource(content));
+
+        TusUploader uploader = new TusUploader(client, upload, uploadUrl, upload.getSource(), 0);
+        try {
+            uploader.uploadChunk();
+            throw new AssertionError("expected ProtocolException");
+        } catch (ProtocolException e) {
+            assertEquals(500, e.getResponseCode());
+            assertTrue(e.shouldRetry());
+        }
+        assertEquals(0, uploader.getOffset());
+    }
+
+    /**
+     * Verifies, that an offset conflict in low-latency mode is resolved by retrieving the offset from the server,
+     * both for multi-chunk requests and for requests carrying a checksum.
+     * @throws Exception
+     */
+    @Test
+    public void testLowLatencyOffsetConflict() throws Exception {
+        byte[] content = "hello world".getBytes();
+
+        for (String path : new String[]{"conflictMultiChunk", "conflictChecksum"}) {
+            mockServer.when(new HttpRequest()
+                    .withMethod("PATCH")
+                    .withPath("/files/" + path)
+                    .withHeader("Upload-Offset", "3"))
+                    .respond(new HttpResponse()
+                            .withStatusCode(409)
+                            .withHeader("Tus-Resumable", TusClient.TUS_VERSION));
+            mockServer.when(new HttpRequest()
+                    .withMethod("HEAD")
+                    .withPath("/files/" + path))
+                    .respond(new HttpResponse()
+                            .withStatusCode(204)
+                            .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                            .withHeader("Upload-Offset", "5"));
+            mockServer.when(new HttpRequest()
+                    .withMethod("PATCH")
+                    .withPath("/files/" + path)
+                    .withHeader("Upload-Offset", "5")
+                    .withBody(Arrays.copyOfRange(content, 5, 11)))
+                    .respond(new HttpResponse()
+                            .withStatusCode(204)
+                            .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                            .withHeader("Upload-Offset", "11"));
+
+            TusClient client = new TusClient();
+            client.enableLowLatencyMode();
+            TusUpload upload = new TusUpload();
+            upload.setSource(new TusByteBufferSource(content));
+
+            TusUploader uploader = new TusUploader(client, upload, new URL(mockServerURL + "/" + path),
+                    upload.getSource(), 3);
+            if (path.equals("conflictChecksum")) {
+                uploader.setChecksumAlgorithm(TusChecksumAlgorithm.SHA1);
+            } else {
+                uploader.enableMultiChunkRequests();
+            }
+
+            assertEquals(6, uploader.uploadChunk());
+            assertEquals(11, uploader.getOffset());
+            assertEquals(-1, uploader.uploadChunk());
+            uploader.finish();
+
+            mockServer.verify(new HttpRequest().withMethod("HEAD").withPath("/files/" + path),
+                    VerificationTimes.exactly(1));
+        }
+    }
+
     /**
      * Verifies, that an Exception is thrown if the UploadOffsetHeader is missing.
      * @throws Exception
@@ -320,6 +997,126 @@ public class TestTusUploader extends MockServerProvider {
         }
     }
 
+    /**
+     * Verifies, that the bytes are sent again from the buffer if the server's offset is behind the
+     * client's upload offset value.
+     * @throws Exception
+     */
+    @Test
+    public void testReconcileUploadOffsetBehind() throws Exception {
+        mockServer.when(new HttpRequest()
+                .withPath("/files/behind")
+                .withHeader("Upload-Offset", "0")
+                .withBody("hello world".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "6"));
+        mockServer.when(new HttpRequest()
+                .withPath("/files/behind")
+                .withHeader("Upload-Offset", "6")
+                .withBody("world".getBytes()))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "11"));
+
+        final List<Long> positions = new ArrayList<Long>();
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("hello world".getBytes()) {
+            @Override
+            public int read(long position, ByteBuffer dst) {
+                positions.add(position);
+                return super.read(position, dst);
+            }
+        });
+
+        TusUploader uploader = new TusUploader(new TusClient(), upload, new URL(mockServerURL + "/behind"),
+                upload.getSource(), 0);
+        uploader.setRequestPayloadSize(11);
+
+        assertEquals(11, uploader.uploadChunk());
+        assertEquals(6, uploader.getOffset());
+        assertEquals(5, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        // The bytes after the server's offset are taken from the buffer, not read again.
+        assertEquals(Arrays.asList(0L, 11L), positions);
+        uploader.finish();
+    }
+
+    /**
+     * Verifies, that the upload is rewound through the source if the server's offset is behind the start of the
+     * request, e.g. because the server has lost bytes acknowledged before.
+     * @throws Exception
+     */
+    @Test
+    public void testReconcileUploadOffsetBeforeRequest() throws Exception {
+        String[][] exchanges = new String[][]{
+                {"0", "hello ", "6"},
+                {"6", "world", "3"},
+                {"3", "lo wor", "9"},
+                {"9", "ld", "11"},
+        };
+        for (String[] exchange : exchanges) {
+            mockServer.when(new HttpRequest()
+                    .withPath("/files/lost")
+                    .withHeader("Upload-Offset", exchange[0])
+                    .withBody(exchange[1].getBytes()))
+                    .respond(new HttpResponse()
+                            .withStatusCode(204)
+                            .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                            .withHeader("Upload-Offset", exchange[2]));
+        }
+
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("hello world".getBytes()));
+        TusUploader uploader = new TusUploader(new TusClient(), upload, new URL(mockServerURL + "/lost"),
+                upload.getSource(), 0);
+        uploader.setChunkSize(6);
+        uploader.setRequestPayloadSize(6);
+
+        assertEquals(6, uploader.uploadChunk());
+        assertEquals(5, uploader.uploadChunk());
+        assertEquals(3, uploader.getOffset());
+        assertEquals(6, uploader.uploadChunk());
+        assertEquals(2, uploader.uploadChunk());
+        assertEquals(11, uploader.getOffset());
+        uploader.finish();
+    }
+
+    /**
+     * Verifies, that a request whose body the server has not stored is sent again, but only a limited number of
+     * times, after which a retryable exception is thrown.
+     * @throws Exception
+     */
+    @Test
+    public void testReconcileUploadOffsetWithoutProgress() throws Exception {
+        mockServer.when(new HttpRequest()
+                .withPath("/files/dropped"))
+                .respond(new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", TusClient.TUS_VERSION)
+                        .withHeader("Upload-Offset", "0"));
+
+        TusUpload upload = new TusUpload();
+        upload.setSource(new TusByteBufferSource("hello world".getBytes()));
+        TusUploader uploader = new TusUploader(new TusClient(), upload, new URL(mockServerURL + "/dropped"),
+                upload.getSource(), 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(11, uploader.uploadChunk());
+            assertEquals(0, uploader.getOffset());
+        }
+        try {
+            uploader.uploadChunk();
+            throw new AssertionError("expected ProtocolException");
+        } catch (ProtocolException e) {
+            assertTrue(e.getMessage().contains("different Upload-Offset value (0) than expected (11)"));
+            assertEquals(204, e.getResponseCode());
+            assertTrue(e.shouldRetry());
+        }
+    }
+
     /**
      * Verifies, that an Exception is thrown if the UploadOffsetHeader of the server's response does not match the
      * clients upload offset value.